@@ -0,0 +1,94 @@
+package com.mumfrey.liteloader.client;
+
+import net.minecraft.util.ChatComponentText;
+import net.minecraft.util.IChatComponent;
+
+import com.mumfrey.liteloader.core.LiteLoaderEventBroker.ReturnValue;
+
+/**
+ * State for an inbound chat event as it passes through the chat filters. The formatted text is only built when
+ * it is first requested and is kept until a filter replaces the chat component, and a single return value is
+ * reused for every filter in the chain.
+ *
+ * @author Adam Mummery-Smith
+ */
+class ChatEventContext
+{
+	private final ReturnValue<IChatComponent> result = new ReturnValue<IChatComponent>();
+	
+	private IChatComponent chat;
+	
+	/**
+	 * Formatted text of the current component, null until requested
+	 */
+	private String message;
+	
+	private boolean active;
+	
+	/**
+	 * Get whether the context is in use by an event which is still being processed
+	 */
+	boolean isActive()
+	{
+		return this.active;
+	}
+	
+	/**
+	 * @param chat
+	 */
+	void begin(IChatComponent chat)
+	{
+		this.active = true;
+		this.chat = chat;
+		this.message = null;
+	}
+	
+	void end()
+	{
+		this.active = false;
+		this.chat = null;
+		this.message = null;
+		this.result.reset();
+	}
+	
+	IChatComponent getChat()
+	{
+		return this.chat;
+	}
+	
+	/**
+	 * Get the formatted text of the current chat component, building it if necessary
+	 */
+	String getMessage()
+	{
+		if (this.message == null)
+		{
+			this.message = this.chat.getFormattedText();
+		}
+		
+		return this.message;
+	}
+	
+	/**
+	 * Get the return value for the next filter
+	 */
+	ReturnValue<IChatComponent> getResult()
+	{
+		this.result.reset();
+		return this.result;
+	}
+	
+	/**
+	 * Apply the result set by the last filter, if any. The formatted text is discarded even if the same
+	 * component is returned because the filter may have modified it.
+	 */
+	void applyResult()
+	{
+		if (this.result.isSet())
+		{
+			IChatComponent newChat = this.result.get();
+			this.chat = newChat != null ? newChat : new ChatComponentText("");
+			this.message = null;
+		}
+	}
+}
@@ -9,7 +9,6 @@ import net.minecraft.network.play.INetHandlerPlayClient;
 import net.minecraft.network.play.server.S01PacketJoinGame;
 import net.minecraft.network.play.server.S02PacketChat;
 import net.minecraft.server.MinecraftServer;
-import net.minecraft.util.ChatComponentText;
 import net.minecraft.util.IChatComponent;
 import net.minecraft.util.IThreadListener;
 
@@ -25,7 +24,6 @@ import com.mumfrey.liteloader.common.transformers.PacketEventInfo;
 import com.mumfrey.liteloader.core.ClientPluginChannels;
 import com.mumfrey.liteloader.core.InterfaceRegistrationDelegate;
 import com.mumfrey.liteloader.core.LiteLoader;
-import com.mumfrey.liteloader.core.LiteLoaderEventBroker.ReturnValue;
 import com.mumfrey.liteloader.core.PacketEvents;
 import com.mumfrey.liteloader.core.event.EventCancellationException;
 import com.mumfrey.liteloader.core.event.HandlerList;
@@ -50,6 +48,11 @@ public class PacketEventsClient extends PacketEvents
 	private FastIterableDeque<ChatFilter> chatFilters = new HandlerList<ChatFilter>(ChatFilter.class, ReturnLogicOp.AND_BREAK_ON_FALSE);
 	private FastIterableDeque<PreJoinGameListener> preJoinGameListeners = new HandlerList<PreJoinGameListener>(PreJoinGameListener.class, ReturnLogicOp.AND_BREAK_ON_FALSE);
 	private FastIterableDeque<PostLoginListener> postLoginListeners = new HandlerList<PostLoginListener>(PostLoginListener.class);
+	
+	/**
+	 * Reused for each chat packet
+	 */
+	private final ChatEventContext chatContext = new ChatEventContext();
 
 	@Override
 	public void registerInterfaces(InterfaceRegistrationDelegate delegate)
@@ -207,48 +210,53 @@ public class PacketEventsClient extends PacketEvents
 		if (packet.getChatComponent() == null)
 			return;
 		
+		if (this.chatFilters.isEmpty() && this.chatListeners.isEmpty())
+			return;
+		
+		// A filter which displays chat could cause this method to be re-entered
+		ChatEventContext context = this.chatContext.isActive() ? new ChatEventContext() : this.chatContext;
 		IChatComponent originalChat = packet.getChatComponent();
-		IChatComponent chat = originalChat;
-		String message = chat.getFormattedText();
+		context.begin(originalChat);
 		
-		// Chat filters get a stab at the chat first, if any filter returns false the chat is discarded
-		for (ChatFilter chatFilter : this.chatFilters)
+		try
 		{
-			ReturnValue<IChatComponent> ret = new ReturnValue<IChatComponent>();
+			// Chat filters get a stab at the chat first, if any filter returns false the chat is discarded
+			for (ChatFilter chatFilter : this.chatFilters)
+			{
+				if (chatFilter.onChat(context.getChat(), context.getMessage(), context.getResult()))
+				{
+					context.applyResult();
+				}
+				else
+				{
+					e.cancel();
+					return;
+				}
+			}
 			
-			if (chatFilter.onChat(chat, message, ret))
+			IChatComponent chat = context.getChat();
+			if (chat != originalChat)
 			{
-				if (ret.isSet())
+				try
+				{
+					chat = ChatUtilities.convertLegacyCodes(chat);
+					PrivateFieldsClient.chatMessage.set(packet, chat);
+				}
+				catch (Exception ex)
 				{
-					chat = ret.get();
-					if (chat == null)
-					{
-						chat = new ChatComponentText("");
-					}
-					message = chat.getFormattedText();
+					ex.printStackTrace();
 				}
 			}
-			else
+			
+			// Chat listeners get the chat if no filter removed it
+			if (!this.chatListeners.isEmpty())
 			{
-				e.cancel();
-				return;
+				this.chatListeners.all().onChat(chat, context.getMessage());
 			}
 		}
-		
-		if (chat != originalChat)
+		finally
 		{
-			try
-			{
-				chat = ChatUtilities.convertLegacyCodes(chat);
-				PrivateFieldsClient.chatMessage.set(packet, chat);
-			}
-			catch (Exception ex)
-			{
-				ex.printStackTrace();
-			}
+			context.end();
 		}
-		
-		// Chat listeners get the chat if no filter removed it
-		this.chatListeners.all().onChat(chat, message);
 	}
 }
@@ -1,5 +1,6 @@
 package com.mumfrey.liteloader.client.api;
 
+import java.io.File;
 import java.util.List;
 
 import net.minecraft.client.Minecraft;
@@ -16,6 +17,7 @@ import com.mumfrey.liteloader.client.Translator;
 import com.mumfrey.liteloader.core.LiteLoader;
 import com.mumfrey.liteloader.core.api.LiteLoaderCoreAPI;
 import com.mumfrey.liteloader.interfaces.ObjectFactory;
+import com.mumfrey.liteloader.launch.LoaderProperties;
 import com.mumfrey.liteloader.messaging.MessageBus;
 import com.mumfrey.liteloader.transformers.event.json.ModEvents;
 
@@ -113,9 +115,12 @@ public class LiteLoaderCoreAPIClient extends LiteLoaderCoreAPI
 	@Override
 	public List<Observer> getPreInitObservers()
 	{
+		boolean cacheModEvents = this.properties.getAndStoreBooleanProperty(LoaderProperties.OPTION_CACHE_MOD_EVENTS, true);
+		File eventsCacheFile = cacheModEvents ? new File(this.environment.getVersionedConfigFolder(), "liteloader.events.bin") : null;
+		
 		return ImmutableList.<Observer>of
 		(
-			new ModEvents()
+			new ModEvents(eventsCacheFile)
 		);
 	}
 	
@@ -50,6 +50,8 @@ class ObjectFactoryClient implements ObjectFactory<Minecraft, IntegratedServer>
 	private ClientPluginChannelsClient clientPluginChannels;
 	
 	private ServerPluginChannels serverPluginChannels;
+	
+	private PermissionsManagerServer serverPermissionsManager;
 
 	ObjectFactoryClient(LoaderEnvironment environment, LoaderProperties properties)
 	{
@@ -143,7 +145,12 @@ class ObjectFactoryClient implements ObjectFactory<Minecraft, IntegratedServer>
 	@Override
 	public PermissionsManagerServer getServerPermissionManager()
 	{
-		return null;
+		if (this.serverPermissionsManager == null)
+		{
+			this.serverPermissionsManager = new PermissionsManagerServer();
+		}
+		
+		return this.serverPermissionsManager;
 	}
 
 	@SuppressWarnings("unused")
@@ -33,6 +33,13 @@ class GuiPanelLiteLoaderLog extends GuiPanel implements ScrollPanelContent
 	
 	private List<String> logEntries = new ArrayList<String>();
 	
+	/**
+	 * Colour of each log entry, calculated when the log is updated
+	 */
+	private int[] logColours = new int[0];
+	
+	private final ScrollPanelRows logRows = new ScrollPanelRows();
+	
 	private long logIndex = -1;
 	
 	private GuiCheckbox chkScale;
@@ -68,6 +75,15 @@ class GuiPanelLiteLoaderLog extends GuiPanel implements ScrollPanelContent
 	{
 		this.logEntries = LiteLoaderLogger.getLogTail();
 		this.logIndex = LiteLoaderLogger.getLogIndex();
+		
+		this.logColours = new int[this.logEntries.size()];
+		for (int line = 0; line < this.logColours.length; line++)
+		{
+			String logLine = this.logEntries.get(line);
+			this.logColours[line] = this.getMessageColour(logLine.length() > 11 ? logLine.toLowerCase().substring(11) : "");
+		}
+		
+		this.logRows.setRows(this.logEntries.size(), 10);
 		this.scrollPane.updateHeight();
 		this.scrollPane.scrollToBottom();
 	}
@@ -224,7 +240,6 @@ class GuiPanelLiteLoaderLog extends GuiPanel implements ScrollPanelContent
 	@Override
 	public void drawScrollPanelContent(GuiScrollPanel source, int mouseX, int mouseY, float partialTicks, int scrollAmount, int visibleHeight)
 	{
-		int yPos = 0;
 		int height = this.innerHeight;
 		
 		if (this.chkScale.checked)
@@ -236,13 +251,10 @@ class GuiPanelLiteLoaderLog extends GuiPanel implements ScrollPanelContent
 			scrollAmount = (int)(scrollAmount * this.guiScale);
 		}
 		
-		for (String logLine : this.logEntries)
+		int lastLine = this.logRows.getLastVisibleRow(scrollAmount, height);
+		for (int line = this.logRows.getFirstVisibleRow(scrollAmount); line <= lastLine; line++)
 		{
-			if (yPos > scrollAmount - 10 && yPos <= scrollAmount + height)
-			{
-				this.mc.fontRendererObj.drawString(logLine, 0, yPos, this.getMessageColour(logLine.toLowerCase().substring(11)));
-			}
-			yPos += 10;
+			this.mc.fontRendererObj.drawString(this.logEntries.get(line), 0, this.logRows.getRowTop(line), this.logColours[line]);
 		}
 	}
 	
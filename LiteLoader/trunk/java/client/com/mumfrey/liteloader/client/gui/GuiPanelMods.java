@@ -263,7 +263,7 @@ public class GuiPanelMods extends GuiPanel implements ModListContainer
 		
 		mouseY -= (GuiLiteLoaderPanel.PANEL_TOP - this.scrollBar.getValue());
 
-		this.listHeight = this.modList.drawModList(mouseX, mouseY, partialTicks, MARGIN, 0, width - SCROLLBAR_WIDTH - 1, height);
+		this.listHeight = this.modList.drawModList(mouseX, mouseY, partialTicks, MARGIN, 0, width - SCROLLBAR_WIDTH - 1, height, this.scrollBar.getValue());
 		this.scrollBar.setMaxValue(this.listHeight - height);
 		
 		glPopMatrix();
@@ -154,7 +154,7 @@ class GuiPanelUpdateCheck extends GuiPanel
 
 			this.close();
 		}
-		if (control.id == 1) this.updateSite.beginUpdateCheck();
+		if (control.id == 1) this.updateSite.beginUpdateCheck(true);
 		if (control.id == 2)
 		{
 			if (this.canForceUpdate && ((LiteLoaderUpdateSite)this.updateSite).forceUpdate())
@@ -0,0 +1,131 @@
+package com.mumfrey.liteloader.client.gui;
+
+/**
+ * Row layout for scrolling content. The position of each row is calculated once when the row heights are set,
+ * so the range of rows which are visible at a particular scroll position can be found without visiting every
+ * row, which allows long lists to draw only the rows which are actually on screen.
+ *
+ * @author Adam Mummery-Smith
+ */
+public class ScrollPanelRows
+{
+	/**
+	 * Top of each row, the element after the last row is the total content height
+	 */
+	private int[] tops = new int[1];
+
+	private int rowCount;
+
+	/**
+	 * Set the layout to the specified number of rows with the same height
+	 *
+	 * @param rowCount
+	 * @param rowHeight
+	 */
+	public void setRows(int rowCount, int rowHeight)
+	{
+		this.allocate(rowCount);
+		for (int row = 0; row <= rowCount; row++)
+		{
+			this.tops[row] = row * rowHeight;
+		}
+	}
+
+	/**
+	 * Set the layout to rows with the specified heights
+	 *
+	 * @param rowHeights
+	 * @param rowCount number of entries in rowHeights to use
+	 */
+	public void setRows(int[] rowHeights, int rowCount)
+	{
+		this.allocate(rowCount);
+		for (int row = 0; row < rowCount; row++)
+		{
+			this.tops[row + 1] = this.tops[row] + Math.max(0, rowHeights[row]);
+		}
+	}
+
+	private void allocate(int rowCount)
+	{
+		if (this.tops.length < rowCount + 1)
+		{
+			this.tops = new int[rowCount + 1];
+		}
+
+		this.tops[0] = 0;
+		this.rowCount = rowCount;
+	}
+
+	public int getRowCount()
+	{
+		return this.rowCount;
+	}
+
+	public int getContentHeight()
+	{
+		return this.tops[this.rowCount];
+	}
+
+	public int getRowTop(int row)
+	{
+		return this.tops[row];
+	}
+
+	public int getRowHeight(int row)
+	{
+		return this.tops[row + 1] - this.tops[row];
+	}
+
+	/**
+	 * Get the first row which extends below the specified scroll position
+	 *
+	 * @param scrollAmount
+	 * @return row index, or the row count if no rows are visible
+	 */
+	public int getFirstVisibleRow(int scrollAmount)
+	{
+		int low = 0, high = this.rowCount;
+		while (low < high)
+		{
+			int mid = (low + high) >>> 1;
+			if (this.tops[mid + 1] > scrollAmount)
+			{
+				high = mid;
+			}
+			else
+			{
+				low = mid + 1;
+			}
+		}
+
+		return low;
+	}
+
+	/**
+	 * Get the last row which starts within the visible area
+	 *
+	 * @param scrollAmount
+	 * @param visibleHeight
+	 * @return row index, or -1 if no rows are visible
+	 */
+	public int getLastVisibleRow(int scrollAmount, int visibleHeight)
+	{
+		int bottom = scrollAmount + visibleHeight;
+		int low = 0, high = this.rowCount;
+		while (low < high)
+		{
+			int mid = (low + high) >>> 1;
+			if (this.tops[mid] > bottom)
+			{
+				high = mid;
+			}
+			else
+			{
+				low = mid + 1;
+			}
+		}
+
+		return low - 1;
+	}
+}
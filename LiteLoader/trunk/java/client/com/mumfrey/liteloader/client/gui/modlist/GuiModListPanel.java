@@ -245,6 +245,15 @@ public class GuiModListPanel extends Gui
 		return this.mouseOver;
 	}
 	
+	/**
+	 * Called when the panel is scrolled out of view and is no longer being drawn
+	 */
+	public void clearMouseOver()
+	{
+		this.mouseOver = false;
+		this.mouseOverIcon = null;
+	}
+	
 	public void iconClick(Object source)
 	{
 		if (this.mouseOverIcon != null)
@@ -13,6 +13,7 @@ import org.lwjgl.input.Keyboard;
 import com.mumfrey.liteloader.LiteMod;
 import com.mumfrey.liteloader.api.ModInfoDecorator;
 import com.mumfrey.liteloader.client.gui.GuiLiteLoaderPanel;
+import com.mumfrey.liteloader.client.gui.ScrollPanelRows;
 import com.mumfrey.liteloader.core.LiteLoaderMods;
 import com.mumfrey.liteloader.core.ModInfo;
 import com.mumfrey.liteloader.interfaces.Loadable;
@@ -37,6 +38,21 @@ public class ModList
 	private ModListEntry selectedMod = null;
 	
 	private boolean hasConfig = false;
+	
+	/**
+	 * Layout of the list panels, rows include the spacing above each panel
+	 */
+	private ScrollPanelRows rows;
+	
+	/**
+	 * Spacing above each panel
+	 */
+	private int[] rowSpacing;
+	
+	/**
+	 * Range of rows drawn in the last frame
+	 */
+	private int firstDrawnRow, lastDrawnRow = -1;
 
 	public ModList(ModListContainer container, Minecraft minecraft, LiteLoaderMods mods, LoaderEnvironment environment, ConfigManager configManager, int brandColour, List<ModInfoDecorator> decorators)
 	{
@@ -178,26 +194,75 @@ public class ModList
 		return this.selectedMod != null && this.selectedMod.getInfoPanel().mouseWheelScrolled(mouseWheelDelta);
 	}
 
-	public int drawModList(int mouseX, int mouseY, float partialTicks, int left, int top, int width, int height)
+	/**
+	 * Draw the panels which are visible at the specified scroll position
+	 * 
+	 * @return total height of the list
+	 */
+	public int drawModList(int mouseX, int mouseY, float partialTicks, int left, int top, int width, int height, int scrollAmount)
 	{
-		this.drawModListPass(mouseX, mouseY, partialTicks, left, top, width, 0);
-		return this.drawModListPass(mouseX, mouseY, partialTicks, left, top, width, 1);
+		ScrollPanelRows rows = this.getRows();
+		int firstRow = rows.getFirstVisibleRow(scrollAmount - top);
+		int lastRow = rows.getLastVisibleRow(scrollAmount - top, height);
+		
+		// Panels which are no longer drawn would otherwise keep their mouseover state from the last frame they were drawn
+		for (int row = this.firstDrawnRow; row <= this.lastDrawnRow && row < this.mods.size(); row++)
+		{
+			if (row < firstRow || row > lastRow)
+			{
+				this.mods.get(row).getListPanel().clearMouseOver();
+			}
+		}
+		
+		this.firstDrawnRow = firstRow;
+		this.lastDrawnRow = lastRow;
+		
+		this.drawModListPass(mouseX, mouseY, partialTicks, left, top, width, firstRow, lastRow, 0);
+		this.drawModListPass(mouseX, mouseY, partialTicks, left, top, width, firstRow, lastRow, 1);
+		return top + rows.getContentHeight();
 	}
 
-	protected int drawModListPass(int mouseX, int mouseY, float partialTicks, int left, int top, int width, int pass)
+	protected void drawModListPass(int mouseX, int mouseY, float partialTicks, int left, int top, int width, int firstRow, int lastRow, int pass)
 	{
-		int yPos = top;
-		for (ModListEntry mod : this.mods)
+		for (int row = firstRow; row <= lastRow; row++)
 		{
+			ModListEntry mod = this.mods.get(row);
 			GuiModListPanel panel = mod.getListPanel();
 			if (panel.isVisible())
 			{
-				if (yPos > 0) yPos += panel.getSpacing();
+				int yPos = top + this.rows.getRowTop(row) + this.rowSpacing[row];
 				panel.draw(mouseX, mouseY, partialTicks, left, yPos, width, mod == this.selectedMod, pass);
-				yPos += panel.getHeight();
 			}
 		}
-		return yPos;
+	}
+	
+	/**
+	 * Get the layout of the list panels, panel heights are fixed so the layout is calculated once
+	 */
+	private ScrollPanelRows getRows()
+	{
+		if (this.rows == null)
+		{
+			int[] rowHeights = new int[this.mods.size()];
+			this.rowSpacing = new int[this.mods.size()];
+			
+			int yPos = 0;
+			for (int row = 0; row < rowHeights.length; row++)
+			{
+				GuiModListPanel panel = this.mods.get(row).getListPanel();
+				if (panel.isVisible())
+				{
+					this.rowSpacing[row] = yPos > 0 ? panel.getSpacing() : 0;
+					rowHeights[row] = this.rowSpacing[row] + panel.getHeight();
+					yPos += rowHeights[row];
+				}
+			}
+			
+			this.rows = new ScrollPanelRows();
+			this.rows.setRows(rowHeights, rowHeights.length);
+		}
+		
+		return this.rows;
 	}
 
 	public void drawModPanel(int mouseX, int mouseY, float partialTicks, int left, int top, int width, int height)
@@ -0,0 +1,68 @@
+package com.mumfrey.liteloader.client.gui.startup;
+
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.base.Ticker;
+
+/**
+ * Limits how often the loading bar is drawn. Drawing a frame swaps the display buffers, which can block until
+ * the next display refresh, so drawing a frame for every progress update would slow startup down. Updates
+ * which arrive before the next frame is due only update the loading bar's state, which is drawn with the
+ * next frame.
+ *
+ * @author Adam Mummery-Smith
+ */
+class FrameThrottle
+{
+	private final Ticker ticker;
+	
+	/**
+	 * Minimum time between frames, zero to draw a frame for every update
+	 */
+	private long frameIntervalNanos;
+	
+	private long lastFrameTime;
+	
+	private boolean rendered;
+	
+	FrameThrottle(int maxFps)
+	{
+		this(maxFps, Ticker.systemTicker());
+	}
+	
+	/**
+	 * @param maxFps
+	 * @param ticker time source
+	 */
+	FrameThrottle(int maxFps, Ticker ticker)
+	{
+		this.ticker = ticker;
+		this.setMaxFps(maxFps);
+	}
+	
+	/**
+	 * @param maxFps maximum frame rate, zero or less to draw a frame for every update
+	 */
+	void setMaxFps(int maxFps)
+	{
+		this.frameIntervalNanos = maxFps > 0 ? TimeUnit.SECONDS.toNanos(1) / maxFps : 0L;
+	}
+	
+	/**
+	 * Called for each update, returns true if a frame should be drawn for the update
+	 * 
+	 * @param force draw a frame regardless of the time since the last one
+	 */
+	boolean shouldRender(boolean force)
+	{
+		long now = this.ticker.read();
+		if (force || !this.rendered || now - this.lastFrameTime >= this.frameIntervalNanos)
+		{
+			this.rendered = true;
+			this.lastFrameTime = now;
+			return true;
+		}
+		
+		return false;
+	}
+}
@@ -62,6 +62,8 @@ public class LoadingBar extends LoadingProgress
 	private boolean enabled = true;
 	private boolean errored;
 	
+	private final FrameThrottle throttle = new FrameThrottle(LoadingProgress.DEFAULT_MAX_FPS);
+	
 	private boolean calculatedColour = false;
 	private int barLuma = 0, r2 = 246, g2 = 136, b2 = 62;
 	
@@ -79,6 +81,12 @@ public class LoadingBar extends LoadingProgress
 		this.enabled = enabled;
 	}
 	
+	@Override
+	protected void _setMaxFps(int maxFps)
+	{
+		this.throttle.setMaxFps(maxFps);
+	}
+	
 	@Override
 	protected void _dispose()
 	{
@@ -105,10 +113,10 @@ public class LoadingBar extends LoadingProgress
 	
 	protected void _incrementProgress()
 	{
-		this.message = this.minecraftMessage;
+		boolean messageChanged = this.setMessageText(this.minecraftMessage);
 		
 		this.minecraftProgress++;
-		this.render();
+		this.render(messageChanged || this.minecraftProgress >= this.totalMinecraftProgress);
 	}
 	
 	public static void initTextures()
@@ -125,37 +133,52 @@ public class LoadingBar extends LoadingProgress
 	protected void _incLiteLoaderProgress()
 	{
 		this.liteLoaderProgress += this.liteLoaderProgressScale;
-		this.render();
+		this.render(this.liteLoaderProgress >= this.totalLiteLoaderProgress);
 	}
 	
 	@Override
 	protected void _setMessage(String message)
 	{
 		this.message = message;
-		this.render();
+		
+		// Messages announce the start of each phase, so make sure they are shown before the phase begins
+		this.render(true);
 	}
 	
 	@Override
 	protected void _incLiteLoaderProgress(String message)
 	{
+		boolean messageChanged = this.setMessageText(message);
+		this.liteLoaderProgress += this.liteLoaderProgressScale;
+		
+		// A new message usually precedes a long operation so it is always drawn, only bare increments are dropped
+		this.render(messageChanged || this.liteLoaderProgress >= this.totalLiteLoaderProgress);
+	}
+	
+	/**
+	 * @param message
+	 * @return true if the message text changed
+	 */
+	private boolean setMessageText(String message)
+	{
+		boolean changed = message == null ? this.message != null : !message.equals(this.message);
 		this.message = message;
-		this.liteLoaderProgress += this.liteLoaderProgressScale ;
-		this.render();
+		return changed;
 	}
 	
 	@Override
 	protected void _incTotalLiteLoaderProgress(int by)
 	{
 		this.totalLiteLoaderProgress += (by * this.liteLoaderProgressScale);
-		this.render();
+		this.render(false);
 	}
 	
 	/**
-	 * 
+	 * @param force draw a frame even if one was drawn recently
 	 */
-	private void render()
+	private void render(boolean force)
 	{
-		if (!this.enabled || this.errored) return;
+		if (!this.enabled || this.errored || !this.throttle.shouldRender(force)) return;
 		
 		try
 		{
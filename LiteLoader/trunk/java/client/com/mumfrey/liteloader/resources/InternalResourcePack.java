@@ -63,7 +63,15 @@ public class InternalResourcePack implements IResourcePack
 	 */
 	private InputStream getResourceStream(ResourceLocation resourceLocation)
 	{
-		return this.resourceClass.getResourceAsStream(String.format("/assets/%s/%s", resourceLocation.getResourceDomain(), resourceLocation.getResourcePath()));
+		return this.resourceClass.getResourceAsStream(InternalResourcePack.getResourceName(resourceLocation));
+	}
+	
+	/**
+	 * @param resourceLocation
+	 */
+	private static String getResourceName(ResourceLocation resourceLocation)
+	{
+		return String.format("/assets/%s/%s", resourceLocation.getResourceDomain(), resourceLocation.getResourcePath());
 	}
 	
 	/* (non-Javadoc)
@@ -72,7 +80,8 @@ public class InternalResourcePack implements IResourcePack
 	@Override
 	public boolean resourceExists(ResourceLocation resourceLocation)
 	{
-		return this.getResourceStream(resourceLocation) != null;
+		// Only resolve the URL, opening a stream here would leak it
+		return this.resourceClass.getResource(InternalResourcePack.getResourceName(resourceLocation)) != null;
 	}
 	
 	/* (non-Javadoc)
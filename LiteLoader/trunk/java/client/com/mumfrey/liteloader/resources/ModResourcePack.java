@@ -2,6 +2,7 @@ package com.mumfrey.liteloader.resources;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.Set;
 
 import net.minecraft.client.resources.FileResourcePack;
 import net.minecraft.client.resources.data.IMetadataSection;
@@ -19,6 +20,11 @@ public class ModResourcePack extends FileResourcePack
 	 */
 	private final String name;
 	
+	/**
+	 * Index of the assets in the pack, null if the pack could not be indexed 
+	 */
+	private final ResourcePackIndex index;
+	
 	/**
 	 * @param name Friendly name
 	 * @param modFile
@@ -27,6 +33,35 @@ public class ModResourcePack extends FileResourcePack
 	{
 		super(modFile);
 		this.name = name;
+		this.index = ResourcePackIndex.fromZipFile(modFile);
+	}
+	
+	/* (non-Javadoc)
+	 * @see net.minecraft.client.resources.FileResourcePack#hasResourceName(java.lang.String)
+	 */
+	@Override
+	protected boolean hasResourceName(String resourceName)
+	{
+		if (this.index != null && this.index.covers(resourceName))
+		{
+			return this.index.contains(resourceName);
+		}
+		
+		return super.hasResourceName(resourceName);
+	}
+	
+	/* (non-Javadoc)
+	 * @see net.minecraft.client.resources.FileResourcePack#getResourceDomains()
+	 */
+	@Override
+	public Set<String> getResourceDomains()
+	{
+		if (this.index != null)
+		{
+			return this.index.getDomains();
+		}
+		
+		return super.getResourceDomains();
 	}
 	
 	/* (non-Javadoc)
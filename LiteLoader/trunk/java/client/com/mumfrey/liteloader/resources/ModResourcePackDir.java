@@ -2,6 +2,7 @@ package com.mumfrey.liteloader.resources;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.Set;
 
 import net.minecraft.client.resources.FolderResourcePack;
 import net.minecraft.client.resources.data.IMetadataSection;
@@ -19,6 +20,17 @@ public class ModResourcePackDir extends FolderResourcePack
 	 */
 	private final String name;
 	
+	/**
+	 * Directory containing the pack 
+	 */
+	private final File modFile;
+	
+	/**
+	 * Index of the assets in the pack, null if the pack could not be indexed or has not been indexed yet.
+	 * Rebuilt on every resource reload since the contents of the directory can change while the game is running 
+	 */
+	private volatile ResourcePackIndex index;
+	
 	/**
 	 * @param name Friendly name
 	 * @param modFile
@@ -27,6 +39,39 @@ public class ModResourcePackDir extends FolderResourcePack
 	{
 		super(modFile);
 		this.name = name;
+		this.modFile = modFile;
+	}
+	
+	/* (non-Javadoc)
+	 * @see net.minecraft.client.resources.FolderResourcePack#hasResourceName(java.lang.String)
+	 */
+	@Override
+	protected boolean hasResourceName(String resourceName)
+	{
+		ResourcePackIndex index = this.index;
+		if (index != null && index.covers(resourceName))
+		{
+			return index.contains(resourceName);
+		}
+		
+		return super.hasResourceName(resourceName);
+	}
+	
+	/* (non-Javadoc)
+	 * @see net.minecraft.client.resources.FolderResourcePack#getResourceDomains()
+	 */
+	@Override
+	public Set<String> getResourceDomains()
+	{
+		// The resource manager queries the domains of every pack at the start of each reload, so this is where
+		// we pick up assets which were added to or removed from the directory since the last reload
+		ResourcePackIndex index = this.index = ResourcePackIndex.fromDirectory(this.modFile);
+		if (index != null)
+		{
+			return index.getDomains();
+		}
+		
+		return super.getResourceDomains();
 	}
 	
 	/* (non-Javadoc)
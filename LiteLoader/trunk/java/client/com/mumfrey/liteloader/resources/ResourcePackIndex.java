@@ -0,0 +1,191 @@
+package com.mumfrey.liteloader.resources;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Enumeration;
+import java.util.Set;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import com.google.common.collect.ImmutableSet;
+import com.mumfrey.liteloader.util.log.LiteLoaderLogger;
+
+/**
+ * Immutable index of the assets contained in a mod resource pack. The index is built when the pack is created
+ * (or, for directory packs, at the start of each resource reload) so that the resource manager's existence
+ * probes (which happen for every texture, model and sound on every resource reload) are answered from memory
+ * instead of probing the zip file or the file system.
+ *
+ * @author Adam Mummery-Smith
+ */
+public final class ResourcePackIndex
+{
+	/**
+	 * Prefix of all entries which are indexed
+	 */
+	private static final String ASSETS_PREFIX = "assets/";
+
+	/**
+	 * Maximum recursion depth when indexing a directory
+	 */
+	private static final int MAX_DEPTH = 16;
+
+	/**
+	 * Resource domains, the names of the directories directly below assets/
+	 */
+	private final Set<String> domains;
+
+	/**
+	 * Names of all files below assets/, in the form "assets/domain/path"
+	 */
+	private final Set<String> entries;
+
+	private ResourcePackIndex(ImmutableSet.Builder<String> domains, ImmutableSet.Builder<String> entries)
+	{
+		this.domains = domains.build();
+		this.entries = entries.build();
+	}
+
+	/**
+	 * Get the resource domains contained in the pack
+	 */
+	public Set<String> getDomains()
+	{
+		return this.domains;
+	}
+
+	/**
+	 * Get whether the specified resource name can be answered by this index, only names under assets/ are
+	 * indexed
+	 *
+	 * @param resourceName
+	 */
+	public boolean covers(String resourceName)
+	{
+		return resourceName.startsWith(ResourcePackIndex.ASSETS_PREFIX);
+	}
+
+	/**
+	 * Get whether the pack contains the specified resource
+	 *
+	 * @param resourceName resource name in the form "assets/domain/path"
+	 */
+	public boolean contains(String resourceName)
+	{
+		return this.entries.contains(resourceName);
+	}
+
+	/**
+	 * Index the entries in the specified zip file
+	 *
+	 * @param file
+	 * @return new index or null if the file could not be read
+	 */
+	public static ResourcePackIndex fromZipFile(File file)
+	{
+		ImmutableSet.Builder<String> domains = ImmutableSet.builder();
+		ImmutableSet.Builder<String> entries = ImmutableSet.builder();
+
+		ZipFile zipFile = null;
+		try
+		{
+			zipFile = new ZipFile(file);
+
+			Enumeration<? extends ZipEntry> zipEntries = zipFile.entries();
+			while (zipEntries.hasMoreElements())
+			{
+				ZipEntry entry = zipEntries.nextElement();
+				String entryName = entry.getName();
+				if (!entryName.startsWith(ResourcePackIndex.ASSETS_PREFIX)) continue;
+
+				int domainEnd = entryName.indexOf('/', ResourcePackIndex.ASSETS_PREFIX.length());
+				if (domainEnd > ResourcePackIndex.ASSETS_PREFIX.length())
+				{
+					ResourcePackIndex.addDomain(domains, entryName.substring(ResourcePackIndex.ASSETS_PREFIX.length(), domainEnd));
+				}
+
+				if (!entry.isDirectory())
+				{
+					entries.add(entryName);
+				}
+			}
+		}
+		catch (IOException ex)
+		{
+			LiteLoaderLogger.warning("Could not index resources in %s: %s", file.getName(), ex.getMessage());
+			return null;
+		}
+		finally
+		{
+			try
+			{
+				if (zipFile != null) zipFile.close();
+			}
+			catch (IOException ex) {}
+		}
+
+		return new ResourcePackIndex(domains, entries);
+	}
+
+	/**
+	 * Index the assets directory in the specified directory
+	 *
+	 * @param directory
+	 * @return new index or null if the directory could not be read
+	 */
+	public static ResourcePackIndex fromDirectory(File directory)
+	{
+		ImmutableSet.Builder<String> domains = ImmutableSet.builder();
+		ImmutableSet.Builder<String> entries = ImmutableSet.builder();
+
+		if (!directory.isDirectory())
+		{
+			return null;
+		}
+
+		File[] domainDirs = new File(directory, "assets").listFiles();
+		if (domainDirs != null)
+		{
+			for (File domainDir : domainDirs)
+			{
+				if (domainDir.isDirectory())
+				{
+					ResourcePackIndex.addDomain(domains, domainDir.getName());
+					ResourcePackIndex.enumerateDirectory(entries, domainDir, ResourcePackIndex.ASSETS_PREFIX + domainDir.getName() + "/", 0);
+				}
+			}
+		}
+
+		return new ResourcePackIndex(domains, entries);
+	}
+
+	private static void enumerateDirectory(ImmutableSet.Builder<String> entries, File dir, String prefix, int depth)
+	{
+		// Prevent crash due to broken recursion
+		if (depth > ResourcePackIndex.MAX_DEPTH) return;
+
+		File[] files = dir.listFiles();
+		if (files == null) return;
+
+		for (File file : files)
+		{
+			if (file.isDirectory())
+			{
+				ResourcePackIndex.enumerateDirectory(entries, file, prefix + file.getName() + "/", depth + 1);
+			}
+			else
+			{
+				entries.add(prefix + file.getName());
+			}
+		}
+	}
+
+	private static void addDomain(ImmutableSet.Builder<String> domains, String domain)
+	{
+		// The resource manager ignores domains which aren't lower case
+		if (domain.equals(domain.toLowerCase()))
+		{
+			domains.add(domain);
+		}
+	}
+}
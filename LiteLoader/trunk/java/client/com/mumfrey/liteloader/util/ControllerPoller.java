@@ -0,0 +1,186 @@
+package com.mumfrey.liteloader.util;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import net.java.games.input.Component;
+import net.java.games.input.Controller;
+import net.java.games.input.Event;
+import net.java.games.input.EventQueue;
+
+import com.mumfrey.liteloader.util.log.LiteLoaderLogger;
+
+/**
+ * Polls JInput controllers on a dedicated thread so that slow native polls don't add to frame time. Events
+ * read from the controllers' event queues are copied into a lock-free queue which is drained on the main
+ * thread by {@link #drain}.
+ *
+ * @author Adam Mummery-Smith
+ */
+class ControllerPoller implements Runnable
+{
+	/**
+	 * Maximum number of events to hold if the main thread isn't draining the queue, once the limit is reached
+	 * the oldest events are discarded
+	 */
+	private static final int MAX_QUEUED_EVENTS = 4096;
+
+	/**
+	 * Event read from a controller, copied because JInput events are reused
+	 */
+	static final class PolledEvent
+	{
+		final Component component;
+
+		final float value;
+
+		final long nanos;
+
+		PolledEvent(Component component, float value, long nanos)
+		{
+			this.component = component;
+			this.value = value;
+			this.nanos = nanos;
+		}
+	}
+
+	/**
+	 * Callback for drained events
+	 */
+	interface EventSink
+	{
+		public abstract void onEvent(Component component, float value, long nanos);
+	}
+
+	private final Queue<PolledEvent> events = new ConcurrentLinkedQueue<PolledEvent>();
+
+	private final AtomicInteger queuedEventCount = new AtomicInteger();
+
+	/**
+	 * Interval between polls in nanoseconds
+	 */
+	private final long pollInterval;
+
+	/**
+	 * Controllers to poll, replaced wholesale by the main thread
+	 */
+	private volatile Controller[] controllers = new Controller[0];
+
+	private volatile boolean running;
+
+	private Thread thread;
+
+	/**
+	 * @param pollRate polls per second
+	 */
+	ControllerPoller(int pollRate)
+	{
+		this.pollInterval = TimeUnit.SECONDS.toNanos(1) / Math.max(1, pollRate);
+	}
+
+	/**
+	 * Set the controllers to poll
+	 *
+	 * @param controllers
+	 */
+	void setControllers(Controller[] controllers)
+	{
+		this.controllers = controllers;
+	}
+
+	synchronized void start()
+	{
+		if (this.thread == null)
+		{
+			this.running = true;
+			this.thread = new Thread(this, "JInput Poll Thread");
+			this.thread.setDaemon(true);
+			this.thread.start();
+		}
+	}
+
+	synchronized void stop()
+	{
+		if (this.thread != null)
+		{
+			this.running = false;
+			this.thread.interrupt();
+			this.thread = null;
+		}
+	}
+
+	/* (non-Javadoc)
+	 * @see java.lang.Runnable#run()
+	 */
+	@Override
+	public void run()
+	{
+		Event event = new Event();
+
+		while (this.running)
+		{
+			long pollStart = System.nanoTime();
+
+			for (Controller controller : this.controllers)
+			{
+				try
+				{
+					this.poll(controller, event);
+				}
+				catch (Exception ex)
+				{
+					LiteLoaderLogger.debug("Error polling controller %s: %s", controller.getName(), ex.getMessage());
+				}
+			}
+
+			long sleepNanos = this.pollInterval - (System.nanoTime() - pollStart);
+			if (sleepNanos > 0)
+			{
+				try
+				{
+					TimeUnit.NANOSECONDS.sleep(sleepNanos);
+				}
+				catch (InterruptedException ex)
+				{
+					break;
+				}
+			}
+		}
+	}
+
+	/**
+	 * @param controller
+	 * @param event
+	 */
+	void poll(Controller controller, Event event)
+	{
+		controller.poll();
+		EventQueue controllerQueue = controller.getEventQueue();
+
+		while (controllerQueue.getNextEvent(event))
+		{
+			this.events.offer(new PolledEvent(event.getComponent(), event.getValue(), event.getNanos()));
+
+			if (this.queuedEventCount.incrementAndGet() > ControllerPoller.MAX_QUEUED_EVENTS && this.events.poll() != null)
+			{
+				this.queuedEventCount.decrementAndGet();
+			}
+		}
+	}
+
+	/**
+	 * Dispatch all queued events to the supplied sink, called on the main thread
+	 *
+	 * @param sink
+	 */
+	void drain(EventSink sink)
+	{
+		for (PolledEvent event; (event = this.events.poll()) != null; )
+		{
+			this.queuedEventCount.decrementAndGet();
+			sink.onEvent(event.component, event.value, event.nanos);
+		}
+	}
+}
@@ -26,11 +26,13 @@ import com.mumfrey.liteloader.launch.LoaderProperties;
 import com.mumfrey.liteloader.util.jinput.ComponentRegistry;
 
 /**
- * Mod input class, aggregates functionality from LiteLoader's mod key registration functions and JInputLib
+ * Mod input class, aggregates functionality from LiteLoader's mod key registration functions and JInputLib.
+ * Registration methods are synchronised since thread-safe mods may call them from their init method while
+ * other mods are being initialised on other threads.
  *
  * @author Adam Mummery-Smith
  */
-public final class InputManager extends Input
+public final class InputManager extends Input implements ControllerPoller.EventSink
 {
 	private GameEngine<?, ?> engine;
 	
@@ -75,6 +77,11 @@ public final class InputManager extends Input
 	 */
 	private Controller[] pollControllers = new Controller[0];
 	
+	/**
+	 * Background controller poller, null if controllers are polled on the main thread
+	 */
+	private final ControllerPoller controllerPoller;
+	
 	/**
 	 * 
 	 */
@@ -92,6 +99,10 @@ public final class InputManager extends Input
 		{
 			this.jInputComponentRegistry.enumerate();
 		}
+		
+		boolean pollThread = properties.getAndStoreBooleanProperty(LoaderProperties.OPTION_JINPUT_THREAD, false);
+		int pollRate = properties.getAndStoreIntegerProperty(LoaderProperties.OPTION_JINPUT_POLL_RATE, 100);
+		this.controllerPoller = pollThread ? new ControllerPoller(pollRate) : null;
 	}
 	
 	@Override
@@ -112,6 +123,11 @@ public final class InputManager extends Input
 	{
 		this.engine = engine;
 		this.profiler = engine.getProfiler();
+		
+		if (this.controllerPoller != null)
+		{
+			this.controllerPoller.start();
+		}
 	}
 	
 	/**
@@ -120,7 +136,7 @@ public final class InputManager extends Input
 	 * @param binding
 	 */
 	@Override
-	public void registerKeyBinding(KeyBinding binding)
+	public synchronized void registerKeyBinding(KeyBinding binding)
 	{
 		List<KeyBinding> keyBindings = this.engine.getKeyBindings();
 		
@@ -153,7 +169,7 @@ public final class InputManager extends Input
 	 * @param binding
 	 */
 	@Override
-	public void unRegisterKeyBinding(KeyBinding binding)
+	public synchronized void unRegisterKeyBinding(KeyBinding binding)
 	{
 		List<KeyBinding> keyBindings = this.engine.getKeyBindings();
 		
@@ -177,18 +193,21 @@ public final class InputManager extends Input
 		this.profiler.startSection("keybindings");
 		if (clock)
 		{
-			boolean updated = false;
-			
-			for (KeyBinding binding : this.modKeyBindings)
+			synchronized (this)
 			{
-				if (binding.getKeyCode() != this.storedModKeyBindings.get(binding))
+				boolean updated = false;
+				
+				for (KeyBinding binding : this.modKeyBindings)
 				{
-					this.updateBinding(binding);
-					updated = true;
+					if (binding.getKeyCode() != this.storedModKeyBindings.get(binding))
+					{
+						this.updateBinding(binding);
+						updated = true;
+					}
 				}
+				
+				if (updated) this.storeBindings();
 			}
-			
-			if (updated) this.storeBindings();
 		}
 		
 		this.pollControllers();
@@ -207,6 +226,11 @@ public final class InputManager extends Input
 	@Override
 	public void onShutDown()
 	{
+		if (this.controllerPoller != null)
+		{
+			this.controllerPoller.stop();
+		}
+		
 		this.storeBindings();
 	}
 
@@ -214,7 +238,7 @@ public final class InputManager extends Input
 	 * Writes mod bindings to disk
 	 */
 	@Override
-	public void storeBindings()
+	public synchronized void storeBindings()
 	{
 		try
 		{
@@ -250,7 +274,7 @@ public final class InputManager extends Input
 	 * @param handler
 	 */
 	@Override
-	public InputEvent getEvent(String descriptor, InputHandler handler)
+	public synchronized InputEvent getEvent(String descriptor, InputHandler handler)
 	{
 		if (handler == null) return null;
 		Component component = this.jInputComponentRegistry.getComponent(descriptor);
@@ -265,7 +289,7 @@ public final class InputManager extends Input
 	 * @param handler
 	 */
 	@Override
-	public InputEvent[] getEvents(String descriptor, InputHandler handler)
+	public synchronized InputEvent[] getEvents(String descriptor, InputHandler handler)
 	{
 		List<InputEvent> events = new ArrayList<InputEvent>();
 		Controller controller = this.jInputComponentRegistry.getController(descriptor);
@@ -327,6 +351,11 @@ public final class InputManager extends Input
 	private void setActiveControllers(Set<Controller> controllers)
 	{
 		this.pollControllers = controllers.toArray(new Controller[controllers.size()]);
+		
+		if (this.controllerPoller != null)
+		{
+			this.controllerPoller.setControllers(this.pollControllers);
+		}
 	}
 
 	/**
@@ -334,6 +363,12 @@ public final class InputManager extends Input
 	 */
 	private void pollControllers()
 	{
+		if (this.controllerPoller != null)
+		{
+			this.controllerPoller.drain(this);
+			return;
+		}
+		
 		for (Controller controller : this.pollControllers)
 		{
 			controller.poll();
@@ -351,4 +386,17 @@ public final class InputManager extends Input
 			}
 		}
 	}
+	
+	/**
+	 * Callback from the controller poller when draining events polled on the poll thread
+	 */
+	@Override
+	public void onEvent(Component component, float value, long nanos)
+	{
+		InputEvent inputEvent = this.componentEvents.get(component);
+		if (inputEvent != null)
+		{
+			inputEvent.onEvent(value, nanos);
+		}
+	}
 }
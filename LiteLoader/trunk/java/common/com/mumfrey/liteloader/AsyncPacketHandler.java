@@ -0,0 +1,40 @@
+package com.mumfrey.liteloader;
+
+import java.util.List;
+
+import net.minecraft.network.INetHandler;
+import net.minecraft.network.Packet;
+
+/**
+ * Interface for mods which want to inspect raw packets as soon as they are received, on the network thread
+ * rather than the main thread. Intended for read-only consumers such as metrics and logging which shouldn't add
+ * to the main thread's packet queue.
+ * 
+ * <p>Thread-safety contract:</p>
+ * <ul>
+ *   <li>{@link #handlePacketAsync} is called on a network (Netty I/O) thread, possibly on several threads at once
+ *   when there are multiple connections.</li>
+ *   <li>The handler must not modify the packet, the net handler or any game state, and must not retain the
+ *   packet after the call returns. The packet is processed normally on the main thread afterwards and will also
+ *   be passed to any {@link PacketHandler}s at that point.</li>
+ *   <li>The packet cannot be cancelled from this callback. Exceptions thrown by the handler are logged and
+ *   otherwise ignored.</li>
+ *   <li>Packets which vanilla processes on the network thread (eg. login packets) are only delivered to this
+ *   handler if they arrive off the main thread.</li>
+ * </ul>
+ * 
+ * @author Adam Mummery-Smith
+ */
+public interface AsyncPacketHandler extends LiteMod
+{
+	/**
+	 * Get list of packets to handle
+	 */
+	public List<Class<? extends Packet>> getHandledPackets(); 
+
+	/**
+	 * @param netHandler The vanilla nethandler which will handle this packet
+	 * @param packet Incoming packet, must not be modified
+	 */
+	public abstract void handlePacketAsync(INetHandler netHandler, Packet packet);
+}
@@ -0,0 +1,24 @@
+package com.mumfrey.liteloader;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Declares that a LiteMod's tick callbacks are thread-safe. When concurrent server ticking is enabled, the
+ * {@link ServerTickable#onTick} methods of listeners with this annotation are called on worker threads in a
+ * separate phase which starts after all other listeners have been ticked on the server thread. Listeners in
+ * this phase may run at the same time as each other but never at the same time as a listener on the server
+ * thread, and the phase is joined before the server tick continues.
+ * 
+ * <p>Because the concurrent phase always runs last, {@link Priority} only orders listeners within each phase.
+ * A concurrent listener is ticked after every serial listener regardless of their priorities.</p>
+ * 
+ * @author Adam Mummery-Smith
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ConcurrentSafe
+{
+}
@@ -23,6 +23,12 @@ public interface LiteMod extends Exposable, Listener
 	 * Do startup stuff here, minecraft is not fully initialised when this function is called so mods *must not*
 	 * interact with minecraft in any way here
 	 * 
+	 * If the mod declares "threadSafe": "true" in its metadata and concurrent mod init is enabled, this method
+	 * may be called on a worker thread while other mods are being initialised. In that case the only LiteLoader
+	 * APIs which may be used are key binding and JInput event registration via LiteLoader.getInput(),
+	 * LiteLoader.getInterfaceManager().registerListener(), LiteLoader.getInstance().registerExposable() and
+	 * LiteLoader.getInstance().writeConfig().
+	 * 
 	 * @param configPath Configuration path to use
 	 */
 	public abstract void init(File configPath);
@@ -0,0 +1,27 @@
+package com.mumfrey.liteloader;
+
+import net.minecraft.entity.player.EntityPlayerMP;
+
+import com.mumfrey.liteloader.core.PlayerMoveContext;
+
+/**
+ * Interface for mods which want to monitor or control player movements without allocating positions for every
+ * movement packet. Behaves in the same way as {@link PlayerMoveListener} but the movement is described by a
+ * reusable context object.
+ *
+ * @author Adam Mummery-Smith
+ */
+public interface PlayerMoveContextListener extends LiteMod
+{
+	/**
+	 * Called when a movement/look packet is received from the client. The context is reused for subsequent
+	 * movements and must not be retained.
+	 *
+	 * @param playerMP Player moving
+	 * @param move Movement context, call {@link PlayerMoveContext#setNewPosition} to teleport the player to a new
+	 * 		position instead of processing the original move
+	 *
+	 * @return false to cancel the event or true to allow the movement to be processed as normal or the new position to be applied
+	 */
+	public abstract boolean onPlayerMove(EntityPlayerMP playerMP, PlayerMoveContext move);
+}
@@ -5,6 +5,11 @@ package com.mumfrey.liteloader.common;
  */
 public abstract class LoadingProgress
 {
+	/**
+	 * Default maximum frame rate for the loading bar
+	 */
+	public static final int DEFAULT_MAX_FPS = 30;
+	
 	private static LoadingProgress instance;
 	
 	protected LoadingProgress()
@@ -17,6 +22,11 @@ public abstract class LoadingProgress
 		if (LoadingProgress.instance != null) LoadingProgress.instance._setEnabled(enabled);
 	}
 	
+	public static void setMaxFps(int maxFps)
+	{
+		if (LoadingProgress.instance != null) LoadingProgress.instance._setMaxFps(maxFps);
+	}
+	
 	public static void dispose()
 	{
 		if (LoadingProgress.instance != null) LoadingProgress.instance._dispose();
@@ -54,6 +64,8 @@ public abstract class LoadingProgress
 
 	protected abstract void _setEnabled(boolean enabled);
 
+	protected abstract void _setMaxFps(int maxFps);
+
 	protected abstract void _dispose();
 
 	protected abstract void _incLiteLoaderProgress();
@@ -63,4 +75,4 @@ public abstract class LoadingProgress
 	protected abstract void _incLiteLoaderProgress(String message);
 
 	protected abstract void _incTotalLiteLoaderProgress(int by);
-}
\ No newline at end of file
+}
\ No newline at end of file
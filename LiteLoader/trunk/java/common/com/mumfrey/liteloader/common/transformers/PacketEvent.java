@@ -1,9 +1,12 @@
 package com.mumfrey.liteloader.common.transformers;
 
 import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.tree.FieldInsnNode;
 import org.objectweb.asm.tree.InsnList;
 import org.objectweb.asm.tree.InsnNode;
 import org.objectweb.asm.tree.IntInsnNode;
+import org.objectweb.asm.tree.JumpInsnNode;
+import org.objectweb.asm.tree.LabelNode;
 import org.objectweb.asm.tree.LdcInsnNode;
 import org.objectweb.asm.tree.MethodInsnNode;
 import org.objectweb.asm.tree.VarInsnNode;
@@ -32,6 +35,22 @@ public class PacketEvent extends Event
 		this.verbose = false;
 	}
 	
+	/**
+	 * Only fire the event if the packet hook is enabled, see {@link com.mumfrey.liteloader.core.PacketEvents#hookedPackets}
+	 * 
+	 * @see com.mumfrey.liteloader.transformers.event.Event#injectGuardCode(org.objectweb.asm.tree.InsnList, org.objectweb.asm.tree.LabelNode)
+	 */
+	@Override
+	protected int injectGuardCode(InsnList insns, LabelNode skipEvent)
+	{
+		insns.add(new FieldInsnNode(Opcodes.GETSTATIC, Obf.PacketEvents.ref, "hookedPackets", "[Z"));
+		insns.add(new IntInsnNode(this.packetIndex > Byte.MAX_VALUE ? Opcodes.SIPUSH : Opcodes.BIPUSH, this.packetIndex));
+		insns.add(new InsnNode(Opcodes.BALOAD));
+		insns.add(new JumpInsnNode(Opcodes.IFEQ, skipEvent));
+		
+		return 2;
+	}
+	
 	/* (non-Javadoc)
 	 * @see com.mumfrey.liteloader.transformers.event.Event#getEventInfoClassName()
 	 */
@@ -0,0 +1,208 @@
+package com.mumfrey.liteloader.core;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import net.minecraft.server.MinecraftServer;
+
+import com.mumfrey.liteloader.ConcurrentSafe;
+import com.mumfrey.liteloader.ServerTickable;
+import com.mumfrey.liteloader.core.event.HandlerList;
+
+/**
+ * Ticks {@link ConcurrentSafe} server tick listeners on a pool of worker threads. The concurrent listeners are
+ * ticked as a separate phase after the listeners which are ticked on the server thread, the server thread waits
+ * for all of them to complete before the tick continues. They therefore run in parallel with each other but
+ * never with the server thread's listeners or with the rest of the server tick.
+ *
+ * @author Adam Mummery-Smith
+ */
+class ConcurrentServerTicker
+{
+	/**
+	 * Task which ticks a single listener
+	 */
+	final class TickTask implements Runnable
+	{
+		final ServerTickable tickable;
+
+		TickTask(ServerTickable tickable)
+		{
+			this.tickable = tickable;
+		}
+
+		@Override
+		public void run()
+		{
+			this.tickable.onTick(ConcurrentServerTicker.this.server);
+		}
+	}
+
+	private final HandlerList<ServerTickable> tickables = new HandlerList<ServerTickable>(ServerTickable.class);
+
+	private final int threadCount;
+
+	private ExecutorService executor;
+
+	/**
+	 * Tasks in priority order, rebuilt when a listener is added
+	 */
+	private List<TickTask> tasks;
+
+	/**
+	 * Futures for the tick in progress
+	 */
+	private final List<Future<?>> pending = new ArrayList<Future<?>>();
+
+	private volatile MinecraftServer server;
+
+	/**
+	 * @param threadCount number of worker threads
+	 */
+	ConcurrentServerTicker(int threadCount)
+	{
+		this.threadCount = Math.max(1, threadCount);
+	}
+
+	/**
+	 * Get whether the specified listener should be ticked concurrently
+	 *
+	 * @param tickable
+	 */
+	static boolean isConcurrentSafe(ServerTickable tickable)
+	{
+		return tickable.getClass().isAnnotationPresent(ConcurrentSafe.class);
+	}
+
+	/**
+	 * @param tickable
+	 */
+	void add(ServerTickable tickable)
+	{
+		this.tickables.add(tickable);
+		this.tasks = null;
+	}
+
+	/**
+	 * Tick all listeners and wait for them to complete, called on the server thread. Exceptions thrown by the
+	 * listeners are rethrown on the server thread.
+	 *
+	 * @param server
+	 */
+	void tick(MinecraftServer server)
+	{
+		try
+		{
+			this.begin(server);
+		}
+		finally
+		{
+			this.join();
+		}
+	}
+
+	/**
+	 * Submit the ticks for all listeners
+	 *
+	 * @param server
+	 */
+	private void begin(MinecraftServer server)
+	{
+		if (this.tickables.isEmpty()) return;
+
+		if (this.tasks == null)
+		{
+			this.tasks = new ArrayList<TickTask>();
+			for (ServerTickable tickable : this.tickables.getSortedList())
+			{
+				this.tasks.add(new TickTask(tickable));
+			}
+		}
+
+		if (this.executor == null)
+		{
+			this.executor = Executors.newFixedThreadPool(this.threadCount, new ThreadFactory()
+			{
+				private final AtomicInteger threadNumber = new AtomicInteger();
+
+				@Override
+				public Thread newThread(Runnable runnable)
+				{
+					Thread thread = new Thread(runnable, String.format("Server Tick Worker #%d", this.threadNumber.incrementAndGet()));
+					thread.setDaemon(true);
+					return thread;
+				}
+			});
+		}
+
+		this.server = server;
+		for (TickTask task : this.tasks)
+		{
+			this.pending.add(this.executor.submit(task));
+		}
+	}
+
+	/**
+	 * Wait for all submitted ticks to complete
+	 */
+	private void join()
+	{
+		if (this.pending.isEmpty()) return;
+
+		Throwable failure = null;
+		boolean interrupted = false;
+
+		for (Future<?> future : this.pending)
+		{
+			try
+			{
+				while (true)
+				{
+					try
+					{
+						future.get();
+						break;
+					}
+					catch (InterruptedException ex)
+					{
+						interrupted = true;
+					}
+				}
+			}
+			catch (ExecutionException ex)
+			{
+				if (failure == null) failure = ex.getCause();
+			}
+		}
+
+		this.pending.clear();
+		this.server = null;
+
+		if (interrupted)
+		{
+			Thread.currentThread().interrupt();
+		}
+
+		if (failure instanceof RuntimeException) throw (RuntimeException)failure;
+		if (failure instanceof Error) throw (Error)failure;
+		if (failure != null) throw new RuntimeException(failure);
+	}
+
+	/**
+	 * Stop the worker threads
+	 */
+	void shutdown()
+	{
+		if (this.executor != null)
+		{
+			this.executor.shutdown();
+			this.executor = null;
+		}
+	}
+}
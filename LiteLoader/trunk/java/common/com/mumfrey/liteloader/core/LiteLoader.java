@@ -34,6 +34,7 @@ import com.mumfrey.liteloader.common.LoadingProgress;
 import com.mumfrey.liteloader.core.api.LiteLoaderCoreAPI;
 import com.mumfrey.liteloader.core.event.EventProxy;
 import com.mumfrey.liteloader.core.event.HandlerList;
+import com.mumfrey.liteloader.core.event.HandlerListTimings;
 import com.mumfrey.liteloader.crashreport.CallableLaunchWrapper;
 import com.mumfrey.liteloader.crashreport.CallableLiteLoaderBrand;
 import com.mumfrey.liteloader.crashreport.CallableLiteLoaderMods;
@@ -51,7 +52,10 @@ import com.mumfrey.liteloader.modconfig.ConfigManager;
 import com.mumfrey.liteloader.modconfig.Exposable;
 import com.mumfrey.liteloader.permissions.PermissionsManagerClient;
 import com.mumfrey.liteloader.permissions.PermissionsManagerServer;
+import com.mumfrey.liteloader.transformers.ByteCodeUtilities;
+import com.mumfrey.liteloader.transformers.access.AccessorTransformer;
 import com.mumfrey.liteloader.transformers.event.EventTransformer;
+import com.mumfrey.liteloader.update.UpdateSite;
 import com.mumfrey.liteloader.util.Input;
 import com.mumfrey.liteloader.util.log.LiteLoaderLogger;
 import com.mumfrey.liteloader.util.log.LiteLoaderLogger.Verbosity;
@@ -252,6 +256,15 @@ public final class LiteLoader
 	{
 		try
 		{
+			int updateCacheMinutes = this.properties.getAndStoreIntegerProperty(LoaderProperties.OPTION_UPDATE_CACHE_TTL, 60);
+			UpdateSite.setResponseCache(new File(this.environment.getCommonConfigFolder(), "updatecache"), updateCacheMinutes * 60000L);
+			
+			if (this.properties.getAndStoreBooleanProperty(LoaderProperties.OPTION_LISTENER_TIMINGS, false))
+			{
+				HandlerListTimings.setEnabledByDefault(true);
+				HandlerListTimings.startReporting(this.properties.getAndStoreIntegerProperty(LoaderProperties.OPTION_LISTENER_REPORT, 300), 10);
+			}
+			
 			this.coreProviders.addAll(this.apiAdapter.getCoreProviders());
 			this.tickObservers.addAll(this.apiAdapter.getAllObservers(TickObserver.class));
 			this.worldObservers.addAll(this.apiAdapter.getAllObservers(WorldObserver.class));
@@ -874,6 +887,9 @@ public final class LiteLoader
 		
 		// Force packet injections
 		EnumConnectionState.values();
+		
+		AccessorTransformer.logPendingAccessors();
+		ByteCodeUtilities.onStartupComplete();
 	}
 
 	/**
@@ -1021,4 +1037,4 @@ public final class LiteLoader
 
 		LiteLoader.instance.onPostInit();
 	}
-}
\ No newline at end of file
+}
\ No newline at end of file
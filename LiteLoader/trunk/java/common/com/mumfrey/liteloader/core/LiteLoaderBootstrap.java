@@ -33,6 +33,7 @@ import com.mumfrey.liteloader.launch.LoaderBootstrap;
 import com.mumfrey.liteloader.launch.LoaderEnvironment;
 import com.mumfrey.liteloader.launch.LoaderProperties;
 import com.mumfrey.liteloader.launch.StartupEnvironment;
+import com.mumfrey.liteloader.transformers.ByteCodeUtilities;
 import com.mumfrey.liteloader.util.log.LiteLoaderLogger;
 import com.mumfrey.liteloader.util.log.LiteLoaderLogger.Verbosity;
 
@@ -306,6 +307,11 @@ class LiteLoaderBootstrap implements LoaderBootstrap, LoaderEnvironment, LoaderP
 		
 		LiteLoaderLogger.info(Verbosity.REDUCED, "Java reports OS=\"%s\"", System.getProperty("os.name").toLowerCase());
 		
+		if (this.getAndStoreBooleanProperty(LoaderProperties.OPTION_STORE_LOCALS, false))
+		{
+			ByteCodeUtilities.setLocalVariableStore(new File(this.versionConfigFolder, "liteloader.locals.bin"));
+		}
+		
 		this.enabledModsList = EnabledModsList.createFrom(this.enabledModsFile);
 		this.enabledModsList.processModsList(this.profile, modsToLoad);
 
@@ -336,6 +342,8 @@ class LiteLoaderBootstrap implements LoaderBootstrap, LoaderEnvironment, LoaderP
 		}
 
 		LoadingProgress.setEnabled(this.getAndStoreBooleanProperty(LoaderProperties.OPTION_LOADING_BAR, true));
+		int maxFps = this.getAndStoreIntegerProperty(LoaderProperties.OPTION_LOADING_BAR_FPS, LoadingProgress.DEFAULT_MAX_FPS);
+		LoadingProgress.setMaxFps(maxFps > 0 ? maxFps : LoadingProgress.DEFAULT_MAX_FPS);
 	}
 	
 	/* (non-Javadoc)
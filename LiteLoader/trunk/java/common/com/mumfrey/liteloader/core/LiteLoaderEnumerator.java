@@ -6,11 +6,10 @@ import java.net.URL;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -36,6 +35,7 @@ import com.mumfrey.liteloader.interfaces.Loadable;
 import com.mumfrey.liteloader.interfaces.LoadableMod;
 import com.mumfrey.liteloader.interfaces.LoaderEnumerator;
 import com.mumfrey.liteloader.interfaces.TweakContainer;
+import com.mumfrey.liteloader.launch.ClassPathUtilities;
 import com.mumfrey.liteloader.launch.ClassTransformerManager;
 import com.mumfrey.liteloader.launch.LiteLoaderTweaker;
 import com.mumfrey.liteloader.launch.LoaderEnvironment;
@@ -107,6 +107,11 @@ public class LiteLoaderEnumerator implements LoaderEnumerator
 
 	private final ModClassValidator validator;
 	
+	/**
+	 * Default plugin, which also owns the dependency graph
+	 */
+	private final DefaultEnumeratorPlugin defaultPlugin = new DefaultEnumeratorPlugin();
+	
 	private final FastIterableDeque<EnumerationObserver> observers = new HandlerList<EnumerationObserver>(EnumerationObserver.class);
 	
 	protected EnumeratorState state = EnumeratorState.INIT;
@@ -123,8 +128,13 @@ public class LiteLoaderEnumerator implements LoaderEnumerator
 		this.classLoader       = classLoader;
 		this.validator         = this.getValidator(environment);
 
+		if (properties.getAndStoreBooleanProperty(LoaderProperties.OPTION_INDEXED_CLASSPATH, false))
+		{
+			ClassPathUtilities.enableClassPathIndex(classLoader);
+		}
+
 		this.initModules(environment);
-		this.registerPlugin(new DefaultEnumeratorPlugin());
+		this.registerPlugin(this.defaultPlugin);
 
 		// Initialise observers
 		this.observers.addAll(environment.getAPIAdapter().getPreInitObservers(EnumerationObserver.class));
@@ -416,6 +426,7 @@ public class LiteLoaderEnumerator implements LoaderEnumerator
 
 			this.gotoState(EnumeratorState.REGISTER);
 			this.registerMods();
+			this.sortModsToLoad();
 
 			this.gotoState(EnumeratorState.FINALISED);
 			LiteLoaderLogger.info("Mod class discovery completed");
@@ -466,6 +477,33 @@ public class LiteLoaderEnumerator implements LoaderEnumerator
 		}
 	}
 
+	/**
+	 * Sort the mods to load so that mods are always loaded after the mods they depend upon, mods which do not
+	 * depend upon each other retain the order in which they were registered
+	 */
+	private void sortModsToLoad()
+	{
+		Map<LoadableMod<?>, List<ModInfo<LoadableMod<?>>>> modsByContainer = new LinkedHashMap<LoadableMod<?>, List<ModInfo<LoadableMod<?>>>>();
+		for (ModInfo<LoadableMod<?>> mod : this.modsToLoad)
+		{
+			List<ModInfo<LoadableMod<?>>> mods = modsByContainer.get(mod.getContainer());
+			if (mods == null)
+			{
+				mods = new ArrayList<ModInfo<LoadableMod<?>>>();
+				modsByContainer.put(mod.getContainer(), mods);
+			}
+			mods.add(mod);
+		}
+		
+		List<LoadableMod<?>> loadOrder = this.defaultPlugin.getDependencyGraph(this.containers).sort(modsByContainer.keySet());
+		
+		this.modsToLoad.clear();
+		for (LoadableMod<?> container : loadOrder)
+		{
+			this.modsToLoad.addAll(modsByContainer.get(container));
+		}
+	}
+
 	/* (non-Javadoc)
 	 * @see com.mumfrey.liteloader.interfaces.ModularEnumerator#registerModContainer(com.mumfrey.liteloader.interfaces.LoadableMod)
 	 */
@@ -509,6 +547,7 @@ public class LiteLoaderEnumerator implements LoaderEnumerator
 	{
 		this.checkState(EnumeratorState.DISCOVER, "registerEnabledContainer");
 		this.containers.registerEnabledContainer(container);
+		this.defaultPlugin.invalidateDependencyGraph();
 		this.observers.all().onRegisterEnabledContainer(this, container);
 	}
 
@@ -521,6 +560,7 @@ public class LiteLoaderEnumerator implements LoaderEnumerator
 
 		LiteLoaderLogger.info(Verbosity.REDUCED, reason.getMessage(container));
 		this.containers.registerDisabledContainer(container, reason);
+		this.defaultPlugin.invalidateDependencyGraph();
 		this.observers.all().onRegisterDisabledContainer(this, container, reason);
 	}
 	
@@ -731,20 +771,20 @@ public class LiteLoaderEnumerator implements LoaderEnumerator
 	 */
 	private void checkDependencies()
 	{
-		Collection<? extends LoadableMod<?>> enabledContainers = this.containers.getEnabledContainers();
-		Deque<LoadableMod<?>> containers = new LinkedList<LoadableMod<?>>(enabledContainers);
-
-		while (containers.size() > 0)
+		// Disabling a container invalidates the default plugin's dependency graph, so containers which depend on
+		// it fail when they are checked. Containers checked before it in the same pass, and the results of other
+		// plugins which may not be transitive, are picked up by repeating the pass until nothing else is disabled
+		boolean changed = true;
+		while (changed)
 		{
-			LoadableMod<?> container = containers.pop();
-			if (!this.checkDependencies(container))
+			changed = false;
+			for (LoadableMod<?> container : new ArrayList<LoadableMod<?>>(this.containers.getEnabledContainers()))
 			{
-				this.registerDisabledContainer(container, DisabledReason.MISSING_DEPENDENCY);
-				
-				// Iterate so that a container disabled by a failed dependency check will also
-				// disable any containers which depend upon it
-				containers.clear();
-				containers.addAll(enabledContainers);
+				if (!this.checkDependencies(container))
+				{
+					this.registerDisabledContainer(container, DisabledReason.MISSING_DEPENDENCY);
+					changed = true;
+				}
 			}
 		}
 	}
@@ -780,4 +820,4 @@ public class LiteLoaderEnumerator implements LoaderEnumerator
 	{
 		return mod.getSimpleName().substring(7);
 	}
-}
\ No newline at end of file
+}
\ No newline at end of file
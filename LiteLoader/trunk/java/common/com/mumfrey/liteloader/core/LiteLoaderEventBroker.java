@@ -29,6 +29,7 @@ import com.mojang.authlib.GameProfile;
 import com.mumfrey.liteloader.LiteMod;
 import com.mumfrey.liteloader.PlayerInteractionListener;
 import com.mumfrey.liteloader.PlayerInteractionListener.MouseButton;
+import com.mumfrey.liteloader.PlayerMoveContextListener;
 import com.mumfrey.liteloader.PlayerMoveListener;
 import com.mumfrey.liteloader.PluginChannelListener;
 import com.mumfrey.liteloader.ServerCommandProvider;
@@ -46,7 +47,7 @@ import com.mumfrey.liteloader.core.event.HandlerList.ReturnLogicOp;
 import com.mumfrey.liteloader.interfaces.FastIterable;
 import com.mumfrey.liteloader.interfaces.FastIterableDeque;
 import com.mumfrey.liteloader.launch.LoaderProperties;
-import com.mumfrey.liteloader.util.Position;
+import com.mumfrey.liteloader.permissions.PermissionsManagerServer;
 import com.mumfrey.liteloader.util.PrivateFields;
 import com.mumfrey.liteloader.util.log.LiteLoaderLogger;
 
@@ -92,6 +93,15 @@ public abstract class LiteLoaderEventBroker<TClient, TServer extends MinecraftSe
 			this.isSet = true;
 			this.value = value;
 		}
+		
+		/**
+		 * Clear the value so that the instance can be reused
+		 */
+		public void reset()
+		{
+			this.isSet = false;
+			this.value = null;
+		}
 	}
 	
 	public static enum InteractType
@@ -146,12 +156,33 @@ public abstract class LiteLoaderEventBroker<TClient, TServer extends MinecraftSe
 	/**
 	 * List of mods which handle player movement events
 	 */
-	private FastIterable<PlayerMoveListener> playerMoveListeners = new HandlerList<PlayerMoveListener>(PlayerMoveListener.class, ReturnLogicOp.AND_BREAK_ON_FALSE);
+	private FastIterableDeque<PlayerMoveListener> playerMoveListeners = new HandlerList<PlayerMoveListener>(PlayerMoveListener.class, ReturnLogicOp.AND_BREAK_ON_FALSE);
+	
+	/**
+	 * List of mods which handle player movement events using the movement context
+	 */
+	private FastIterableDeque<PlayerMoveContextListener> playerMoveContextListeners = new HandlerList<PlayerMoveContextListener>(PlayerMoveContextListener.class, ReturnLogicOp.AND_BREAK_ON_FALSE);
+	
+	/**
+	 * Adapter which passes movement contexts to the legacy movement listeners
+	 */
+	private final PlayerMoveListenerAdapter playerMoveListenerAdapter = new PlayerMoveListenerAdapter(this.playerMoveListeners);
 	
 	/**
 	 * List of mods which monitor server ticks
 	 */
-	private FastIterable<ServerTickable> serverTickListeners = new HandlerList<ServerTickable>(ServerTickable.class);
+	private HandlerList<ServerTickable> serverTickListeners = new HandlerList<ServerTickable>(ServerTickable.class);
+	
+	/**
+	 * Watchdog which runs the server tick listeners when tick monitoring is enabled
+	 */
+	private ServerTickWatchdog serverTickWatchdog;
+	
+	/**
+	 * Ticks listeners marked as {@link com.mumfrey.liteloader.ConcurrentSafe} on worker threads when concurrent
+	 * ticking is enabled
+	 */
+	private ConcurrentServerTicker concurrentServerTicker;
 	
 	/**
 	 * List of mods which want to be notified when the game is shutting down
@@ -172,6 +203,19 @@ public abstract class LiteLoaderEventBroker<TClient, TServer extends MinecraftSe
 		this.profiler = engine.getProfiler();
 		
 		LiteLoaderEventBroker.broker = this;
+		
+		if (properties.getAndStoreBooleanProperty(LoaderProperties.OPTION_TICK_WATCHDOG, false))
+		{
+			int thresholdMillis = properties.getAndStoreIntegerProperty(LoaderProperties.OPTION_TICK_WATCHDOG_MS, 50);
+			int deferInterval = properties.getAndStoreIntegerProperty(LoaderProperties.OPTION_TICK_DEFER_INTR, 0);
+			this.serverTickWatchdog = new ServerTickWatchdog(this.playerStateList, this.serverTickListeners, thresholdMillis, deferInterval);
+		}
+		
+		if (properties.getAndStoreBooleanProperty(LoaderProperties.OPTION_CONCURRENT_TICK, false))
+		{
+			int threads = properties.getAndStoreIntegerProperty(LoaderProperties.OPTION_CONCURRENT_TICK_THREADS, 0);
+			this.concurrentServerTicker = new ConcurrentServerTicker(threads > 0 ? threads : Runtime.getRuntime().availableProcessors() - 1);
+		}
 	}
 	
 	/**
@@ -215,6 +259,7 @@ public abstract class LiteLoaderEventBroker<TClient, TServer extends MinecraftSe
 		delegate.registerInterface(ServerPlayerListener.class);
 		delegate.registerInterface(PlayerInteractionListener.class);
 		delegate.registerInterface(PlayerMoveListener.class);
+		delegate.registerInterface(PlayerMoveContextListener.class);
 		delegate.registerInterface(CommonPluginChannelListener.class);
 		delegate.registerInterface(ServerTickable.class);
 		delegate.registerInterface(ShutdownListener.class);
@@ -265,11 +310,25 @@ public abstract class LiteLoaderEventBroker<TClient, TServer extends MinecraftSe
 		this.playerMoveListeners.add(playerMoveListener);
 	}
 	
+	/**
+	 * @param playerMoveContextListener
+	 */
+	public void addPlayerMoveContextListener(PlayerMoveContextListener playerMoveContextListener)
+	{
+		this.playerMoveContextListeners.add(playerMoveContextListener);
+	}
+	
 	/**
 	 * @param serverTickable
 	 */
 	public void addServerTickable(ServerTickable serverTickable)
 	{
+		if (this.concurrentServerTicker != null && ConcurrentServerTicker.isConcurrentSafe(serverTickable))
+		{
+			this.concurrentServerTicker.add(serverTickable);
+			return;
+		}
+		
 		this.serverTickListeners.add(serverTickable);
 	}
 	
@@ -353,6 +412,12 @@ public abstract class LiteLoaderEventBroker<TClient, TServer extends MinecraftSe
 	{
 		this.serverPlayerListeners.all().onPlayerLogout(player);
 		this.removePlayer(player);
+		
+		PermissionsManagerServer permissionsManager = LiteLoader.getServerPermissionsManager();
+		if (permissionsManager != null)
+		{
+			permissionsManager.onPlayerLogout(player);
+		}
 	}
 
 	/**
@@ -382,8 +447,26 @@ public abstract class LiteLoaderEventBroker<TClient, TServer extends MinecraftSe
 	
 	public void onServerTick(MinecraftServer server)
 	{
-		this.playerStateList.all().onTick(server);
-		this.serverTickListeners.all().onTick(server);
+		if (this.serverTickWatchdog != null)
+		{
+			this.serverTickWatchdog.onServerTick(server, this.concurrentServerTicker);
+		}
+		else
+		{
+			this.playerStateList.all().onTick(server);
+			this.serverTickListeners.all().onTick(server);
+			
+			if (this.concurrentServerTicker != null)
+			{
+				this.concurrentServerTicker.tick(server);
+			}
+		}
+		
+		PermissionsManagerServer permissionsManager = LiteLoader.getServerPermissionsManager();
+		if (permissionsManager != null)
+		{
+			permissionsManager.onServerTick(server);
+		}
 	}
 	
 	public boolean onPlaceBlock(NetHandlerPlayServer netHandler, EntityPlayerMP playerMP, BlockPos pos, EnumFacing facing)
@@ -458,7 +541,12 @@ public abstract class LiteLoaderEventBroker<TClient, TServer extends MinecraftSe
 
 	public boolean onPlayerMove(NetHandlerPlayServer netHandler, C03PacketPlayer packet, EntityPlayerMP playerMP, WorldServer world)
 	{
-		Position from = new Position(playerMP, true);
+		boolean hasContextListeners = !this.playerMoveContextListeners.isEmpty();
+		boolean hasLegacyListeners = !this.playerMoveListeners.isEmpty();
+		if (!hasContextListeners && !hasLegacyListeners)
+		{
+			return true;
+		}
 		
 		double toX = playerMP.posX;
 		double toY = playerMP.posY;
@@ -479,20 +567,20 @@ public abstract class LiteLoaderEventBroker<TClient, TServer extends MinecraftSe
 			toPitch = packet.getPitch();
 		}
 
-		Position to = new Position(toX, toY, toZ, toYaw, toPitch);
-		ReturnValue<Position> pos = new ReturnValue<Position>(to);
+		PlayerMoveContext move = this.getPlayerState(playerMP).getMoveContext();
+		move.reset(playerMP.prevPosX, playerMP.prevPosY, playerMP.prevPosZ, playerMP.prevRotationYaw, playerMP.prevRotationPitch, toX, toY, toZ, toYaw, toPitch);
 		
-		if (!this.playerMoveListeners.all().onPlayerMove(playerMP, from, to, pos))
+		if ((hasContextListeners && !this.playerMoveContextListeners.all().onPlayerMove(playerMP, move))
+				|| (hasLegacyListeners && !this.playerMoveListenerAdapter.onPlayerMove(playerMP, move)))
 		{
-			playerMP.setPositionAndRotation(from.xCoord, from.yCoord, from.zCoord, playerMP.prevRotationYaw, playerMP.prevRotationPitch);
-			playerMP.playerNetServerHandler.sendPacket(new S08PacketPlayerPosLook(from.xCoord, from.yCoord, from.zCoord, playerMP.prevRotationYaw, playerMP.prevRotationPitch, Collections.emptySet()));
+			playerMP.setPositionAndRotation(move.getFromX(), move.getFromY(), move.getFromZ(), playerMP.prevRotationYaw, playerMP.prevRotationPitch);
+			playerMP.playerNetServerHandler.sendPacket(new S08PacketPlayerPosLook(move.getFromX(), move.getFromY(), move.getFromZ(), playerMP.prevRotationYaw, playerMP.prevRotationPitch, Collections.emptySet()));
 			return false;
 		}
 		
-		if (pos.isSet())
+		if (move.isOverridden())
 		{
-			Position newPos = pos.get();
-			netHandler.setPlayerLocation(newPos.xCoord, newPos.yCoord, newPos.zCoord, newPos.yaw, newPos.pitch);
+			netHandler.setPlayerLocation(move.getNewX(), move.getNewY(), move.getNewZ(), move.getNewYaw(), move.getNewPitch());
 			return false;
 		}
 		
@@ -506,6 +594,14 @@ public abstract class LiteLoaderEventBroker<TClient, TServer extends MinecraftSe
 		playerState.setLocale(packet.getLang());
 	}
 
+	/**
+	 * Get the server tick watchdog, returns null if the watchdog is not enabled
+	 */
+	public ServerTickWatchdog getServerTickWatchdog()
+	{
+		return this.serverTickWatchdog;
+	}
+
 	public PlayerEventState getPlayerState(EntityPlayerMP player)
 	{
 		PlayerEventState playerState = this.playerStates.get(player.getUniqueID());
@@ -530,6 +626,11 @@ public abstract class LiteLoaderEventBroker<TClient, TServer extends MinecraftSe
 	@Override
 	public void onShutDown()
 	{
+		if (this.concurrentServerTicker != null)
+		{
+			this.concurrentServerTicker.shutdown();
+		}
+		
 		for (ShutdownListener listener : this.shutdownListeners)
 		{
 			try
@@ -2,10 +2,13 @@ package com.mumfrey.liteloader.core;
 
 import java.lang.reflect.Method;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
-import java.util.Iterator;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import com.mumfrey.liteloader.api.Listener;
 import com.mumfrey.liteloader.api.InterfaceObserver;
@@ -66,9 +69,9 @@ public class LiteLoaderInterfaceManager implements InterfaceRegistry
 		public final Class<? extends Listener> interfaceType;
 		
 		/**
-		 * List of registered listeners, so we can avoid registering the same listener multiple times
+		 * Registered listeners (by identity), so we can avoid registering the same listener multiple times
 		 */
-		private final List<Listener> registeredListeners = new ArrayList<Listener>();
+		private final Set<Listener> registeredListeners = Collections.newSetFromMap(new IdentityHashMap<Listener, Boolean>());
 		
 		/**
 		 * Callback method used to 
@@ -117,6 +120,14 @@ public class LiteLoaderInterfaceManager implements InterfaceRegistry
 				if (method.getParameterTypes().length == 1 && method.getParameterTypes()[0].equals(interfaceType))
 				{
 					LiteLoaderLogger.debug("Found method %s for registering %s with provider %s", method.getName(), interfaceType, providerClass.getSimpleName());
+					
+					// Suppress access checks once here rather than on every invokation
+					try
+					{
+						method.setAccessible(true);
+					}
+					catch (SecurityException ex) {}
+					
 					return method;
 				}
 			}
@@ -192,6 +203,16 @@ public class LiteLoaderInterfaceManager implements InterfaceRegistry
 	 */
 	private final List<InterfaceHandler> interfaceHandlers = new ArrayList<InterfaceHandler>();
 	
+	/**
+	 * Registered interface handler mappings by interface type
+	 */
+	private final Map<Class<? extends Listener>, List<InterfaceHandler>> handlersByInterface = new HashMap<Class<? extends Listener>, List<InterfaceHandler>>();
+	
+	/**
+	 * Handlers which apply to each listener class, in registration order. Cleared whenever the set of handlers changes.
+	 */
+	private final Map<Class<?>, InterfaceHandler[]> handlersByListenerClass = new HashMap<Class<?>, InterfaceHandler[]>();
+	
 	/**
 	 * Interface observers
 	 */
@@ -298,7 +319,10 @@ public class LiteLoaderInterfaceManager implements InterfaceRegistry
 
 				this.allProviders.add(provider);
 
-				this.interfaceHandlers.addAll(delegate.getHandlers());
+				for (InterfaceHandler handler : delegate.getHandlers())
+				{
+					this.addHandler(handler);
+				}
 				
 				return true;
 			}
@@ -348,7 +372,7 @@ public class LiteLoaderInterfaceManager implements InterfaceRegistry
 		if (handler.isValid())
 		{
 			// Check if a this provider is already registered
-			if (this.getProvidersFor(interfaceType).contains(provider))
+			if (this.isRegisteredProviderFor(interfaceType, provider))
 			{
 				throw new InvalidProviderException("Attempting to register duplicate mapping for provider " + provider.getClass() + " to " + interfaceType);
 			}
@@ -360,7 +384,7 @@ public class LiteLoaderInterfaceManager implements InterfaceRegistry
 			
 			if (this.registrationDone)
 			{
-				this.interfaceHandlers.add(handler);
+				this.addHandler(handler);
 				
 				for (Listener consumer : this.listeners)
 				{
@@ -385,9 +409,10 @@ public class LiteLoaderInterfaceManager implements InterfaceRegistry
 	{
 		List<InterfaceProvider> handlers = new ArrayList<InterfaceProvider>();
 		
-		for (InterfaceHandler handler : this.interfaceHandlers)
+		List<InterfaceHandler> registeredHandlers = this.handlersByInterface.get(interfaceType);
+		if (registeredHandlers != null)
 		{
-			if (handler.interfaceType == interfaceType)
+			for (InterfaceHandler handler : registeredHandlers)
 				handlers.add(handler.provider);
 		}
 		
@@ -403,24 +428,115 @@ public class LiteLoaderInterfaceManager implements InterfaceRegistry
 		return handlers;
 	}
 
+	/**
+	 * @param interfaceType
+	 * @param provider
+	 */
+	private boolean isRegisteredProviderFor(Class<? extends Listener> interfaceType, InterfaceProvider provider)
+	{
+		List<InterfaceHandler> registeredHandlers = this.handlersByInterface.get(interfaceType);
+		if (registeredHandlers != null)
+		{
+			for (InterfaceHandler handler : registeredHandlers)
+			{
+				if (handler.provider == provider) return true;
+			}
+		}
+		
+		if (this.activeRegistrationDelegate != null)
+		{
+			for (InterfaceHandler handler : this.activeRegistrationDelegate.getHandlers())
+			{
+				if (handler.interfaceType == interfaceType && handler.provider == provider) return true;
+			}
+		}
+		
+		return false;
+	}
+	
+	/**
+	 * @param handler
+	 */
+	private void addHandler(InterfaceHandler handler)
+	{
+		this.interfaceHandlers.add(handler);
+		
+		List<InterfaceHandler> registeredHandlers = this.handlersByInterface.get(handler.interfaceType);
+		if (registeredHandlers == null)
+		{
+			registeredHandlers = new ArrayList<InterfaceHandler>(2);
+			this.handlersByInterface.put(handler.interfaceType, registeredHandlers);
+		}
+		
+		registeredHandlers.add(handler);
+		this.handlersByListenerClass.clear();
+	}
+
 	/**
 	 * @param interfaceType
 	 * @param priority
 	 */
 	private void removeHandlersFor(Class<? extends Listener> interfaceType, int priority)
 	{
-		Iterator<InterfaceHandler> iter = this.interfaceHandlers.iterator();
-		while (iter.hasNext())
+		List<InterfaceHandler> registeredHandlers = this.handlersByInterface.get(interfaceType);
+		if (registeredHandlers == null)
 		{
-			InterfaceHandler handler = iter.next();
-			if (handler.interfaceType.equals(interfaceType))
+			return;
+		}
+		
+		for (InterfaceHandler handler : registeredHandlers)
+		{
+			if (handler.exclusive)
 			{
-				if (handler.exclusive)
+				throw new RuntimeException("Attempt to register an exclusive handler when an exclusive handler already exists for " + interfaceType);
+			}
+		}
+		
+		this.interfaceHandlers.removeAll(registeredHandlers);
+		this.handlersByInterface.remove(interfaceType);
+		this.handlersByListenerClass.clear();
+	}
+	
+	/**
+	 * Get the handlers which apply to the specified listener class, in registration order. The interface
+	 * hierarchy of each listener class is only walked once, the result is cached until the handlers change.
+	 * 
+	 * @param listenerClass
+	 */
+	private InterfaceHandler[] getHandlersFor(Class<?> listenerClass)
+	{
+		InterfaceHandler[] handlers = this.handlersByListenerClass.get(listenerClass);
+		if (handlers == null)
+		{
+			Set<Class<?>> interfaces = new HashSet<Class<?>>();
+			for (Class<?> clazz = listenerClass; clazz != null; clazz = clazz.getSuperclass())
+			{
+				LiteLoaderInterfaceManager.collectInterfaces(clazz, interfaces);
+			}
+			
+			List<InterfaceHandler> matchingHandlers = new ArrayList<InterfaceHandler>();
+			for (InterfaceHandler handler : this.interfaceHandlers)
+			{
+				if (interfaces.contains(handler.interfaceType))
 				{
-					throw new RuntimeException("Attempt to register an exclusive handler when an exclusive handler already exists for " + interfaceType);
+					matchingHandlers.add(handler);
 				}
-				
-				iter.remove();
+			}
+			
+			handlers = matchingHandlers.toArray(new InterfaceHandler[matchingHandlers.size()]);
+			this.handlersByListenerClass.put(listenerClass, handlers);
+		}
+		
+		return handlers;
+	}
+	
+	private static void collectInterfaces(Class<?> clazz, Set<Class<?>> interfaces)
+	{
+		for (Class<?> iface : clazz.getInterfaces())
+		{
+			if (interfaces.add(iface))
+			{
+				LiteLoaderInterfaceManager.collectInterfaces(iface, interfaces);
 			}
 		}
 	}
@@ -456,7 +572,7 @@ public class LiteLoaderInterfaceManager implements InterfaceRegistry
 	 * 
 	 * @param listener
 	 */
-	public void offer(Listener listener)
+	public synchronized void offer(Listener listener)
 	{
 		if (listener instanceof InterfaceProvider)
 		{
@@ -474,7 +590,7 @@ public class LiteLoaderInterfaceManager implements InterfaceRegistry
 	/**
 	 * Registers all enqueued consumers as listeners
 	 */
-	private void registerQueuedListeners()
+	private synchronized void registerQueuedListeners()
 	{
 		for (Listener consumer : this.listeners)
 		{
@@ -485,13 +601,14 @@ public class LiteLoaderInterfaceManager implements InterfaceRegistry
 	}
 
 	/**
-	 * Registers a listener with all registered handlers
+	 * Registers a listener with all registered handlers. Synchronised since thread-safe mods may register
+	 * listeners from their init method on a worker thread.
 	 * 
 	 * @param listener
 	 */
-	public void registerListener(Listener listener)
+	public synchronized void registerListener(Listener listener)
 	{
-		for (InterfaceHandler handler : this.interfaceHandlers)
+		for (InterfaceHandler handler : this.getHandlersFor(listener.getClass()))
 		{
 			handler.registerListener(listener);
 		}
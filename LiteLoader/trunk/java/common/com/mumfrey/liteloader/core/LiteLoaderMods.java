@@ -5,6 +5,7 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.Deque;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
@@ -101,6 +102,16 @@ public class LiteLoaderMods
 	 */
 	protected final List<ModInfo<?>> badContainers = new LinkedList<ModInfo<?>>();
 
+	/**
+	 * True if mods which declare themselves thread-safe should be constructed and initialised on a worker pool
+	 */
+	private final boolean concurrentInit;
+	
+	/**
+	 * Number of worker threads to use when concurrent init is enabled
+	 */
+	private final int concurrentInitThreads;
+
 	private int startupErrorCount, criticalErrorCount;
 
 	LiteLoaderMods(LiteLoader loader, LoaderEnvironment environment, LoaderProperties properties, ConfigManager configManager)
@@ -110,6 +121,10 @@ public class LiteLoaderMods
 		this.enumerator       = environment.getEnumerator();
 		this.properties       = properties;
 		this.configManager    = configManager;
+		
+		this.concurrentInit   = properties.getAndStoreBooleanProperty(LoaderProperties.OPTION_CONCURRENT_INIT, false);
+		int threads           = properties.getAndStoreIntegerProperty(LoaderProperties.OPTION_CONCURRENT_THREADS, 0);
+		this.concurrentInitThreads = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
 	}
 
 	void init(List<ModLoadObserver> observers)
@@ -411,12 +426,27 @@ public class LiteLoaderMods
 	 */
 	void loadMods()
 	{
-		LoadingProgress.incTotalLiteLoaderProgress(this.enumerator.getModsToLoad().size());
+		Collection<? extends ModInfo<LoadableMod<?>>> modsToLoad = this.enumerator.getModsToLoad();
+		LoadingProgress.incTotalLiteLoaderProgress(modsToLoad.size());
 		
-		for (ModInfo<LoadableMod<?>> mod : this.enumerator.getModsToLoad())
+		ModTaskScheduler scheduler = this.scheduleConstruction(modsToLoad);
+		Deque<Mod> constructing = new LinkedList<Mod>();
+		
+		for (ModInfo<LoadableMod<?>> mod : modsToLoad)
 		{
 			LoadingProgress.incLiteLoaderProgress("Loading mod from %s...", mod.getModClassSimpleName());
 			LoadableMod<?> container = mod.getContainer();
+			
+			if (scheduler != null && mod instanceof Mod && scheduler.contains((Mod)mod))
+			{
+				// Enablement and dependencies were checked when the mod was scheduled
+				scheduler.release((Mod)mod);
+				constructing.add((Mod)mod);
+				continue;
+			}
+			
+			// Mods which are not thread-safe are never constructed while a worker is running
+			this.awaitScheduledConstruction(scheduler, constructing);
 
 			try
 			{
@@ -451,6 +481,95 @@ public class LiteLoaderMods
 
 			this.observers.all().onPostModLoaded(mod);
 		}
+		
+		if (scheduler != null)
+		{
+			this.awaitScheduledConstruction(scheduler, constructing);
+			scheduler.shutdown();
+		}
+	}
+	
+	/**
+	 * If concurrent init is enabled, check and schedule construction of all mods which declare themselves as
+	 * thread-safe. Mods which depend on mods which are not thread-safe are left for the main thread. Each mod's
+	 * construction is released to the workers when it is reached by {@link #loadMods}, and the results are
+	 * collected on the main thread in the original order before the next mod which is not thread-safe is
+	 * constructed.
+	 * 
+	 * @param modsToLoad
+	 * @return scheduler, or null if no mods are to be constructed concurrently
+	 */
+	private ModTaskScheduler scheduleConstruction(Collection<? extends ModInfo<LoadableMod<?>>> modsToLoad)
+	{
+		if (!this.concurrentInit) return null;
+		
+		ModTaskScheduler scheduler = new ModTaskScheduler("Mod Construction", this.concurrentInitThreads);
+		Set<String> unscheduled = new HashSet<String>();
+		
+		for (ModInfo<LoadableMod<?>> mod : modsToLoad)
+		{
+			LoadableMod<?> container = mod.getContainer();
+			String identifier = mod.getIdentifier();
+			
+			if (mod instanceof Mod && ModTaskScheduler.isThreadSafe(mod)
+					&& (identifier == null || this.environment.getEnabledModsList().isEnabled(this.environment.getProfile(), identifier))
+					&& this.enumerator.checkDependencies(container))
+			{
+				scheduler.add((Mod)mod);
+			}
+			else
+			{
+				unscheduled.add(container.getIdentifier());
+			}
+		}
+		
+		for (Mod mod : scheduler.removeDependentsOf(unscheduled))
+		{
+			LiteLoaderLogger.info(Verbosity.REDUCED, "Mod %s depends on a mod which is not thread-safe, it will be loaded on the main thread", mod.getIdentifier());
+		}
+		
+		if (scheduler.isEmpty()) return null;
+		
+		scheduler.prepare(new ModTaskScheduler.ModTask()
+		{
+			@Override
+			public void run(Mod mod) throws Throwable
+			{
+				LiteLoaderLogger.info(Verbosity.REDUCED, "Loading mod from %s", mod.getModClassName());
+				mod.newInstance();
+			}
+		});
+		
+		return scheduler;
+	}
+	
+	/**
+	 * Wait for the construction of mods released to the scheduler to complete and handle them in the order they
+	 * were released
+	 * 
+	 * @param scheduler
+	 * @param constructing mods whose construction has been released, in order
+	 */
+	private void awaitScheduledConstruction(ModTaskScheduler scheduler, Deque<Mod> constructing)
+	{
+		while (constructing.size() > 0)
+		{
+			Mod mod = constructing.removeFirst();
+			
+			try
+			{
+				Throwable th = scheduler.await(mod);
+				if (th != null) throw th;
+				this.onModConstructed(mod);
+			}
+			catch (Throwable th)
+			{
+				this.onModLoadFailed(mod.getContainer(), mod.getModClassName(), "an error occurred", th);
+				this.registerModStartupError(mod, th);
+			}
+			
+			this.observers.all().onPostModLoaded(mod);
+		}
 	}
 
 	/**
@@ -475,12 +594,20 @@ public class LiteLoaderMods
 	{
 		LiteLoaderLogger.info(Verbosity.REDUCED, "Loading mod from %s", mod.getModClassName());
 		
-		LiteMod newMod = mod.newInstance();
+		mod.newInstance();
 		
+		this.onModConstructed(mod);
+	}
+	
+	/**
+	 * @param mod
+	 */
+	private void onModConstructed(Mod mod)
+	{
 		this.onModLoaded(mod);
 		
 		String modName = mod.getDisplayName();
-		LiteLoaderLogger.info("Successfully added mod %s version %s", modName, newMod.getVersion());
+		LiteLoaderLogger.info("Successfully added mod %s version %s", modName, mod.getMod().getVersion());
 	}
 
 	/**
@@ -528,10 +655,34 @@ public class LiteLoaderMods
 		this.loadedModsList = "";
 		int loadedModsCount = 0;
 		
+		ModTaskScheduler scheduler = this.scheduleInit();
+		Deque<Mod> initialising = new LinkedList<Mod>();
+		
 		while (this.initMods.size() > 0)
 		{
 			Mod mod = this.initMods.removeFirst();
 			
+			if (scheduler != null && scheduler.contains(mod))
+			{
+				try
+				{
+					this.preInitMod(mod);
+					scheduler.release(mod);
+					initialising.add(mod);
+				}
+				catch (Throwable th)
+				{
+					scheduler.cancel(mod, th);
+					this.registerModStartupError(mod, th);
+					LiteLoaderLogger.warning(th, "Error initialising mod '%s'", mod.getDisplayName());
+				}
+				
+				continue;
+			}
+			
+			// Mods which are not thread-safe are never initialised while a worker is running
+			loadedModsCount += this.awaitScheduledInit(scheduler, initialising);
+			
 			try
 			{
 				this.initMod(mod);
@@ -544,13 +695,107 @@ public class LiteLoaderMods
 			}
 		}
 		
+		if (scheduler != null)
+		{
+			loadedModsCount += this.awaitScheduledInit(scheduler, initialising);
+			scheduler.shutdown();
+		}
+		
 		this.loadedModsList = String.format("%s loaded mod(s)%s", loadedModsCount, this.loadedModsList);
 	}
+	
+	/**
+	 * If concurrent init is enabled, schedule the init calls of all thread-safe mods on the worker pool. Each
+	 * mod is pre-initialised on the main thread when it is reached by {@link #initMods}, and only then is its
+	 * init call released to the workers. Post-init (including registration with the interface manager) is
+	 * performed on the main thread in the original order once the init call has completed.
+	 * 
+	 * @return scheduler, or null if no mods are to be initialised concurrently
+	 */
+	private ModTaskScheduler scheduleInit()
+	{
+		if (!this.concurrentInit) return null;
+		
+		ModTaskScheduler scheduler = new ModTaskScheduler("Mod Init", this.concurrentInitThreads);
+		Set<String> unscheduled = new HashSet<String>();
+		
+		for (Mod mod : this.initMods)
+		{
+			if (ModTaskScheduler.isThreadSafe(mod))
+			{
+				scheduler.add(mod);
+			}
+			else
+			{
+				unscheduled.add(mod.getContainer().getIdentifier());
+			}
+		}
+		
+		scheduler.removeDependentsOf(unscheduled);
+		if (scheduler.isEmpty()) return null;
+		
+		scheduler.prepare(new ModTaskScheduler.ModTask()
+		{
+			@Override
+			public void run(Mod mod) throws Throwable
+			{
+				mod.getMod().init(LiteLoader.getCommonConfigFolder());
+			}
+		});
+		
+		return scheduler;
+	}
+	
+	/**
+	 * Wait for the init calls of mods released to the scheduler to complete and post-initialise them in the
+	 * order they were released
+	 * 
+	 * @param scheduler
+	 * @param initialising mods whose init calls have been released, in order
+	 * @return number of mods which were initialised successfully
+	 */
+	private int awaitScheduledInit(ModTaskScheduler scheduler, Deque<Mod> initialising)
+	{
+		int initialisedCount = 0;
+		
+		while (initialising.size() > 0)
+		{
+			Mod mod = initialising.removeFirst();
+			
+			try
+			{
+				Throwable th = scheduler.await(mod);
+				if (th != null) throw th;
+				this.onModInitialised(mod);
+				initialisedCount++;
+			}
+			catch (Throwable th)
+			{
+				this.registerModStartupError(mod, th);
+				LiteLoaderLogger.warning(th, "Error initialising mod '%s'", mod.getDisplayName());
+			}
+		}
+		
+		return initialisedCount;
+	}
 
 	/**
 	 * @param mod
 	 */
 	private void initMod(Mod mod)
+	{
+		this.preInitMod(mod);
+		
+		// initialise the mod
+		mod.getMod().init(LiteLoader.getCommonConfigFolder());
+
+		this.onModInitialised(mod);
+	}
+	
+	/**
+	 * @param mod
+	 */
+	private void preInitMod(Mod mod)
 	{
 		LiteMod instance = mod.getMod();
 		
@@ -558,11 +803,14 @@ public class LiteLoaderMods
 		LoadingProgress.incLiteLoaderProgress("Initialising mod %s version %s...", instance.getName(), instance.getVersion());
 		
 		this.onPreInitMod(instance);
-		
-		// initialise the mod
-		instance.init(LiteLoader.getCommonConfigFolder());
-
-		this.onPostInitMod(instance);
+	}
+	
+	/**
+	 * @param mod
+	 */
+	private void onModInitialised(Mod mod)
+	{
+		this.onPostInitMod(mod.getMod());
 		
 		this.loadedMods.add(mod);
 		this.loadedModsList += String.format("\n          - %s version %s", mod.getDisplayName(), mod.getVersion());
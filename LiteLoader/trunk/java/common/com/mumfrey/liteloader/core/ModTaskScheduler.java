@@ -0,0 +1,361 @@
+package com.mumfrey.liteloader.core;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.mumfrey.liteloader.interfaces.LoadableMod;
+import com.mumfrey.liteloader.util.log.LiteLoaderLogger;
+
+/**
+ * Runs a per-mod task (construction or initialisation) for a set of mods on a worker pool. A mod's task is
+ * only submitted once it has been released by the caller and the tasks of all the mods it depends on
+ * (according to the "dependsOn" metadata of its container) have completed, so workers never block waiting for
+ * each other. Only dependencies which were added to the schedule before the dependent mod are honoured, which
+ * matches the order the mods would be processed in on a single thread. Results are collected on the calling
+ * thread via {@link #await} which allows the caller to continue processing mods in their original order.
+ *
+ * @author Adam Mummery-Smith
+ */
+class ModTaskScheduler
+{
+	/**
+	 * Metadata key which mods use to declare that their constructor and init method are safe to call from a
+	 * thread other than the main thread. See {@link com.mumfrey.liteloader.LiteMod#init} for the APIs which
+	 * such mods may use.
+	 */
+	static final String METADATA_THREAD_SAFE = "threadSafe";
+
+	/**
+	 * Task to run for each mod
+	 */
+	interface ModTask
+	{
+		public abstract void run(Mod mod) throws Throwable;
+	}
+
+	/**
+	 * Node in the task graph
+	 */
+	final class Node implements Runnable
+	{
+		final Mod mod;
+
+		final List<Node> dependencies = new ArrayList<Node>();
+
+		final List<Node> dependents = new ArrayList<Node>();
+
+		final AtomicInteger pendingDependencies = new AtomicInteger();
+
+		final AtomicBoolean claimed = new AtomicBoolean();
+
+		final CountDownLatch done = new CountDownLatch(1);
+
+		volatile Throwable error;
+
+		Node(Mod mod)
+		{
+			this.mod = mod;
+		}
+
+		@Override
+		public void run()
+		{
+			try
+			{
+				ModTaskScheduler.this.task.run(this.mod);
+			}
+			catch (Throwable th)
+			{
+				this.error = th;
+			}
+			finally
+			{
+				this.done.countDown();
+				ModTaskScheduler.this.onCompleted(this);
+			}
+		}
+	}
+
+	/**
+	 * Name of this scheduler, used for naming the worker threads
+	 */
+	private final String name;
+
+	/**
+	 * Number of worker threads to use
+	 */
+	private final int threadCount;
+
+	/**
+	 * Nodes in the graph, in the order mods were added
+	 */
+	private final Map<Mod, Node> nodes = new LinkedHashMap<Mod, Node>();
+
+	private ModTask task;
+
+	private ExecutorService executor;
+
+	/**
+	 * @param name
+	 * @param threadCount
+	 */
+	ModTaskScheduler(String name, int threadCount)
+	{
+		this.name = name;
+		this.threadCount = Math.max(1, threadCount);
+	}
+
+	/**
+	 * Get whether the specified mod has declared itself as thread-safe in its metadata
+	 *
+	 * @param mod
+	 */
+	static boolean isThreadSafe(ModInfo<LoadableMod<?>> mod)
+	{
+		return "true".equalsIgnoreCase(mod.getContainer().getMetaValue(ModTaskScheduler.METADATA_THREAD_SAFE, "false"));
+	}
+
+	/**
+	 * Add a mod to the schedule
+	 *
+	 * @param mod
+	 */
+	void add(Mod mod)
+	{
+		if (this.executor != null)
+		{
+			throw new IllegalStateException("Attempted to add a mod to " + this.name + " after the schedule was started");
+		}
+
+		if (!this.nodes.containsKey(mod))
+		{
+			this.nodes.put(mod, new Node(mod));
+		}
+	}
+
+	/**
+	 * Get whether the specified mod is scheduled
+	 *
+	 * @param mod
+	 */
+	boolean contains(Mod mod)
+	{
+		return this.nodes.containsKey(mod);
+	}
+
+	/**
+	 * Remove mods which depend, directly or indirectly, on any of the specified identifiers. This is used to keep
+	 * mods which depend on mods that are not being scheduled on the calling thread so that their dependencies
+	 * are still processed first.
+	 *
+	 * @param identifiers identifiers of containers which are not being scheduled
+	 * @return mods which were removed from the schedule
+	 */
+	List<Mod> removeDependentsOf(Set<String> identifiers)
+	{
+		Set<String> excluded = new HashSet<String>(identifiers);
+		List<Mod> removed = new ArrayList<Mod>();
+		
+		boolean changed = true;
+		while (changed)
+		{
+			changed = false;
+			for (Iterator<Node> iter = this.nodes.values().iterator(); iter.hasNext();)
+			{
+				Node node = iter.next();
+				for (String dependency : node.mod.getContainer().getDependencies())
+				{
+					if (excluded.contains(dependency))
+					{
+						excluded.add(node.mod.getContainer().getIdentifier());
+						removed.add(node.mod);
+						iter.remove();
+						changed = true;
+						break;
+					}
+				}
+			}
+		}
+		
+		return removed;
+	}
+
+	/**
+	 * Get whether there is anything to schedule
+	 */
+	boolean isEmpty()
+	{
+		return this.nodes.isEmpty();
+	}
+
+	/**
+	 * Link the dependency graph and start the worker pool, tasks are not submitted until their mods are
+	 * released with {@link #release}
+	 *
+	 * @param task
+	 */
+	void prepare(ModTask task)
+	{
+		if (this.executor != null)
+		{
+			throw new IllegalStateException("Attempted to start " + this.name + " but the schedule was already started");
+		}
+
+		this.task = task;
+		this.executor = Executors.newFixedThreadPool(this.threadCount, new ThreadFactory()
+		{
+			private final AtomicInteger threadNumber = new AtomicInteger();
+
+			@Override
+			public Thread newThread(Runnable runnable)
+			{
+				Thread thread = new Thread(runnable, String.format("%s Worker #%d", ModTaskScheduler.this.name, this.threadNumber.incrementAndGet()));
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+
+		// Nodes are only linked to nodes added before them, so the graph cannot contain cycles
+		Map<String, Node> nodesByIdentifier = new HashMap<String, Node>();
+		for (Node node : this.nodes.values())
+		{
+			for (String dependency : node.mod.getContainer().getDependencies())
+			{
+				Node dependencyNode = nodesByIdentifier.get(dependency);
+				if (dependencyNode != null)
+				{
+					node.dependencies.add(dependencyNode);
+					dependencyNode.dependents.add(node);
+				}
+			}
+
+			// One extra count for the release by the caller
+			node.pendingDependencies.set(node.dependencies.size() + 1);
+			nodesByIdentifier.put(node.mod.getContainer().getIdentifier(), node);
+		}
+
+		LiteLoaderLogger.info("Starting %s for %d mod(s) using %d thread(s)", this.name, this.nodes.size(), this.threadCount);
+	}
+
+	/**
+	 * Allow the task for the specified mod to be submitted, it is submitted immediately if the tasks for all
+	 * of its dependencies have already completed
+	 *
+	 * @param mod
+	 */
+	void release(Mod mod)
+	{
+		Node node = this.getNode(mod);
+		if (node.pendingDependencies.decrementAndGet() == 0)
+		{
+			this.submit(node);
+		}
+	}
+
+	/**
+	 * Complete the specified mod with an error without running its task, mods which depend on it are
+	 * treated as if its task had failed
+	 *
+	 * @param mod
+	 * @param error
+	 */
+	void cancel(Mod mod, Throwable error)
+	{
+		Node node = this.getNode(mod);
+		if (node.claimed.compareAndSet(false, true))
+		{
+			node.error = error;
+			node.done.countDown();
+			this.onCompleted(node);
+		}
+	}
+
+	/**
+	 * Wait for the task for the specified mod to complete and return the error it raised, if any. The mod and
+	 * its dependencies must have been released. Dependencies are awaited first, a task which has not been
+	 * submitted by the time its dependencies have completed is run on the calling thread.
+	 *
+	 * @param mod
+	 * @return error raised by the task or null if the task completed normally
+	 */
+	Throwable await(Mod mod) throws InterruptedException
+	{
+		Node node = this.getNode(mod);
+		this.await(node, new HashSet<Node>());
+		return node.error;
+	}
+
+	private Node getNode(Mod mod)
+	{
+		Node node = this.nodes.get(mod);
+		if (node == null)
+		{
+			throw new IllegalArgumentException("Mod " + mod.getIdentifier() + " is not scheduled in " + this.name);
+		}
+
+		return node;
+	}
+
+	private void await(Node node, Set<Node> visited) throws InterruptedException
+	{
+		if (!visited.add(node) || node.done.getCount() == 0)
+		{
+			return;
+		}
+
+		for (Node dependency : node.dependencies)
+		{
+			this.await(dependency, visited);
+		}
+
+		if (node.claimed.compareAndSet(false, true))
+		{
+			LiteLoaderLogger.debug("%s could not schedule %s, running on %s", this.name, node.mod.getIdentifier(), Thread.currentThread().getName());
+			node.run();
+		}
+
+		node.done.await();
+	}
+
+	/**
+	 * Shut down the worker pool, all tasks should already have been awaited
+	 */
+	void shutdown()
+	{
+		if (this.executor != null)
+		{
+			this.executor.shutdown();
+		}
+	}
+
+	private void submit(Node node)
+	{
+		if (node.claimed.compareAndSet(false, true))
+		{
+			this.executor.execute(node);
+		}
+	}
+
+	void onCompleted(Node node)
+	{
+		for (Node dependent : node.dependents)
+		{
+			if (dependent.pendingDependencies.decrementAndGet() == 0)
+			{
+				this.submit(dependent);
+			}
+		}
+	}
+}
@@ -1,5 +1,6 @@
 package com.mumfrey.liteloader.core;
 
+import java.util.Arrays;
 import java.util.List;
 
 import net.minecraft.entity.player.EntityPlayerMP;
@@ -15,6 +16,7 @@ import net.minecraft.network.play.server.S02PacketChat;
 import net.minecraft.network.play.server.S3FPacketCustomPayload;
 import net.minecraft.util.IThreadListener;
 
+import com.mumfrey.liteloader.AsyncPacketHandler;
 import com.mumfrey.liteloader.PacketHandler;
 import com.mumfrey.liteloader.ServerChatFilter;
 import com.mumfrey.liteloader.api.InterfaceProvider;
@@ -35,6 +37,25 @@ public abstract class PacketEvents implements InterfaceProvider
 {
 	protected static PacketEvents instance;
 
+	/**
+	 * Packets which have their hook enabled, this array is read directly by the code injected into each packet's
+	 * processPacket method so that packets which have no handlers skip the event (and the EventInfo allocation)
+	 * entirely. Hooks are enabled for the packets LiteLoader handles itself and for any packet which has a
+	 * registered {@link PacketHandler}, once enabled a hook is never disabled.
+	 */
+	public static final boolean[] hookedPackets = new boolean[Packets.count()];
+	
+	static
+	{
+		PacketEvents.enablePacketHook(Packets.S02PacketLoginSuccess.getIndex());
+		PacketEvents.enablePacketHook(Packets.S02PacketChat.getIndex());
+		PacketEvents.enablePacketHook(Packets.C01PacketChatMessage.getIndex());
+		PacketEvents.enablePacketHook(Packets.S01PacketJoinGame.getIndex());
+		PacketEvents.enablePacketHook(Packets.S3FPacketCustomPayload.getIndex());
+		PacketEvents.enablePacketHook(Packets.C17PacketCustomPayload.getIndex());
+		PacketEvents.enablePacketHook(Packets.C15PacketClientSettings.getIndex());
+	}
+
 	class PacketHandlerList extends HandlerList<PacketHandler>
 	{
 		private static final long serialVersionUID = 1L;
@@ -48,6 +69,14 @@ public abstract class PacketEvents implements InterfaceProvider
 
 	private PacketHandlerList packetHandlers[] = new PacketHandlerList[Packets.count()];
 	
+	/**
+	 * Handlers invoked on the network thread, arrays are replaced rather than modified so that the network thread
+	 * can iterate them without locking
+	 */
+	private volatile AsyncPacketHandler asyncPacketHandlers[][] = new AsyncPacketHandler[Packets.count()][];
+	
+	private final PacketHandlerStats stats = new PacketHandlerStats();
+	
 	private FastIterable<ServerChatFilter> serverChatFilters = new HandlerList<ServerChatFilter>(ServerChatFilter.class, ReturnLogicOp.AND_BREAK_ON_FALSE);
 	
 	private final int loginSuccessPacketId   = Packets.S02PacketLoginSuccess.getIndex();
@@ -74,6 +103,7 @@ public abstract class PacketEvents implements InterfaceProvider
 	public void registerInterfaces(InterfaceRegistrationDelegate delegate)
 	{
 		delegate.registerInterface(PacketHandler.class);
+		delegate.registerInterface(AsyncPacketHandler.class);
 		delegate.registerInterface(ServerChatFilter.class);
 	}
 
@@ -111,10 +141,83 @@ public abstract class PacketEvents implements InterfaceProvider
 				}
 				
 				this.packetHandlers[packetId].add(handler);
+				PacketEvents.enablePacketHook(packetId);
 			}
 		}
 	}
 
+	/**
+	 * @param handler
+	 */
+	public synchronized void registerAsyncPacketHandler(AsyncPacketHandler handler)
+	{
+		List<Class<? extends Packet>> handledPackets = handler.getHandledPackets();
+		if (handledPackets != null)
+		{
+			AsyncPacketHandler[][] asyncPacketHandlers = this.asyncPacketHandlers.clone();
+			
+			for (Class<? extends Packet> packetClass : handledPackets)
+			{
+				String packetClassName = packetClass.getName();
+				int packetId = Packets.indexOf(packetClassName);
+				if (packetId == -1 || packetId >= asyncPacketHandlers.length)
+				{
+					LiteLoaderLogger.warning("AsyncPacketHandler %s attempted to register a handler for unupported packet class %s", handler.getName(), packetClassName);
+					continue;
+				}
+				
+				AsyncPacketHandler[] handlers = asyncPacketHandlers[packetId];
+				if (handlers == null)
+				{
+					asyncPacketHandlers[packetId] = new AsyncPacketHandler[] { handler };
+				}
+				else if (!Arrays.asList(handlers).contains(handler))
+				{
+					handlers = Arrays.copyOf(handlers, handlers.length + 1);
+					handlers[handlers.length - 1] = handler;
+					asyncPacketHandlers[packetId] = handlers;
+				}
+				
+				PacketEvents.enablePacketHook(packetId);
+			}
+			
+			this.asyncPacketHandlers = asyncPacketHandlers;
+		}
+	}
+	
+	/**
+	 * Get the packet handler time counters
+	 */
+	public PacketHandlerStats getStats()
+	{
+		return this.stats;
+	}
+
+	/**
+	 * Enable the hook for the specified packet, the hook is injected into every packet but the event is only raised
+	 * for packets whose hook is enabled
+	 * 
+	 * @param packetId
+	 */
+	public static void enablePacketHook(int packetId)
+	{
+		if (packetId > -1 && packetId < PacketEvents.hookedPackets.length && !PacketEvents.hookedPackets[packetId])
+		{
+			LiteLoaderLogger.debug("Enabling packet hook for %s", Packets.packets[packetId].getShortName());
+			PacketEvents.hookedPackets[packetId] = true;
+		}
+	}
+	
+	/**
+	 * Get whether the hook for the specified packet is enabled
+	 * 
+	 * @param packetId
+	 */
+	public static boolean isPacketHookEnabled(int packetId)
+	{
+		return packetId > -1 && packetId < PacketEvents.hookedPackets.length && PacketEvents.hookedPackets[packetId];
+	}
+
 	public static void handlePacket(PacketEventInfo<Packet> e, INetHandler netHandler)
 	{
 		PacketEvents.instance.handlePacket(e, netHandler, e.getPacketId());
@@ -126,6 +229,7 @@ public abstract class PacketEvents implements InterfaceProvider
 		IThreadListener threadListener = this.getPacketContextListener(packetInfo.getContext());
 		if (threadListener != null && !threadListener.isCallingFromMinecraftThread())
 		{
+			this.dispatchAsyncPacketHandlers(e, netHandler, packetId);
 			this.handleAsyncPacketEvent(e, netHandler, packetId);
 			return;
 		}
@@ -135,13 +239,50 @@ public abstract class PacketEvents implements InterfaceProvider
 			return;
 		}
 		
-		if (this.packetHandlers[packetId].all().handlePacket(netHandler, e.getSource()))
+		long startTime = System.nanoTime();
+		boolean result = this.packetHandlers[packetId].all().handlePacket(netHandler, e.getSource());
+		this.stats.record(packetId, false, System.nanoTime() - startTime);
+		
+		if (result)
 		{
 			return;
 		}
 		
 		e.cancel();
 	}
+	
+	/**
+	 * Invoke the handlers registered to run on the network thread
+	 * 
+	 * @param e
+	 * @param netHandler
+	 * @param packetId
+	 */
+	private void dispatchAsyncPacketHandlers(PacketEventInfo<Packet> e, INetHandler netHandler, int packetId)
+	{
+		AsyncPacketHandler[] handlers = this.asyncPacketHandlers[packetId];
+		if (handlers == null)
+		{
+			return;
+		}
+		
+		long startTime = System.nanoTime();
+		Packet packet = e.getSource();
+		
+		for (AsyncPacketHandler handler : handlers)
+		{
+			try
+			{
+				handler.handlePacketAsync(netHandler, packet);
+			}
+			catch (Exception ex)
+			{
+				LiteLoaderLogger.warning(ex, "AsyncPacketHandler %s threw an exception handling %s", handler.getName(), Packets.packets[packetId].getShortName());
+			}
+		}
+		
+		this.stats.record(packetId, true, System.nanoTime() - startTime);
+	}
 
 	/**
 	 * @param context
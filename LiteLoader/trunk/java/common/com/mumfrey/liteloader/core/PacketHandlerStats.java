@@ -0,0 +1,82 @@
+package com.mumfrey.liteloader.core;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import com.mumfrey.liteloader.core.runtime.Packets;
+import com.mumfrey.liteloader.util.log.LiteLoaderLogger;
+
+/**
+ * Counters of the time spent in packet handlers for each packet type, kept separately for handlers invoked on
+ * the main thread and handlers invoked on the network thread
+ *
+ * @author Adam Mummery-Smith
+ */
+public class PacketHandlerStats
+{
+	private final AtomicLongArray mainThreadCalls = new AtomicLongArray(Packets.count());
+	private final AtomicLongArray mainThreadNanos = new AtomicLongArray(Packets.count());
+	private final AtomicLongArray networkThreadCalls = new AtomicLongArray(Packets.count());
+	private final AtomicLongArray networkThreadNanos = new AtomicLongArray(Packets.count());
+
+	PacketHandlerStats()
+	{
+	}
+
+	/**
+	 * @param packetId
+	 * @param networkThread
+	 * @param nanos
+	 */
+	void record(int packetId, boolean networkThread, long nanos)
+	{
+		if (networkThread)
+		{
+			this.networkThreadCalls.incrementAndGet(packetId);
+			this.networkThreadNanos.addAndGet(packetId, nanos);
+		}
+		else
+		{
+			this.mainThreadCalls.incrementAndGet(packetId);
+			this.mainThreadNanos.addAndGet(packetId, nanos);
+		}
+	}
+
+	/**
+	 * Get the number of times handlers have been invoked for the specified packet
+	 *
+	 * @param packetId packet index, see {@link Packets#getIndex()}
+	 * @param networkThread true to get the count for the network thread, false for the main thread
+	 */
+	public long getCalls(int packetId, boolean networkThread)
+	{
+		return networkThread ? this.networkThreadCalls.get(packetId) : this.mainThreadCalls.get(packetId);
+	}
+
+	/**
+	 * Get the total time spent in handlers for the specified packet
+	 *
+	 * @param packetId packet index, see {@link Packets#getIndex()}
+	 * @param networkThread true to get the time for the network thread, false for the main thread
+	 */
+	public long getNanos(int packetId, boolean networkThread)
+	{
+		return networkThread ? this.networkThreadNanos.get(packetId) : this.mainThreadNanos.get(packetId);
+	}
+
+	/**
+	 * Write the counters for all packets which have been handled to the log
+	 */
+	public void logStats()
+	{
+		LiteLoaderLogger.info("Packet handler statistics:");
+		for (int packetId = 0; packetId < Packets.count(); packetId++)
+		{
+			long mainCalls = this.mainThreadCalls.get(packetId);
+			long networkCalls = this.networkThreadCalls.get(packetId);
+			if (mainCalls == 0 && networkCalls == 0) continue;
+
+			LiteLoaderLogger.info("  %s: main thread %d calls %.2fms, network thread %d calls %.2fms", Packets.packets[packetId].getShortName(),
+					mainCalls, this.mainThreadNanos.get(packetId) / 1000000.0, networkCalls, this.networkThreadNanos.get(packetId) / 1000000.0);
+		}
+	}
+}
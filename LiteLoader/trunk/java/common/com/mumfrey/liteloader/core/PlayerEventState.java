@@ -31,6 +31,8 @@ public class PlayerEventState implements IEventState
 	private MovingObjectPosition hit;
 	
 	private String locale = "en_US";
+	
+	private final PlayerMoveContext moveContext = new PlayerMoveContext();
 
 	public PlayerEventState(EntityPlayerMP player, LiteLoaderEventBroker<?, ?> broker)
 	{
@@ -61,6 +63,14 @@ public class PlayerEventState implements IEventState
 		return this.locale;
 	}
 
+	/**
+	 * Get the movement context for this player, the context is reused for every movement
+	 */
+	public PlayerMoveContext getMoveContext()
+	{
+		return this.moveContext;
+	}
+
 	public EntityPlayerMP getPlayer()
 	{
 		return this.playerRef.get();
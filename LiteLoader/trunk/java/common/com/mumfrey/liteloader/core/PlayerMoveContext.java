@@ -0,0 +1,190 @@
+package com.mumfrey.liteloader.core;
+
+import com.mumfrey.liteloader.util.Position;
+
+/**
+ * Mutable description of a player movement which is passed to {@link com.mumfrey.liteloader.PlayerMoveContextListener}s.
+ * One context is kept for each player and is reused for every movement packet the player sends, so listeners must
+ * not retain a reference to the context beyond the scope of the callback.
+ *
+ * @author Adam Mummery-Smith
+ */
+public class PlayerMoveContext
+{
+	private double fromX, fromY, fromZ;
+	private float fromYaw, fromPitch;
+
+	private double toX, toY, toZ;
+	private float toYaw, toPitch;
+
+	private boolean overridden;
+	private double newX, newY, newZ;
+	private float newYaw, newPitch;
+
+	/**
+	 * Positions created on demand for callers which need them, discarded when the context is reset
+	 */
+	private Position from, to;
+
+	PlayerMoveContext()
+	{
+	}
+
+	/**
+	 * Reset the context for a new movement
+	 */
+	void reset(double fromX, double fromY, double fromZ, float fromYaw, float fromPitch, double toX, double toY, double toZ, float toYaw, float toPitch)
+	{
+		this.fromX = fromX;
+		this.fromY = fromY;
+		this.fromZ = fromZ;
+		this.fromYaw = fromYaw;
+		this.fromPitch = fromPitch;
+
+		this.toX = toX;
+		this.toY = toY;
+		this.toZ = toZ;
+		this.toYaw = toYaw;
+		this.toPitch = toPitch;
+
+		this.overridden = false;
+		this.from = null;
+		this.to = null;
+	}
+
+	public double getFromX()
+	{
+		return this.fromX;
+	}
+
+	public double getFromY()
+	{
+		return this.fromY;
+	}
+
+	public double getFromZ()
+	{
+		return this.fromZ;
+	}
+
+	public float getFromYaw()
+	{
+		return this.fromYaw;
+	}
+
+	public float getFromPitch()
+	{
+		return this.fromPitch;
+	}
+
+	public double getToX()
+	{
+		return this.toX;
+	}
+
+	public double getToY()
+	{
+		return this.toY;
+	}
+
+	public double getToZ()
+	{
+		return this.toZ;
+	}
+
+	public float getToYaw()
+	{
+		return this.toYaw;
+	}
+
+	public float getToPitch()
+	{
+		return this.toPitch;
+	}
+
+	/**
+	 * Get the player's previous recorded position, the position is created on first access
+	 */
+	public Position getFrom()
+	{
+		if (this.from == null)
+		{
+			this.from = new Position(this.fromX, this.fromY, this.fromZ, this.fromYaw, this.fromPitch);
+		}
+
+		return this.from;
+	}
+
+	/**
+	 * Get the position the player is attempting to move to, the position is created on first access
+	 */
+	public Position getTo()
+	{
+		if (this.to == null)
+		{
+			this.to = new Position(this.toX, this.toY, this.toZ, this.toYaw, this.toPitch);
+		}
+
+		return this.to;
+	}
+
+	/**
+	 * Teleport the player to the specified position instead of processing the original move
+	 */
+	public void setNewPosition(double x, double y, double z, float yaw, float pitch)
+	{
+		this.overridden = true;
+		this.newX = x;
+		this.newY = y;
+		this.newZ = z;
+		this.newYaw = yaw;
+		this.newPitch = pitch;
+	}
+
+	/**
+	 * Teleport the player to the specified position instead of processing the original move
+	 */
+	public void setNewPosition(Position position)
+	{
+		this.setNewPosition(position.xCoord, position.yCoord, position.zCoord, position.yaw, position.pitch);
+	}
+
+	/**
+	 * Get whether a listener has set a new position for the player
+	 */
+	public boolean isOverridden()
+	{
+		return this.overridden;
+	}
+
+	public double getNewX()
+	{
+		return this.newX;
+	}
+
+	public double getNewY()
+	{
+		return this.newY;
+	}
+
+	public double getNewZ()
+	{
+		return this.newZ;
+	}
+
+	public float getNewYaw()
+	{
+		return this.newYaw;
+	}
+
+	public float getNewPitch()
+	{
+		return this.newPitch;
+	}
+
+	@Override
+	public String toString()
+	{
+		return "(" + this.fromX + ", " + this.fromY + ", " + this.fromZ + ") -> (" + this.toX + ", " + this.toY + ", " + this.toZ + ")";
+	}
+}
@@ -0,0 +1,47 @@
+package com.mumfrey.liteloader.core;
+
+import net.minecraft.entity.player.EntityPlayerMP;
+
+import com.mumfrey.liteloader.PlayerMoveListener;
+import com.mumfrey.liteloader.core.LiteLoaderEventBroker.ReturnValue;
+import com.mumfrey.liteloader.interfaces.FastIterable;
+import com.mumfrey.liteloader.util.Position;
+
+/**
+ * Dispatches movement contexts to the legacy {@link PlayerMoveListener}s, positions are only created for the
+ * movement when at least one legacy listener is registered
+ *
+ * @author Adam Mummery-Smith
+ */
+class PlayerMoveListenerAdapter
+{
+	private final FastIterable<PlayerMoveListener> listeners;
+
+	PlayerMoveListenerAdapter(FastIterable<PlayerMoveListener> listeners)
+	{
+		this.listeners = listeners;
+	}
+
+	/**
+	 * @param playerMP
+	 * @param move
+	 * @return false if a listener cancelled the movement
+	 */
+	boolean onPlayerMove(EntityPlayerMP playerMP, PlayerMoveContext move)
+	{
+		Position to = move.getTo();
+		ReturnValue<Position> newPos = new ReturnValue<Position>(to);
+
+		if (!this.listeners.all().onPlayerMove(playerMP, move.getFrom(), to, newPos))
+		{
+			return false;
+		}
+
+		if (newPos.isSet())
+		{
+			move.setNewPosition(newPos.get());
+		}
+
+		return true;
+	}
+}
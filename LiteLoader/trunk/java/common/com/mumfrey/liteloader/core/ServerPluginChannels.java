@@ -1,5 +1,7 @@
 package com.mumfrey.liteloader.core;
 
+import java.util.LinkedList;
+
 import net.minecraft.entity.player.EntityPlayerMP;
 import net.minecraft.network.INetHandler;
 import net.minecraft.network.NetHandlerPlayServer;
@@ -81,6 +83,21 @@ public class ServerPluginChannels extends PluginChannels<ServerPluginChannelList
 		{
 			this.addPluginChannelsFor(pluginChannelListener);
 		}
+		
+		PermissionsManagerServer permissionsManager = LiteLoader.getServerPermissionsManager();
+		if (permissionsManager != null)
+		{
+			permissionsManager.onServerStartup();
+			
+			// The permissions manager is notified for every registered channel, so just reserve its channels
+			for (String channel : permissionsManager.getChannels())
+			{
+				if (!this.pluginChannels.containsKey(channel))
+				{
+					this.pluginChannels.put(channel, new LinkedList<ServerPluginChannelListener>());
+				}
+			}
+		}
 	}
 
 	void onPlayerJoined(EntityPlayerMP player)
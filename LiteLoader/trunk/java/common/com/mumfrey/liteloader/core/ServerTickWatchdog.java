@@ -0,0 +1,403 @@
+package com.mumfrey.liteloader.core;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import net.minecraft.server.MinecraftServer;
+
+import com.mumfrey.liteloader.ServerTickable;
+import com.mumfrey.liteloader.core.event.HandlerList;
+import com.mumfrey.liteloader.interfaces.FastIterable;
+import com.mumfrey.liteloader.util.log.LiteLoaderLogger;
+
+/**
+ * Runs the server tick listeners one at a time so that the time spent in each mod can be measured, concurrent
+ * listeners are measured together as a single phase. A watchdog thread samples the server thread's stack when
+ * the LiteLoader part of a server tick runs over the configured threshold and logs it along with the listener
+ * which was executing at the time. Listeners which repeatedly exceed the threshold can optionally be deferred,
+ * in which case they are only ticked every N ticks.
+ *
+ * @author Adam Mummery-Smith
+ */
+public class ServerTickWatchdog implements Runnable
+{
+	/**
+	 * Number of ticks in the rolling statistics window
+	 */
+	public static final int WINDOW_SIZE = 100;
+
+	/**
+	 * Number of overruns within the window after which a listener is deferred
+	 */
+	private static final int DEFER_THRESHOLD = 5;
+
+	/**
+	 * Number of stack frames to log when the tick overruns
+	 */
+	private static final int MAX_LOGGED_FRAMES = 24;
+
+	/**
+	 * Name used for the player event state tick
+	 */
+	private static final String PLAYER_STATES = "(player event states)";
+
+	/**
+	 * Name used for the phase in which {@link com.mumfrey.liteloader.ConcurrentSafe} listeners are ticked
+	 */
+	private static final String CONCURRENT_LISTENERS = "(concurrent listeners)";
+
+	/**
+	 * Rolling tick time statistics for a single listener
+	 */
+	public static final class TickStats
+	{
+		private final String name;
+
+		private final long[] window = new long[ServerTickWatchdog.WINDOW_SIZE];
+
+		private int windowPos;
+
+		private long ticks;
+
+		private long totalNanos;
+
+		private long maxNanos;
+
+		private long overruns;
+
+		private boolean deferred;
+
+		TickStats(String name)
+		{
+			this.name = name;
+		}
+
+		synchronized void record(long nanos, boolean overrun)
+		{
+			this.window[this.windowPos] = nanos;
+			this.windowPos = (this.windowPos + 1) % this.window.length;
+			this.ticks++;
+			this.totalNanos += nanos;
+			if (nanos > this.maxNanos) this.maxNanos = nanos;
+			if (overrun) this.overruns++;
+		}
+
+		synchronized int getOverrunsInWindow(long thresholdNanos)
+		{
+			int overruns = 0;
+			for (long nanos : this.window)
+			{
+				if (nanos > thresholdNanos) overruns++;
+			}
+
+			return overruns;
+		}
+
+		public String getName()
+		{
+			return this.name;
+		}
+
+		public synchronized long getTicks()
+		{
+			return this.ticks;
+		}
+
+		public synchronized long getTotalNanos()
+		{
+			return this.totalNanos;
+		}
+
+		public synchronized long getMaxNanos()
+		{
+			return this.maxNanos;
+		}
+
+		/**
+		 * Get the number of ticks in which the listener took longer than the threshold
+		 */
+		public synchronized long getOverruns()
+		{
+			return this.overruns;
+		}
+
+		/**
+		 * Get the mean tick time over the last {@link ServerTickWatchdog#WINDOW_SIZE} ticks
+		 */
+		public synchronized long getRecentMeanNanos()
+		{
+			int samples = (int)Math.min(this.ticks, this.window.length);
+			if (samples == 0) return 0;
+
+			long total = 0;
+			for (int sample = 0; sample < samples; sample++)
+			{
+				total += this.window[sample];
+			}
+
+			return total / samples;
+		}
+
+		/**
+		 * Get whether the listener has been moved to the deferred list
+		 */
+		public boolean isDeferred()
+		{
+			return this.deferred;
+		}
+
+		@Override
+		public synchronized String toString()
+		{
+			return String.format("%s: ticks=%d mean=%.2fms recent=%.2fms max=%.2fms overruns=%d%s", this.name, this.ticks,
+					this.ticks > 0 ? this.totalNanos / (this.ticks * 1000000.0) : 0.0, this.getRecentMeanNanos() / 1000000.0,
+					this.maxNanos / 1000000.0, this.overruns, this.deferred ? " (deferred)" : "");
+		}
+	}
+
+	private final FastIterable<IEventState> playerStates;
+
+	private final HandlerList<ServerTickable> tickables;
+
+	/**
+	 * Tick time above which the stack is sampled and a listener counts as having overrun
+	 */
+	private final long thresholdNanos;
+
+	/**
+	 * Interval in ticks at which deferred listeners are ticked, zero to disable deferral
+	 */
+	private final int deferInterval;
+
+	private final Map<Object, TickStats> stats = Collections.synchronizedMap(new IdentityHashMap<Object, TickStats>());
+
+	private final Set<ServerTickable> deferred = Collections.newSetFromMap(new IdentityHashMap<ServerTickable, Boolean>());
+
+	private final TickStats playerStateStats = new TickStats(ServerTickWatchdog.PLAYER_STATES);
+
+	private final TickStats concurrentStats = new TickStats(ServerTickWatchdog.CONCURRENT_LISTENERS);
+
+	/**
+	 * Sorted tickables, refreshed when the handler list is rebaked
+	 */
+	private List<ServerTickable> sortedTickables = Collections.emptyList();
+
+	private Object bakedTickables;
+
+	private volatile Thread serverThread;
+
+	private volatile long tickNumber;
+
+	private volatile long tickStartTime;
+
+	private volatile boolean inTick;
+
+	/**
+	 * Name of the listener which is currently executing
+	 */
+	private volatile String current;
+
+	private long sampledTick = -1;
+
+	private Thread watchdogThread;
+
+	/**
+	 * @param playerStates
+	 * @param tickables
+	 * @param thresholdMillis
+	 * @param deferInterval
+	 */
+	ServerTickWatchdog(FastIterable<IEventState> playerStates, HandlerList<ServerTickable> tickables, int thresholdMillis, int deferInterval)
+	{
+		this.playerStates = playerStates;
+		this.tickables = tickables;
+		this.thresholdNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1, thresholdMillis));
+		this.deferInterval = Math.max(0, deferInterval);
+		this.stats.put(this.playerStateStats, this.playerStateStats);
+	}
+
+	/**
+	 * Get the tick statistics for each listener
+	 */
+	public List<TickStats> getStats()
+	{
+		synchronized (this.stats)
+		{
+			return new ArrayList<TickStats>(this.stats.values());
+		}
+	}
+
+	/**
+	 * Write the tick statistics for each listener to the log
+	 */
+	public void logStats()
+	{
+		LiteLoaderLogger.info("Server tick listener statistics:");
+		for (TickStats tickStats : this.getStats())
+		{
+			LiteLoaderLogger.info("  %s", tickStats);
+		}
+	}
+
+	/**
+	 * Run the tick listeners, called on the server thread in place of the baked handler lists
+	 *
+	 * @param server
+	 * @param concurrentTicker ticker for concurrent listeners, ticked as a whole after the other listeners, or
+	 *      null if concurrent ticking is disabled
+	 */
+	void onServerTick(MinecraftServer server, ConcurrentServerTicker concurrentTicker)
+	{
+		// The integrated server runs on a new thread for each world
+		this.serverThread = Thread.currentThread();
+		if (this.watchdogThread == null)
+		{
+			this.start();
+		}
+
+		long tickNumber = this.tickNumber + 1;
+		this.tickStartTime = System.nanoTime();
+		this.tickNumber = tickNumber;
+		this.inTick = true;
+
+		try
+		{
+			this.current = ServerTickWatchdog.PLAYER_STATES;
+			long startTime = System.nanoTime();
+			this.playerStates.all().onTick(server);
+			long elapsed = System.nanoTime() - startTime;
+			this.playerStateStats.record(elapsed, elapsed > this.thresholdNanos);
+
+			for (ServerTickable tickable : this.getSortedTickables())
+			{
+				if (this.deferInterval > 0 && tickNumber % this.deferInterval != 0 && this.deferred.contains(tickable))
+				{
+					continue;
+				}
+
+				TickStats tickStats = this.getStats(tickable);
+				this.current = tickStats.name;
+
+				startTime = System.nanoTime();
+				tickable.onTick(server);
+				elapsed = System.nanoTime() - startTime;
+
+				boolean overrun = elapsed > this.thresholdNanos;
+				tickStats.record(elapsed, overrun);
+
+				if (overrun && this.deferInterval > 0 && !tickStats.deferred && tickStats.getOverrunsInWindow(this.thresholdNanos) >= ServerTickWatchdog.DEFER_THRESHOLD)
+				{
+					LiteLoaderLogger.warning("%s exceeded the server tick budget of %dms %d times in the last %d ticks, it will now be ticked every %d ticks",
+							tickStats.name, TimeUnit.NANOSECONDS.toMillis(this.thresholdNanos), ServerTickWatchdog.DEFER_THRESHOLD, ServerTickWatchdog.WINDOW_SIZE, this.deferInterval);
+					tickStats.deferred = true;
+					this.deferred.add(tickable);
+				}
+			}
+
+			if (concurrentTicker != null)
+			{
+				this.current = ServerTickWatchdog.CONCURRENT_LISTENERS;
+				startTime = System.nanoTime();
+				concurrentTicker.tick(server);
+				elapsed = System.nanoTime() - startTime;
+				this.concurrentStats.record(elapsed, elapsed > this.thresholdNanos);
+				this.stats.put(this.concurrentStats, this.concurrentStats);
+			}
+		}
+		finally
+		{
+			this.inTick = false;
+			this.current = null;
+		}
+	}
+
+	private List<ServerTickable> getSortedTickables()
+	{
+		// The baked handler is replaced whenever the list changes
+		Object baked = this.tickables.all();
+		if (baked != this.bakedTickables)
+		{
+			this.bakedTickables = baked;
+			this.sortedTickables = new ArrayList<ServerTickable>(this.tickables.getSortedList());
+		}
+
+		return this.sortedTickables;
+	}
+
+	private TickStats getStats(ServerTickable tickable)
+	{
+		TickStats tickStats = this.stats.get(tickable);
+		if (tickStats == null)
+		{
+			String name = tickable.getName();
+			tickStats = new TickStats(name != null ? name : tickable.getClass().getSimpleName());
+			this.stats.put(tickable, tickStats);
+		}
+
+		return tickStats;
+	}
+
+	private synchronized void start()
+	{
+		if (this.watchdogThread == null)
+		{
+			this.watchdogThread = new Thread(this, "Server Tick Watchdog");
+			this.watchdogThread.setDaemon(true);
+			this.watchdogThread.start();
+		}
+	}
+
+	/* (non-Javadoc)
+	 * @see java.lang.Runnable#run()
+	 */
+	@Override
+	public void run()
+	{
+		long pollMillis = Math.max(5L, TimeUnit.NANOSECONDS.toMillis(this.thresholdNanos) / 2);
+
+		while (true)
+		{
+			try
+			{
+				Thread.sleep(pollMillis);
+			}
+			catch (InterruptedException ex)
+			{
+				break;
+			}
+
+			long tickNumber = this.tickNumber;
+			if (this.inTick && tickNumber != this.sampledTick && System.nanoTime() - this.tickStartTime > this.thresholdNanos)
+			{
+				this.sampledTick = tickNumber;
+				this.sample();
+			}
+		}
+	}
+
+	private void sample()
+	{
+		String current = this.current;
+		Thread serverThread = this.serverThread;
+		if (current == null || serverThread == null) return;
+
+		StackTraceElement[] stackTrace = serverThread.getStackTrace();
+		LiteLoaderLogger.warning("Server tick has exceeded %dms, currently executing %s", TimeUnit.NANOSECONDS.toMillis(this.thresholdNanos), current);
+
+		int frames = Math.min(stackTrace.length, ServerTickWatchdog.MAX_LOGGED_FRAMES);
+		for (int frame = 0; frame < frames; frame++)
+		{
+			LiteLoaderLogger.warning("    at %s", stackTrace[frame]);
+		}
+
+		if (stackTrace.length > frames)
+		{
+			LiteLoaderLogger.warning("    ... %d more", stackTrace.length - frames);
+		}
+	}
+}
@@ -1,9 +1,7 @@
 package com.mumfrey.liteloader.core.api;
 
 import java.util.ArrayList;
-import java.util.HashSet;
 import java.util.List;
-import java.util.Set;
 
 import com.mumfrey.liteloader.api.ContainerRegistry;
 import com.mumfrey.liteloader.api.EnumeratorPlugin;
@@ -19,6 +17,11 @@ import com.mumfrey.liteloader.util.log.LiteLoaderLogger.Verbosity;
 public class DefaultEnumeratorPlugin implements EnumeratorPlugin
 {
 	private LoaderEnvironment environment;
+	
+	/**
+	 * Dependency graph, built when first requested and discarded whenever the enabled containers change
+	 */
+	private DependencyGraph dependencyGraph;
 
 	@Override
 	public void init(LoaderEnvironment environment, LoaderProperties properties)
@@ -55,53 +58,33 @@ public class DefaultEnumeratorPlugin implements EnumeratorPlugin
 	{
 		if (base == null || !base.hasDependencies()) return true;
 		
-		HashSet<String> circularDependencySet = new HashSet<String>();
-		circularDependencySet.add(base.getIdentifier());
-		
-		boolean result = this.checkDependencies(containers, base, base, circularDependencySet);
-		LiteLoaderLogger.info(Verbosity.REDUCED, "Dependency check for %s %s", base.getIdentifier(), result ? "passed" : "failed");
-		
-		return result;
+		return this.getDependencyGraph(containers).isSatisfied(base);
 	}
-
-	private boolean checkDependencies(ContainerRegistry containers, LoadableMod<?> base, LoadableMod<?> container, Set<String> circularDependencySet)
+	
+	/**
+	 * Get the dependency graph for the supplied container registry, the graph is built and resolved the first
+	 * time it is requested (at the end of container discovery) and results are memoised until the graph is
+	 * invalidated
+	 * 
+	 * @param containers
+	 */
+	public DependencyGraph getDependencyGraph(ContainerRegistry containers)
 	{
-		if (container.getDependencies().size() == 0)
-			return true;
-		
-		boolean result = true;
-		
-		for (String dependency : container.getDependencies())
+		if (this.dependencyGraph == null)
 		{
-			if (!circularDependencySet.contains(dependency))
-			{
-				circularDependencySet.add(dependency);
-				
-				LoadableMod<?> dependencyContainer = containers.getEnabledContainer(dependency);
-				if (dependencyContainer != LoadableMod.NONE)
-				{
-					String identifier = dependency;
-					if (this.environment.getEnabledModsList().isEnabled(this.environment.getProfile(), identifier))
-					{
-						result &= this.checkDependencies(containers, base, dependencyContainer, circularDependencySet);
-					}
-					else
-					{
-//						LiteLoaderLogger.warning("Dependency %s required by %s is currently disabled", dependency, base.getIdentifier());
-						base.registerMissingDependency(dependency);
-						result = false;
-					}
-				}
-				else
-				{
-//					LiteLoaderLogger.info("Dependency %s for %s is was not located, no container ", dependency, base.getIdentifier());
-					base.registerMissingDependency(dependency);
-					result = false;
-				}
-			}
+			this.dependencyGraph = new DependencyGraph(containers, this.environment);
 		}
 		
-		return result;
+		return this.dependencyGraph;
+	}
+	
+	/**
+	 * Discard the memoised dependency graph, called when a container is enabled or disabled so that the next
+	 * dependency check sees the current set of enabled containers
+	 */
+	public void invalidateDependencyGraph()
+	{
+		this.dependencyGraph = null;
 	}
 
 	/**
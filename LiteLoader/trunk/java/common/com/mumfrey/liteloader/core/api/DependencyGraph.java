@@ -0,0 +1,289 @@
+package com.mumfrey.liteloader.core.api;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.mumfrey.liteloader.api.ContainerRegistry;
+import com.mumfrey.liteloader.interfaces.LoadableMod;
+import com.mumfrey.liteloader.launch.LoaderEnvironment;
+import com.mumfrey.liteloader.util.log.LiteLoaderLogger;
+import com.mumfrey.liteloader.util.log.LiteLoaderLogger.Verbosity;
+
+/**
+ * Dependency graph of all enabled mod containers. The graph is built once and resolved using Tarjan's strongly
+ * connected components algorithm, so each container and each dependency edge is visited exactly once no matter
+ * how many containers share a dependency. Resolution produces three things:
+ *
+ * <ul>
+ *   <li>whether each container's dependencies (including transitive dependencies) are satisfied</li>
+ *   <li>a load order in which every container appears after the containers it depends upon</li>
+ *   <li>the set of dependency cycles, each of which names the containers involved</li>
+ * </ul>
+ *
+ * <p>Dependency cycles are reported but are not treated as failures, containers in a cycle are satisfied if
+ * every container in the cycle is satisfied.</p>
+ *
+ * @author Adam Mummery-Smith
+ */
+public class DependencyGraph
+{
+	/**
+	 * Graph node for a single container
+	 */
+	static final class Node
+	{
+		final LoadableMod<?> container;
+
+		final List<Node> dependencies = new ArrayList<Node>();
+
+		final Set<String> missingDependencies = new HashSet<String>();
+
+		int index = -1, lowLink;
+
+		boolean onStack, resolved, satisfied;
+
+		Node(LoadableMod<?> container)
+		{
+			this.container = container;
+		}
+	}
+
+	private final ContainerRegistry containers;
+
+	private final LoaderEnvironment environment;
+
+	/**
+	 * Nodes, keyed by container identity
+	 */
+	private final Map<LoadableMod<?>, Node> nodes = new IdentityHashMap<LoadableMod<?>, Node>();
+
+	/**
+	 * Containers in dependency order, populated as components are resolved
+	 */
+	private final List<LoadableMod<?>> loadOrder = new ArrayList<LoadableMod<?>>();
+
+	/**
+	 * Detected dependency cycles, each cycle is a list of container identifiers
+	 */
+	private final List<List<String>> cycles = new ArrayList<List<String>>();
+
+	private final Deque<Node> stack = new LinkedList<Node>();
+
+	private int index = 0;
+
+	/**
+	 * @param containers
+	 * @param environment
+	 */
+	public DependencyGraph(ContainerRegistry containers, LoaderEnvironment environment)
+	{
+		this.containers = containers;
+		this.environment = environment;
+
+		for (LoadableMod<?> container : containers.getEnabledContainers())
+		{
+			this.getNode(container);
+		}
+
+		for (Node node : new ArrayList<Node>(this.nodes.values()))
+		{
+			this.resolve(node);
+		}
+	}
+
+	/**
+	 * Get whether all dependencies of the specified container (including transitive dependencies) are
+	 * satisfied. Containers which were not enabled when the graph was built are resolved on demand.
+	 *
+	 * @param container
+	 */
+	public boolean isSatisfied(LoadableMod<?> container)
+	{
+		if (container == null || !container.hasDependencies()) return true;
+
+		Node node = this.getNode(container);
+		this.resolve(node);
+		return node.satisfied;
+	}
+
+	/**
+	 * Get all containers which were resolved, in an order such that every container follows all of the
+	 * containers it depends upon
+	 */
+	public List<LoadableMod<?>> getLoadOrder()
+	{
+		return Collections.unmodifiableList(this.loadOrder);
+	}
+
+	/**
+	 * Sort the supplied containers into dependency order. The sort is stable: containers which do not depend on
+	 * each other remain in the order they were supplied.
+	 *
+	 * @param containers
+	 */
+	public List<LoadableMod<?>> sort(Collection<? extends LoadableMod<?>> containers)
+	{
+		Set<LoadableMod<?>> wanted = Collections.newSetFromMap(new IdentityHashMap<LoadableMod<?>, Boolean>());
+		wanted.addAll(containers);
+
+		Set<Node> visited = new HashSet<Node>();
+		List<LoadableMod<?>> sorted = new ArrayList<LoadableMod<?>>(containers.size());
+
+		for (LoadableMod<?> container : containers)
+		{
+			this.sort(this.getNode(container), wanted, visited, sorted);
+		}
+
+		return sorted;
+	}
+
+	private void sort(Node node, Set<LoadableMod<?>> wanted, Set<Node> visited, List<LoadableMod<?>> sorted)
+	{
+		if (!visited.add(node)) return;
+
+		for (Node dependency : node.dependencies)
+		{
+			this.sort(dependency, wanted, visited, sorted);
+		}
+
+		if (wanted.contains(node.container))
+		{
+			sorted.add(node.container);
+		}
+	}
+
+	/**
+	 * Get all dependency cycles which were detected, each cycle is a list of the identifiers of the containers
+	 * involved
+	 */
+	public List<List<String>> getCycles()
+	{
+		return Collections.unmodifiableList(this.cycles);
+	}
+
+	private Node getNode(LoadableMod<?> container)
+	{
+		Node node = this.nodes.get(container);
+		if (node == null)
+		{
+			node = new Node(container);
+			this.nodes.put(container, node);
+
+			for (String dependency : container.getDependencies())
+			{
+				LoadableMod<?> dependencyContainer = this.containers.getEnabledContainer(dependency);
+				if (dependencyContainer == LoadableMod.NONE || !this.environment.getEnabledModsList().isEnabled(this.environment.getProfile(), dependency))
+				{
+					node.missingDependencies.add(dependency);
+				}
+				else if (dependencyContainer != container)
+				{
+					node.dependencies.add(this.getNode(dependencyContainer));
+				}
+			}
+		}
+
+		return node;
+	}
+
+	private void resolve(Node node)
+	{
+		if (node.index < 0)
+		{
+			this.strongConnect(node);
+		}
+	}
+
+	/**
+	 * Tarjan's SCC algorithm, components are emitted in reverse topological order, ie. dependencies first
+	 */
+	private void strongConnect(Node node)
+	{
+		node.index = node.lowLink = this.index++;
+		this.stack.push(node);
+		node.onStack = true;
+
+		for (Node dependency : node.dependencies)
+		{
+			if (dependency.index < 0)
+			{
+				this.strongConnect(dependency);
+				node.lowLink = Math.min(node.lowLink, dependency.lowLink);
+			}
+			else if (dependency.onStack)
+			{
+				node.lowLink = Math.min(node.lowLink, dependency.index);
+			}
+		}
+
+		if (node.lowLink == node.index)
+		{
+			List<Node> component = new ArrayList<Node>();
+			Node member;
+			do
+			{
+				member = this.stack.pop();
+				member.onStack = false;
+				component.add(member);
+			} while (member != node);
+
+			this.onComponentResolved(component);
+		}
+	}
+
+	private void onComponentResolved(List<Node> component)
+	{
+		Set<String> missing = new HashSet<String>();
+
+		for (Node member : component)
+		{
+			missing.addAll(member.missingDependencies);
+			for (Node dependency : member.dependencies)
+			{
+				// Dependencies outside this component were resolved before it
+				if (dependency.resolved && !dependency.satisfied)
+				{
+					missing.addAll(dependency.container.getMissingDependencies());
+				}
+			}
+		}
+
+		if (component.size() > 1)
+		{
+			List<String> cycle = new ArrayList<String>();
+			for (int i = component.size() - 1; i >= 0; i--)
+			{
+				cycle.add(component.get(i).container.getIdentifier());
+			}
+
+			this.cycles.add(cycle);
+			LiteLoaderLogger.warning("Circular dependency detected between mods %s", cycle);
+		}
+
+		for (int i = component.size() - 1; i >= 0; i--)
+		{
+			Node member = component.get(i);
+			for (String dependency : missing)
+			{
+				member.container.registerMissingDependency(dependency);
+			}
+
+			member.resolved = true;
+			member.satisfied = missing.isEmpty();
+			this.loadOrder.add(member.container);
+
+			if (member.container.hasDependencies())
+			{
+				LiteLoaderLogger.info(Verbosity.REDUCED, "Dependency check for %s %s", member.container.getIdentifier(), member.satisfied ? "passed" : "failed");
+			}
+		}
+	}
+}
@@ -136,6 +136,11 @@ public class HandlerList<T> extends LinkedList<T> implements FastIterableDeque<T
 	 */
 	private boolean sorted = true;
 	
+	/**
+	 * Per-listener timings, null unless timings are enabled for this list 
+	 */
+	private HandlerListTimings timings;
+	
 	/**
 	 * @param type
 	 */
@@ -187,8 +192,11 @@ public class HandlerList<T> extends LinkedList<T> implements FastIterableDeque<T
 		this.invalidate();
 	}
 
+	/**
+	 * Get the list entries in the order they will be invoked, returns this list if the list is not sorted
+	 */
 	@SuppressWarnings("unchecked")
-	protected List<T> getSortedList()
+	public List<T> getSortedList()
 	{
 		if (!this.sorted) return this;
 		
@@ -210,6 +218,42 @@ public class HandlerList<T> extends LinkedList<T> implements FastIterableDeque<T
 		return sortedList;
 	}
 
+	/**
+	 * Get whether invokations of this list's listeners are being timed
+	 */
+	public boolean isTimingEnabled()
+	{
+		return this.timings != null;
+	}
+	
+	/**
+	 * Enable or disable recording of per-listener timings for this list, takes effect when the list is next
+	 * baked. Stats already recorded are kept if timings are disabled and enabled again.
+	 * 
+	 * @param enabled
+	 */
+	public void setTimingEnabled(boolean enabled)
+	{
+		if (enabled && this.timings == null)
+		{
+			this.timings = new HandlerListTimings(this.type.getSimpleName());
+			this.invalidate();
+		}
+		else if (!enabled && this.timings != null)
+		{
+			this.timings = null;
+			this.invalidate();
+		}
+	}
+	
+	/**
+	 * Get the per-listener timings for this list, returns null if timings are not enabled
+	 */
+	public HandlerListTimings getTimings()
+	{
+		return this.timings;
+	}
+
 	private int getPriority(T value)
 	{
 		Priority priority = value.getClass().getAnnotation(Priority.class);
@@ -240,6 +284,11 @@ public class HandlerList<T> extends LinkedList<T> implements FastIterableDeque<T
 	 */
 	protected void bake()
 	{
+		if (this.timings == null && HandlerListTimings.isEnabledByDefault())
+		{
+			this.timings = new HandlerListTimings(this.type.getSimpleName());
+		}
+		
 		HandlerListClassLoader<T> classLoader = new HandlerListClassLoader<T>(this.type, this.logicOp, this.getDecorator());
 		this.bakedHandler = classLoader.newHandler(this);
 		if (classLoader instanceof Closeable)
@@ -254,7 +303,7 @@ public class HandlerList<T> extends LinkedList<T> implements FastIterableDeque<T
 
 	protected IHandlerListDecorator<T> getDecorator()
 	{
-		return null;
+		return this.timings != null ? new TimingHandlerListDecorator<T>(this.timings) : null;
 	}
 
 	/**
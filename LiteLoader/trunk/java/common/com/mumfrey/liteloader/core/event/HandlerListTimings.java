@@ -0,0 +1,418 @@
+package com.mumfrey.liteloader.core.event;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.Timer;
+import java.util.TimerTask;
+import java.util.WeakHashMap;
+import java.util.concurrent.TimeUnit;
+
+import com.mumfrey.liteloader.api.Listener;
+import com.mumfrey.liteloader.util.log.LiteLoaderLogger;
+
+/**
+ * Invocation counts and latency histograms for the listeners in a {@link HandlerList}, populated by the baked
+ * handler when timings are enabled for the list. Recording a sample doesn't allocate, latencies are stored in a
+ * log-linear histogram (4 sub-buckets per power of two) so percentiles are accurate to within 25%.
+ *
+ * <p>Samples, snapshots and resets for a listener are synchronised on its stats so that a snapshot is always
+ * consistent. The lock is uncontended except while a report is being taken.</p>
+ *
+ * @author Adam Mummery-Smith
+ */
+public class HandlerListTimings
+{
+	/**
+	 * Number of sub-buckets for each power of two, must be a power of two
+	 */
+	private static final int SUB_BUCKET_BITS = 2;
+	private static final int SUB_BUCKETS = 1 << HandlerListTimings.SUB_BUCKET_BITS;
+	private static final int BUCKETS = (64 - HandlerListTimings.SUB_BUCKET_BITS + 1) * HandlerListTimings.SUB_BUCKETS;
+
+	/**
+	 * All timings created, for reporting
+	 */
+	private static final Set<HandlerListTimings> allTimings = Collections.newSetFromMap(new WeakHashMap<HandlerListTimings, Boolean>());
+
+	/**
+	 * True if timings should be enabled for handler lists when they are baked
+	 */
+	private static volatile boolean enabledByDefault;
+
+	private static Timer reportTimer;
+
+	/**
+	 * Statistics for a single listener, updated directly by the baked handler list
+	 */
+	public static final class ListenerStats
+	{
+		final String name;
+
+		long count;
+
+		long totalNanos;
+
+		long maxNanos;
+
+		final long[] histogram = new long[HandlerListTimings.BUCKETS];
+
+		ListenerStats(String name)
+		{
+			this.name = name;
+		}
+
+		/**
+		 * @param nanos
+		 */
+		public synchronized void record(long nanos)
+		{
+			if (nanos < 0) nanos = 0;
+
+			this.count++;
+			this.totalNanos += nanos;
+			if (nanos > this.maxNanos) this.maxNanos = nanos;
+			this.histogram[HandlerListTimings.getBucket(nanos)]++;
+		}
+
+		synchronized Snapshot snapshot(String listName)
+		{
+			return new Snapshot(listName, this.name, this.count, this.totalNanos, this.maxNanos, this.histogram.clone());
+		}
+
+		synchronized void reset()
+		{
+			this.count = 0;
+			this.totalNanos = 0;
+			this.maxNanos = 0;
+			for (int bucket = 0; bucket < this.histogram.length; bucket++)
+			{
+				this.histogram[bucket] = 0;
+			}
+		}
+	}
+
+	/**
+	 * Immutable copy of the statistics for a single listener
+	 */
+	public static final class Snapshot
+	{
+		private final String listName;
+
+		private final String listenerName;
+
+		private final long count;
+
+		private final long totalNanos;
+
+		private final long maxNanos;
+
+		private final long[] histogram;
+
+		Snapshot(String listName, String listenerName, long count, long totalNanos, long maxNanos, long[] histogram)
+		{
+			this.listName = listName;
+			this.listenerName = listenerName;
+			this.count = count;
+			this.totalNanos = totalNanos;
+			this.maxNanos = maxNanos;
+			this.histogram = histogram;
+		}
+
+		/**
+		 * Get the name of the listener type
+		 */
+		public String getListName()
+		{
+			return this.listName;
+		}
+
+		public String getListenerName()
+		{
+			return this.listenerName;
+		}
+
+		public long getCount()
+		{
+			return this.count;
+		}
+
+		public long getTotalNanos()
+		{
+			return this.totalNanos;
+		}
+
+		public long getMaxNanos()
+		{
+			return this.maxNanos;
+		}
+
+		public long getMeanNanos()
+		{
+			return this.count > 0 ? this.totalNanos / this.count : 0;
+		}
+
+		/**
+		 * Get the upper bound of the latency below which the specified fraction of invocations fall
+		 *
+		 * @param percentile percentile to return, eg. 99.0
+		 */
+		public long getPercentileNanos(double percentile)
+		{
+			if (this.count == 0) return 0;
+
+			long threshold = (long)Math.ceil(this.count * Math.min(100.0, Math.max(0.0, percentile)) / 100.0);
+			long seen = 0;
+			for (int bucket = 0; bucket < this.histogram.length; bucket++)
+			{
+				seen += this.histogram[bucket];
+				if (seen >= threshold && seen > 0)
+				{
+					return Math.min(HandlerListTimings.getBucketUpperBound(bucket), this.maxNanos);
+				}
+			}
+
+			return this.maxNanos;
+		}
+
+		@Override
+		public String toString()
+		{
+			return String.format("%s (%s): calls=%d total=%.2fms mean=%.1fus p99=%.1fus max=%.1fus", this.listenerName, this.listName,
+					this.count, this.totalNanos / 1000000.0, this.getMeanNanos() / 1000.0, this.getPercentileNanos(99.0) / 1000.0, this.maxNanos / 1000.0);
+		}
+	}
+
+	/**
+	 * Name of the list, usually the listener interface name
+	 */
+	private final String listName;
+
+	/**
+	 * Stats for each listener, kept by listener identity so that stats survive the list being rebaked
+	 */
+	private final Map<Object, ListenerStats> stats = new IdentityHashMap<Object, ListenerStats>();
+
+	/**
+	 * @param listName
+	 */
+	public HandlerListTimings(String listName)
+	{
+		this.listName = listName;
+
+		synchronized (HandlerListTimings.allTimings)
+		{
+			HandlerListTimings.allTimings.add(this);
+		}
+	}
+
+	public String getListName()
+	{
+		return this.listName;
+	}
+
+	/**
+	 * Get the stats for each listener in the supplied list, creating them if necessary. Called when the list is
+	 * baked.
+	 *
+	 * @param listeners
+	 */
+	synchronized ListenerStats[] getStats(List<?> listeners)
+	{
+		ListenerStats[] listenerStats = new ListenerStats[listeners.size()];
+		for (int index = 0; index < listenerStats.length; index++)
+		{
+			Object listener = listeners.get(index);
+			ListenerStats stats = this.stats.get(listener);
+			if (stats == null)
+			{
+				stats = new ListenerStats(HandlerListTimings.getName(listener));
+				this.stats.put(listener, stats);
+			}
+
+			listenerStats[index] = stats;
+		}
+
+		return listenerStats;
+	}
+
+	/**
+	 * Get a snapshot of the current stats for each listener
+	 */
+	public synchronized List<Snapshot> getSnapshot()
+	{
+		List<Snapshot> snapshot = new ArrayList<Snapshot>(this.stats.size());
+		for (ListenerStats stats : this.stats.values())
+		{
+			snapshot.add(stats.snapshot(this.listName));
+		}
+
+		return snapshot;
+	}
+
+	/**
+	 * Clear all recorded stats
+	 */
+	public synchronized void reset()
+	{
+		for (ListenerStats stats : this.stats.values())
+		{
+			stats.reset();
+		}
+	}
+
+	/**
+	 * Get whether timings are enabled for all handler lists when they are baked
+	 */
+	public static boolean isEnabledByDefault()
+	{
+		return HandlerListTimings.enabledByDefault;
+	}
+
+	/**
+	 * Enable or disable timings for all handler lists baked from now on
+	 *
+	 * @param enabled
+	 */
+	public static void setEnabledByDefault(boolean enabled)
+	{
+		HandlerListTimings.enabledByDefault = enabled;
+	}
+
+	/**
+	 * Get a snapshot of the stats for all listeners in all instrumented lists
+	 */
+	public static List<Snapshot> getAllSnapshots()
+	{
+		List<HandlerListTimings> timings;
+		synchronized (HandlerListTimings.allTimings)
+		{
+			timings = new ArrayList<HandlerListTimings>(HandlerListTimings.allTimings);
+		}
+
+		List<Snapshot> snapshot = new ArrayList<Snapshot>();
+		for (HandlerListTimings listTimings : timings)
+		{
+			snapshot.addAll(listTimings.getSnapshot());
+		}
+
+		return snapshot;
+	}
+
+	/**
+	 * Get the listeners which have consumed the most time in total across all instrumented lists
+	 *
+	 * @param count maximum number of listeners to return
+	 */
+	public static List<Snapshot> getSlowestListeners(int count)
+	{
+		List<Snapshot> snapshot = HandlerListTimings.getAllSnapshots();
+		Collections.sort(snapshot, new Comparator<Snapshot>()
+		{
+			@Override
+			public int compare(Snapshot a, Snapshot b)
+			{
+				return a.totalNanos < b.totalNanos ? 1 : a.totalNanos > b.totalNanos ? -1 : 0;
+			}
+		});
+
+		return snapshot.subList(0, Math.min(count, snapshot.size()));
+	}
+
+	/**
+	 * Write the slowest listeners to the log
+	 *
+	 * @param count number of listeners to report
+	 */
+	public static void logSlowestListeners(int count)
+	{
+		List<Snapshot> slowest = HandlerListTimings.getSlowestListeners(count);
+		if (slowest.isEmpty()) return;
+
+		LiteLoaderLogger.info("Slowest listeners:");
+		for (Snapshot snapshot : slowest)
+		{
+			if (snapshot.getCount() > 0)
+			{
+				LiteLoaderLogger.info("  %s", snapshot);
+			}
+		}
+	}
+
+	/**
+	 * Start logging the slowest listeners periodically, replaces any existing report schedule
+	 *
+	 * @param intervalSeconds interval between reports, zero or less to stop reporting
+	 * @param count number of listeners to include in each report
+	 */
+	public static synchronized void startReporting(int intervalSeconds, final int count)
+	{
+		if (HandlerListTimings.reportTimer != null)
+		{
+			HandlerListTimings.reportTimer.cancel();
+			HandlerListTimings.reportTimer = null;
+		}
+
+		if (intervalSeconds <= 0) return;
+
+		long interval = TimeUnit.SECONDS.toMillis(intervalSeconds);
+		HandlerListTimings.reportTimer = new Timer("Listener Timings Report", true);
+		HandlerListTimings.reportTimer.schedule(new TimerTask()
+		{
+			@Override
+			public void run()
+			{
+				HandlerListTimings.logSlowestListeners(count);
+			}
+		}, interval, interval);
+	}
+
+	/**
+	 * Get the histogram bucket for the specified latency
+	 *
+	 * @param nanos
+	 */
+	static int getBucket(long nanos)
+	{
+		if (nanos < HandlerListTimings.SUB_BUCKETS)
+		{
+			return (int)nanos;
+		}
+
+		int exponent = 63 - Long.numberOfLeadingZeros(nanos);
+		int shift = exponent - HandlerListTimings.SUB_BUCKET_BITS;
+		return ((shift + 1) << HandlerListTimings.SUB_BUCKET_BITS) + (int)((nanos >>> shift) & (HandlerListTimings.SUB_BUCKETS - 1));
+	}
+
+	/**
+	 * Get the largest latency which falls in the specified bucket
+	 *
+	 * @param bucket
+	 */
+	static long getBucketUpperBound(int bucket)
+	{
+		if (bucket < HandlerListTimings.SUB_BUCKETS)
+		{
+			return bucket;
+		}
+
+		int shift = (bucket >>> HandlerListTimings.SUB_BUCKET_BITS) - 1;
+		long lowerBound = (long)(HandlerListTimings.SUB_BUCKETS + (bucket & (HandlerListTimings.SUB_BUCKETS - 1))) << shift;
+		return lowerBound + (1L << shift) - 1;
+	}
+
+	private static String getName(Object listener)
+	{
+		if (listener instanceof Listener)
+		{
+			String name = ((Listener)listener).getName();
+			if (name != null) return name;
+		}
+
+		return listener.getClass().getSimpleName();
+	}
+}
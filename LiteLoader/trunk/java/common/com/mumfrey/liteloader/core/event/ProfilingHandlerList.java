@@ -73,7 +73,9 @@ public class ProfilingHandlerList<T extends Listener> extends HandlerList<T>
 	@Override
 	protected IHandlerListDecorator<T> getDecorator()
 	{
-		return new ProfilingHandlerListDecorator<T>(this.profiler);
+		// Timings replace the profiler sections when enabled
+		IHandlerListDecorator<T> timingDecorator = super.getDecorator();
+		return timingDecorator != null ? timingDecorator : new ProfilingHandlerListDecorator<T>(this.profiler);
 	}
 	
 	/**
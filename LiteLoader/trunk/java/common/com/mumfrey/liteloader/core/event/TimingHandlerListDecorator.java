@@ -0,0 +1,157 @@
+package com.mumfrey.liteloader.core.event;
+
+import java.lang.reflect.Constructor;
+import java.util.List;
+
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+import org.objectweb.asm.tree.ClassNode;
+import org.objectweb.asm.tree.InsnNode;
+import org.objectweb.asm.tree.IntInsnNode;
+import org.objectweb.asm.tree.LdcInsnNode;
+import org.objectweb.asm.tree.MethodInsnNode;
+import org.objectweb.asm.tree.MethodNode;
+import org.objectweb.asm.tree.VarInsnNode;
+
+import com.mumfrey.liteloader.core.event.HandlerList.BakedHandlerList;
+import com.mumfrey.liteloader.core.event.HandlerListTimings.ListenerStats;
+import com.mumfrey.liteloader.core.runtime.Obf;
+import com.mumfrey.liteloader.transformers.ByteCodeUtilities;
+
+/**
+ * Decorator which records the time taken by each invokation in the list's {@link HandlerListTimings}
+ *
+ * @author Adam Mummery-Smith
+ *
+ * @param <T>
+ */
+class TimingHandlerListDecorator<T> implements IHandlerListDecorator<T>
+{
+	private final HandlerListTimings timings;
+
+	private ListenerStats[] stats;
+
+	TimingHandlerListDecorator(HandlerListTimings timings)
+	{
+		this.timings = timings;
+	}
+
+	/* (non-Javadoc)
+	 * @see com.mumfrey.liteloader.core.event.IHandlerListDecorator#getTemplate()
+	 */
+	@Override
+	public Obf getTemplate()
+	{
+		return Obf.BakedTimingHandlerList;
+	}
+
+	/* (non-Javadoc)
+	 * @see com.mumfrey.liteloader.core.event.IHandlerListDecorator#prepare(java.util.List)
+	 */
+	@Override
+	public void prepare(List<T> sortedList)
+	{
+		this.stats = this.timings.getStats(sortedList);
+	}
+
+	/* (non-Javadoc)
+	 * @see com.mumfrey.liteloader.core.event.IHandlerListDecorator#createInstance(java.lang.Class)
+	 */
+	@Override
+	public BakedHandlerList<T> createInstance(Class<BakedHandlerList<T>> handlerClass) throws Exception
+	{
+		Constructor<BakedHandlerList<T>> ctor = handlerClass.getDeclaredConstructor(ListenerStats[].class);
+		ctor.setAccessible(true);
+		return ctor.newInstance((Object)this.stats);
+	}
+
+	/* (non-Javadoc)
+	 * @see com.mumfrey.liteloader.core.event.IHandlerListDecorator#populateClass(java.lang.String, org.objectweb.asm.tree.ClassNode)
+	 */
+	@Override
+	public void populateClass(String name, ClassNode classNode)
+	{
+	}
+
+	/* (non-Javadoc)
+	 * @see com.mumfrey.liteloader.core.event.IHandlerListDecorator#processCtor(org.objectweb.asm.tree.ClassNode, org.objectweb.asm.tree.MethodNode)
+	 */
+	@Override
+	public void processCtor(ClassNode classNode, MethodNode method)
+	{
+		method.instructions.clear();
+		method.instructions.add(new VarInsnNode(Opcodes.ALOAD, 0));
+		method.instructions.add(new VarInsnNode(Opcodes.ALOAD, 1));
+		method.instructions.add(new MethodInsnNode(Opcodes.INVOKESPECIAL, Obf.BakedTimingHandlerList.ref, Obf.constructor.name, method.desc, false));
+		method.instructions.add(new InsnNode(Opcodes.RETURN));
+	}
+
+	/* (non-Javadoc)
+	 * @see com.mumfrey.liteloader.core.event.IHandlerListDecorator#preInvokeInterfaceMethod(int, org.objectweb.asm.tree.ClassNode, org.objectweb.asm.tree.MethodNode, org.objectweb.asm.Type[])
+	 */
+	@Override
+	public void preInvokeInterfaceMethod(int handlerIndex, ClassNode classNode, MethodNode method, Type[] args)
+	{
+		// Store System.nanoTime() in the local following the return value local
+		method.instructions.add(new MethodInsnNode(Opcodes.INVOKESTATIC, "java/lang/System", "nanoTime", "()J", false));
+		method.instructions.add(new VarInsnNode(Opcodes.LSTORE, TimingHandlerListDecorator.getStartTimeLocal(args)));
+	}
+
+	/* (non-Javadoc)
+	 * @see com.mumfrey.liteloader.core.event.IHandlerListDecorator#postInvokeInterfaceMethod(int, org.objectweb.asm.tree.ClassNode, org.objectweb.asm.tree.MethodNode, org.objectweb.asm.Type[])
+	 */
+	@Override
+	public void postInvokeInterfaceMethod(int handlerIndex, ClassNode classNode, MethodNode method, Type[] args)
+	{
+		// Call this.record(handlerIndex, startTime), the invokation's return value (if any) stays on the stack
+		method.instructions.add(new VarInsnNode(Opcodes.ALOAD, 0));
+		method.instructions.add(handlerIndex > Short.MAX_VALUE ? new LdcInsnNode(new Integer(handlerIndex)) : new IntInsnNode(Opcodes.SIPUSH, handlerIndex));
+		method.instructions.add(new VarInsnNode(Opcodes.LLOAD, TimingHandlerListDecorator.getStartTimeLocal(args)));
+		method.instructions.add(new MethodInsnNode(Opcodes.INVOKESPECIAL, classNode.superName, "record", "(IJ)V", false));
+	}
+
+	/* (non-Javadoc)
+	 * @see com.mumfrey.liteloader.core.event.IHandlerListDecorator#populateInterfaceMethod(org.objectweb.asm.tree.ClassNode, org.objectweb.asm.tree.MethodNode)
+	 */
+	@Override
+	public void populateInterfaceMethod(ClassNode classNode, MethodNode method)
+	{
+		method.maxLocals = Math.max(method.maxLocals, TimingHandlerListDecorator.getStartTimeLocal(Type.getArgumentTypes(method.desc)) + 2);
+	}
+
+	/**
+	 * The start time is stored after the args and the local used by boolean invokation chains
+	 */
+	private static int getStartTimeLocal(Type[] args)
+	{
+		return ByteCodeUtilities.getArgsSize(args) + 2;
+	}
+
+	/**
+	 * Template class for the timing handler lists
+	 *
+	 * @author Adam Mummery-Smith
+	 *
+	 * @param <T>
+	 */
+	public static abstract class BakedList<T> extends HandlerList.BakedHandlerList<T>
+	{
+		private final ListenerStats[] stats;
+
+		public BakedList(ListenerStats[] stats)
+		{
+			this.stats = stats;
+		}
+
+		@Override
+		public abstract T get();
+
+		@Override
+		public abstract BakedHandlerList<T> populate(List<T> listeners);
+
+		protected void record(int handlerIndex, long startTime)
+		{
+			this.stats[handlerIndex].record(System.nanoTime() - startTime);
+		}
+	}
+}
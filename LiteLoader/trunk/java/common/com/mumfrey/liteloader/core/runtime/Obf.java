@@ -4,8 +4,10 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.lang.reflect.Field;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
 import java.util.Properties;
+import java.util.Set;
 
 /**
  * Centralised obfuscation table for LiteLoader
@@ -23,6 +25,7 @@ public class Obf
 	public static final Obf                  HandlerList = new Obf("com.mumfrey.liteloader.core.event.HandlerList"                     );
 	public static final Obf             BakedHandlerList = new Obf("com.mumfrey.liteloader.core.event.HandlerList$BakedHandlerList"    );
 	public static final Obf    BakedProfilingHandlerList = new Obf("com.mumfrey.liteloader.core.event.ProfilingHandlerList$BakedList"  );
+	public static final Obf       BakedTimingHandlerList = new Obf("com.mumfrey.liteloader.core.event.TimingHandlerListDecorator$BakedList");
 	public static final Obf                 PacketEvents = new Obf("com.mumfrey.liteloader.core.PacketEvents"                          );
 	public static final Obf           PacketEventsClient = new Obf("com.mumfrey.liteloader.client.PacketEventsClient"                  );
 	public static final Obf                   LoadingBar = new Obf("com.mumfrey.liteloader.client.gui.startup.LoadingBar"              );
@@ -165,15 +168,44 @@ public class Obf
 	
 	private static final Map<String, Obf> obfs = new HashMap<String, Obf>(); 
 	
+	/**
+	 * Entries indexed by obfuscated name, used by {@link #lookupMCPName}. Obfuscated names which are shared by
+	 * entries with different MCP names (common for obfuscated member names) are ambiguous and are not indexed.
+	 */
+	private static final Map<String, Obf> obfNames = new HashMap<String, Obf>();
+	
+	/**
+	 * Field name and MCP name lookup tables for Obf subclasses, built on first use by {@link #getByName(Class, String)}
+	 */
+	private static final Map<Class<? extends Obf>, Map<String, Obf>> tables = new HashMap<Class<? extends Obf>, Map<String, Obf>>();
+	
 	static
 	{
+		Set<String> ambiguousNames = new HashSet<String>();
+		
 		try
 		{
 			for (Field fd : Obf.class.getFields())
 			{
 				if (fd.getType().equals(Obf.class))
 				{
-					Obf.obfs.put(fd.getName(), (Obf)fd.get(null));
+					Obf obf = (Obf)fd.get(null);
+					Obf.obfs.put(fd.getName(), obf);
+					
+					// The order of getFields() is unspecified, so colliding names are rejected rather than
+					// resolving to whichever entry happens to be visited first
+					if (obf.obf == null || ambiguousNames.contains(obf.obf)) continue;
+					
+					Obf existing = Obf.obfNames.get(obf.obf);
+					if (existing == null)
+					{
+						Obf.obfNames.put(obf.obf, obf);
+					}
+					else if (!existing.name.equals(obf.name))
+					{
+						Obf.obfNames.remove(obf.obf);
+						ambiguousNames.add(obf.obf);
+					}
 				}
 			}
 		}
@@ -337,35 +369,60 @@ public class Obf
 		return Obf.obfs.get(name);
 	}
 	
+	/**
+	 * Find an entry in the specified table by field name or MCP name, falls back to the main table if no match
+	 * is found
+	 * 
+	 * @param obf
+	 * @param name
+	 */
 	public static Obf getByName(Class<? extends Obf> obf, String name)
 	{
-		try
-		{
-			for (Field fd : obf.getFields())
-			{
-				if (Obf.class.isAssignableFrom(fd.getType()))
-				{
-					String fieldName = fd.getName();
-					Obf entry = (Obf)fd.get(null);
-					if (name.equals(fieldName) || name.equals(entry.name))
-						return entry;
-				}
-			}
-		}
-		catch (Exception ex) {}
-
-		return Obf.getByName(name);
+		Obf entry = Obf.getTable(obf).get(name);
+		return entry != null ? entry : Obf.getByName(name);
 	}
 	
 	public static String lookupMCPName(String obfName)
 	{
-		for (Obf obf : Obf.obfs.values())
+		Obf obf = Obf.obfNames.get(obfName);
+		return obf != null ? obf.name : obfName;
+	}
+	
+	private static Map<String, Obf> getTable(Class<? extends Obf> obf)
+	{
+		synchronized (Obf.tables)
 		{
-			if (obfName.equals(obf.obf))
-				return obf.name;
+			Map<String, Obf> table = Obf.tables.get(obf);
+			if (table == null)
+			{
+				table = new HashMap<String, Obf>();
+				
+				try
+				{
+					// Same precedence as scanning the fields in order, the first field which matches by either
+					// its field name or its entry's MCP name wins, so names are never replaced once added
+					for (Field fd : obf.getFields())
+					{
+						if (Obf.class.isAssignableFrom(fd.getType()))
+						{
+							Obf entry = (Obf)fd.get(null);
+							if (entry == null) continue;
+							
+							String[] keys = { fd.getName(), entry.name };
+							for (String key : keys)
+							{
+								if (!table.containsKey(key)) table.put(key, entry);
+							}
+						}
+					}
+				}
+				catch (Exception ex) {}
+				
+				Obf.tables.put(obf, table);
+			}
+			
+			return table;
 		}
-		
-		return obfName;
 	}
 	
 	/**
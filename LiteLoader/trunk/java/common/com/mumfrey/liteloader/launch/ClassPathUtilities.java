@@ -1,6 +1,7 @@
 package com.mumfrey.liteloader.launch;
 
 import java.io.File;
+import java.io.IOException;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.net.MalformedURLException;
@@ -13,6 +14,7 @@ import java.security.PrivilegedActionException;
 import java.security.PrivilegedExceptionAction;
 import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Stack;
@@ -85,6 +87,47 @@ public abstract class ClassPathUtilities
 		}
 	}
 	
+	/**
+	 * Replace the class path of the specified class loader with an {@link IndexedClassPath} so that lookups only
+	 * probe the class path entries which contain the package being looked up
+	 * 
+	 * @param classLoader
+	 * @return true if the class path is now indexed
+	 */
+	public static boolean enableClassPathIndex(URLClassLoader classLoader)
+	{
+		if (!ClassPathUtilities.canInject) return false;
+		
+		try
+		{
+			URLClassPath classPath = (URLClassPath)ClassPathUtilities.ucp.get(classLoader);
+			if (classPath instanceof IndexedClassPath) return true;
+			
+			synchronized (classLoader)
+			{
+				IndexedClassPath indexedClassPath = new IndexedClassPath(classPath.getURLs());
+				ClassPathUtilities.ucp.set(classLoader, indexedClassPath);
+				
+				// Lookups are now performed by the indexed class path, release the jars opened by the old one
+				List<IOException> errors = new ArrayList<IOException>();
+				IndexedClassPath.closeLoaders(classPath, errors);
+				for (IOException error : errors)
+				{
+					LiteLoaderLogger.debug("ClassPathUtilities: error closing replaced class path loader: %s", error.getMessage());
+				}
+			}
+			
+			LiteLoaderLogger.info("ClassPathUtilities: enabled class path index for %s", classLoader.getClass().getSimpleName());
+			return true;
+		}
+		catch (Exception ex)
+		{
+			LiteLoaderLogger.warning(ex, "ClassPathUtilities: failed to enable class path index for %s", classLoader.getClass().getSimpleName());
+		}
+		
+		return false;
+	}
+	
 	/**
 	 * Injects a URL into the classpath based on the specified injection strategy
 	 * 
@@ -377,39 +420,34 @@ public abstract class ClassPathUtilities
 		try
 		{
 			URLClassPath classPath = (URLClassPath)ClassPathUtilities.ucp.get(classLoader);
-			Map<String, ?> loaderMap = (Map<String, ?>)ClassPathUtilities.classPathLoaderMap.get(classPath);
+			jar = ClassPathUtilities.getJarFromClassPath(classPath, fileName, removeFromClassPath);
 			
-			Iterator<?> iter = loaderMap.entrySet().iterator();
-			while (iter.hasNext())
+			if (classPath instanceof IndexedClassPath)
 			{
-				Entry<String, ?> loaderEntry = (Entry<String, ?>)iter.next();
-				
-				String url = loaderEntry.getKey();
-				
-				if (url.endsWith(fileName))
+				// Lookups on an indexed class path are performed by the per-entry class paths
+				IndexedClassPath indexedClassPath = (IndexedClassPath)classPath;
+				for (URLClassPath entryClassPath : indexedClassPath.getEntryClassPaths())
 				{
-					Object loader = loaderEntry.getValue();
-					Field jarField = loader.getClass().getDeclaredField("jar");
-					jarField.setAccessible(true);
-					
-					jar = (JarFile)jarField.get(loader);
-					
-					if (removeFromClassPath)
+					JarFile entryJar = ClassPathUtilities.getJarFromClassPath(entryClassPath, fileName, removeFromClassPath);
+					if (entryJar != null)
 					{
-						jarField.set(loader, null);
+						jar = entryJar;
 						
-						Stack<URL> urls = (Stack<URL>)ClassPathUtilities.classPathURLs.get(classPath);
-						ArrayList<URL> path = (ArrayList<URL>)ClassPathUtilities.classPathPath.get(classPath);
-						ArrayList<?> loaders = (ArrayList<?>)ClassPathUtilities.classPathLoaderList.get(classPath);
-						
-						loaders.remove(loader);
-						iter.remove();
-						
-						URL jarURL = new URL(url);
-						urls.remove(jarURL);
-						path.remove(jarURL);
+						if (removeFromClassPath)
+						{
+							for (URL url : entryClassPath.getURLs())
+							{
+								((Stack<URL>)ClassPathUtilities.classPathURLs.get(classPath)).remove(url);
+								((ArrayList<URL>)ClassPathUtilities.classPathPath.get(classPath)).remove(url);
+							}
+						}
 					}
 				}
+				
+				if (removeFromClassPath)
+				{
+					indexedClassPath.sync();
+				}
 			}
 		}
 		catch (IllegalArgumentException ex) {}
@@ -422,6 +460,55 @@ public abstract class ClassPathUtilities
 		
 		return jar;
 	}
+
+	/**
+	 * @param classPath
+	 * @param fileName
+	 * @param removeFromClassPath
+	 * @throws MalformedURLException
+	 */
+	@SuppressWarnings("unchecked")
+	private static JarFile getJarFromClassPath(URLClassPath classPath, String fileName, boolean removeFromClassPath) throws MalformedURLException, IllegalAccessException, NoSuchFieldException
+	{
+		JarFile jar = null;
+		
+		Map<String, ?> loaderMap = (Map<String, ?>)ClassPathUtilities.classPathLoaderMap.get(classPath);
+		
+		Iterator<?> iter = loaderMap.entrySet().iterator();
+		while (iter.hasNext())
+		{
+			Entry<String, ?> loaderEntry = (Entry<String, ?>)iter.next();
+			
+			String url = loaderEntry.getKey();
+			
+			if (url.endsWith(fileName))
+			{
+				Object loader = loaderEntry.getValue();
+				Field jarField = loader.getClass().getDeclaredField("jar");
+				jarField.setAccessible(true);
+				
+				jar = (JarFile)jarField.get(loader);
+				
+				if (removeFromClassPath)
+				{
+					jarField.set(loader, null);
+					
+					Stack<URL> urls = (Stack<URL>)ClassPathUtilities.classPathURLs.get(classPath);
+					ArrayList<URL> path = (ArrayList<URL>)ClassPathUtilities.classPathPath.get(classPath);
+					ArrayList<?> loaders = (ArrayList<?>)ClassPathUtilities.classPathLoaderList.get(classPath);
+					
+					loaders.remove(loader);
+					iter.remove();
+					
+					URL jarURL = new URL(url);
+					urls.remove(jarURL);
+					path.remove(jarURL);
+				}
+			}
+		}
+		
+		return jar;
+	}
 }
 
 class JarDeletionHandler implements PrivilegedExceptionAction<Boolean>
@@ -459,4 +546,4 @@ class JarDeletionHandler implements PrivilegedExceptionAction<Boolean>
 		
 		return Boolean.valueOf(deletedJarFile || deletedParentJarFile);
 	}
-}
\ No newline at end of file
+}
\ No newline at end of file
@@ -0,0 +1,543 @@
+package com.mumfrey.liteloader.launch;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.jar.Attributes;
+import java.util.jar.JarFile;
+import java.util.jar.Manifest;
+import java.util.zip.ZipEntry;
+
+import com.mumfrey.liteloader.util.log.LiteLoaderLogger;
+
+import sun.misc.Resource;
+import sun.misc.URLClassPath;
+
+/**
+ * URLClassPath which keeps an index of the packages (directories) contained in each class path entry, so that
+ * single resource and class lookups only probe the entries which actually contain the package in question
+ * instead of every jar on the class path in turn. Lookups for names which no entry provides are remembered in a
+ * negative cache so that repeated misses don't touch the class path at all.
+ *
+ * <p>Entries are probed in the order they appear in the class path, so the positions requested by each
+ * container's {@link InjectionStrategy} are honoured. Entries which can't be indexed (non-file URLs, jars with
+ * a Class-Path manifest attribute or a jar index) are probed for every lookup. All lookups, including
+ * enumerating lookups (getResources), are performed by the per-entry class paths so that the loaders of the
+ * superclass are never opened and each entry is only opened once.</p>
+ *
+ * @author Adam Mummery-Smith
+ */
+class IndexedClassPath extends URLClassPath
+{
+	/**
+	 * Maximum recursion depth when indexing directories
+	 */
+	private static final int MAX_DEPTH = 32;
+
+	/**
+	 * Maximum size of the negative cache, the cache is cleared when this is exceeded
+	 */
+	private static final int MAX_NEGATIVE_ENTRIES = 8192;
+
+	/**
+	 * A class path entry
+	 */
+	static final class Entry
+	{
+		final URL url;
+
+		/**
+		 * Class path containing only this entry, used to perform the actual lookup
+		 */
+		final URLClassPath classPath;
+
+		/**
+		 * Packages contained in this entry or null if the entry could not be indexed
+		 */
+		final Set<String> packages;
+
+		int rank;
+
+		Entry(URL url)
+		{
+			this.url = url;
+			this.classPath = new URLClassPath(new URL[] { url });
+			this.packages = IndexedClassPath.index(url);
+		}
+	}
+
+	private static final Entry[] NO_ENTRIES = new Entry[0];
+
+	/**
+	 * URLClassPath::loaders -> instance of ArrayList<URLClassPath.Loader>
+	 */
+	private static Field classPathLoaderList;
+
+	/**
+	 * URLClassPath::closed, only present in Java 7 and later
+	 */
+	private static Field classPathClosed;
+
+	static
+	{
+		try
+		{
+			IndexedClassPath.classPathLoaderList = URLClassPath.class.getDeclaredField("loaders");
+			IndexedClassPath.classPathLoaderList.setAccessible(true);
+		}
+		catch (Exception ex)
+		{
+			LiteLoaderLogger.debug("IndexedClassPath: loaders will not be closed: %s", ex.getMessage());
+		}
+
+		try
+		{
+			IndexedClassPath.classPathClosed = URLClassPath.class.getDeclaredField("closed");
+			IndexedClassPath.classPathClosed.setAccessible(true);
+		}
+		catch (Exception ex) {}
+	}
+
+	/**
+	 * All entries, keyed by the string form of the URL to avoid URL::equals
+	 */
+	private final Map<String, Entry> entries = new HashMap<String, Entry>();
+
+	/**
+	 * Entries which contain each package, in class path order
+	 */
+	private volatile Map<String, Entry[]> packages = Collections.emptyMap();
+
+	/**
+	 * Entries to probe for packages which are not in the index, these are the entries which could not be indexed
+	 */
+	private volatile Entry[] unindexed = IndexedClassPath.NO_ENTRIES;
+
+	/**
+	 * All entries in class path order
+	 */
+	private volatile Entry[] ordered = IndexedClassPath.NO_ENTRIES;
+
+	/**
+	 * Names which were looked up and not found
+	 */
+	private final Set<String> negativeCache = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+
+	/**
+	 * Incremented each time the index is rebuilt, a miss is only added to the negative cache if the index was
+	 * not rebuilt while the lookup was in progress
+	 */
+	private volatile int generation;
+
+	/**
+	 * @param urls
+	 */
+	IndexedClassPath(URL[] urls)
+	{
+		super(urls);
+		this.sync();
+	}
+
+	/* (non-Javadoc)
+	 * @see sun.misc.URLClassPath#addURL(java.net.URL)
+	 */
+	@Override
+	public synchronized void addURL(URL url)
+	{
+		super.addURL(url);
+		this.sync();
+	}
+
+	/* (non-Javadoc)
+	 * @see sun.misc.URLClassPath#getResource(java.lang.String, boolean)
+	 */
+	@Override
+	public Resource getResource(String name, boolean check)
+	{
+		int generation = this.generation;
+		Entry[] candidates = this.getCandidates(name);
+		for (Entry entry : candidates)
+		{
+			Resource resource = entry.classPath.getResource(name, check);
+			if (resource != null) return resource;
+		}
+
+		this.addNegativeEntry(name, generation);
+		return null;
+	}
+
+	/* (non-Javadoc)
+	 * @see sun.misc.URLClassPath#findResource(java.lang.String, boolean)
+	 */
+	@Override
+	public URL findResource(String name, boolean check)
+	{
+		int generation = this.generation;
+		Entry[] candidates = this.getCandidates(name);
+		for (Entry entry : candidates)
+		{
+			URL resource = entry.classPath.findResource(name, check);
+			if (resource != null) return resource;
+		}
+
+		this.addNegativeEntry(name, generation);
+		return null;
+	}
+
+	/* (non-Javadoc)
+	 * @see sun.misc.URLClassPath#getResources(java.lang.String, boolean)
+	 */
+	@Override
+	public Enumeration<Resource> getResources(String name, boolean check)
+	{
+		List<Resource> resources = new ArrayList<Resource>();
+		for (Entry entry : this.getEnumerationCandidates(name))
+		{
+			Enumeration<Resource> entryResources = entry.classPath.getResources(name, check);
+			while (entryResources.hasMoreElements())
+			{
+				resources.add(entryResources.nextElement());
+			}
+		}
+
+		return Collections.enumeration(resources);
+	}
+
+	/* (non-Javadoc)
+	 * @see sun.misc.URLClassPath#findResources(java.lang.String, boolean)
+	 */
+	@Override
+	public Enumeration<URL> findResources(String name, boolean check)
+	{
+		List<URL> resources = new ArrayList<URL>();
+		for (Entry entry : this.getEnumerationCandidates(name))
+		{
+			Enumeration<URL> entryResources = entry.classPath.findResources(name, check);
+			while (entryResources.hasMoreElements())
+			{
+				resources.add(entryResources.nextElement());
+			}
+		}
+
+		return Collections.enumeration(resources);
+	}
+
+	/**
+	 * Close the loaders of this class path and of the per-entry class paths. On Java 7 and later this overrides
+	 * URLClassPath::closeLoaders, which is called by URLClassLoader::close. The method does not exist in the
+	 * Java 6 class library, so it is not annotated and the loaders are closed via reflection instead of by
+	 * calling the superclass implementation.
+	 */
+	public synchronized List<IOException> closeLoaders()
+	{
+		List<IOException> errors = new ArrayList<IOException>();
+		IndexedClassPath.closeLoaders(this, errors);
+		for (Entry entry : this.entries.values())
+		{
+			synchronized (entry.classPath)
+			{
+				IndexedClassPath.closeLoaders(entry.classPath, errors);
+			}
+		}
+
+		return errors;
+	}
+
+	/**
+	 * Close the loaders of the specified class path and mark it as closed, loaders are only closeable on Java 7
+	 * and later
+	 *
+	 * @param classPath
+	 * @param errors
+	 */
+	static void closeLoaders(URLClassPath classPath, List<IOException> errors)
+	{
+		if (IndexedClassPath.classPathLoaderList == null) return;
+
+		try
+		{
+			if (IndexedClassPath.classPathClosed != null)
+			{
+				if (IndexedClassPath.classPathClosed.getBoolean(classPath)) return;
+				IndexedClassPath.classPathClosed.setBoolean(classPath, true);
+			}
+
+			for (Object loader : (List<?>)IndexedClassPath.classPathLoaderList.get(classPath))
+			{
+				if (loader instanceof Closeable)
+				{
+					try
+					{
+						((Closeable)loader).close();
+					}
+					catch (IOException ex)
+					{
+						errors.add(ex);
+					}
+				}
+			}
+		}
+		catch (IllegalAccessException ex)
+		{
+			LiteLoaderLogger.debug("IndexedClassPath: could not close loaders: %s", ex.getMessage());
+		}
+	}
+
+	/**
+	 * Get the class paths which perform lookups for the individual entries
+	 */
+	synchronized List<URLClassPath> getEntryClassPaths()
+	{
+		List<URLClassPath> classPaths = new ArrayList<URLClassPath>();
+		for (Entry entry : this.entries.values())
+		{
+			classPaths.add(entry.classPath);
+		}
+
+		return classPaths;
+	}
+
+	/**
+	 * Get the entries to probe for the specified name, returns an empty array if the name is known not to exist
+	 *
+	 * @param name
+	 */
+	private Entry[] getCandidates(String name)
+	{
+		if (this.negativeCache.contains(name))
+		{
+			return IndexedClassPath.NO_ENTRIES;
+		}
+
+		return this.getEnumerationCandidates(name);
+	}
+
+	/**
+	 * Get the entries which may contain the specified name, ignoring the negative cache. Names which can't be
+	 * resolved using the index are probed in every entry.
+	 *
+	 * @param name
+	 */
+	private Entry[] getEnumerationCandidates(String name)
+	{
+		if (name.startsWith("/") || name.contains(".."))
+		{
+			return this.ordered;
+		}
+
+		Entry[] candidates = this.packages.get(IndexedClassPath.getPackage(name));
+		return candidates != null ? candidates : this.unindexed;
+	}
+
+	/**
+	 * Add a name to the negative cache, unless the index was rebuilt since the lookup began. This is done under
+	 * the same lock as {@link #sync} so that a stale miss can't be recorded after the cache has been cleared.
+	 *
+	 * @param name
+	 * @param generation index generation at the start of the lookup
+	 */
+	private synchronized void addNegativeEntry(String name, int generation)
+	{
+		if (generation != this.generation) return;
+
+		if (this.negativeCache.size() >= IndexedClassPath.MAX_NEGATIVE_ENTRIES)
+		{
+			this.negativeCache.clear();
+		}
+
+		this.negativeCache.add(name);
+	}
+
+	/**
+	 * Update the index to reflect the current contents and order of the class path, called whenever an entry is
+	 * added to the class path
+	 */
+	synchronized void sync()
+	{
+		URL[] urls = this.getURLs();
+		List<Entry> ordered = new ArrayList<Entry>(urls.length);
+		Set<String> present = new HashSet<String>();
+
+		for (int rank = 0; rank < urls.length; rank++)
+		{
+			String key = urls[rank].toString();
+			if (!present.add(key)) continue;
+
+			Entry entry = this.entries.get(key);
+			if (entry == null)
+			{
+				entry = new Entry(urls[rank]);
+				this.entries.put(key, entry);
+			}
+
+			entry.rank = rank;
+			ordered.add(entry);
+		}
+
+		this.entries.keySet().retainAll(present);
+		this.rebuild(ordered);
+	}
+
+	/**
+	 * @param ordered entries in class path order
+	 */
+	private void rebuild(List<Entry> ordered)
+	{
+		Map<String, List<Entry>> packageEntries = new HashMap<String, List<Entry>>();
+		List<Entry> unindexed = new ArrayList<Entry>();
+
+		for (Entry entry : ordered)
+		{
+			if (entry.packages == null)
+			{
+				// Unindexed entries may contain any package so they go in every list from this point on
+				unindexed.add(entry);
+				for (List<Entry> entries : packageEntries.values())
+				{
+					entries.add(entry);
+				}
+				continue;
+			}
+
+			for (String packageName : entry.packages)
+			{
+				List<Entry> entries = packageEntries.get(packageName);
+				if (entries == null)
+				{
+					entries = new ArrayList<Entry>(unindexed);
+					packageEntries.put(packageName, entries);
+				}
+
+				entries.add(entry);
+			}
+		}
+
+		Map<String, Entry[]> packages = new HashMap<String, Entry[]>(packageEntries.size() * 2);
+		for (Map.Entry<String, List<Entry>> packageEntry : packageEntries.entrySet())
+		{
+			packages.put(packageEntry.getKey(), packageEntry.getValue().toArray(new Entry[packageEntry.getValue().size()]));
+		}
+
+		this.packages = packages;
+		this.unindexed = unindexed.toArray(new Entry[unindexed.size()]);
+		this.ordered = ordered.toArray(new Entry[ordered.size()]);
+		this.generation++;
+		this.negativeCache.clear();
+	}
+
+	/**
+	 * Get the package (directory) part of a resource name
+	 *
+	 * @param name
+	 */
+	static String getPackage(String name)
+	{
+		int pos = name.lastIndexOf('/');
+		return pos > -1 ? name.substring(0, pos) : "";
+	}
+
+	/**
+	 * Build the package index for the specified class path entry
+	 *
+	 * @param url
+	 * @return set of packages or null if the entry can't be indexed
+	 */
+	static Set<String> index(URL url)
+	{
+		if (!"file".equals(url.getProtocol()))
+		{
+			return null;
+		}
+
+		try
+		{
+			File file = new File(url.toURI());
+			if (file.isDirectory())
+			{
+				Set<String> packages = new HashSet<String>();
+				packages.add("");
+				IndexedClassPath.indexDirectory(packages, file, "", 0);
+				return packages;
+			}
+
+			if (file.isFile())
+			{
+				return IndexedClassPath.indexJar(file);
+			}
+		}
+		catch (Exception ex)
+		{
+			LiteLoaderLogger.debug("IndexedClassPath: could not index %s: %s", url, ex.getMessage());
+		}
+
+		return null;
+	}
+
+	private static void indexDirectory(Set<String> packages, File dir, String packagePath, int depth)
+	{
+		if (depth > IndexedClassPath.MAX_DEPTH)
+		{
+			throw new IllegalStateException("Maximum depth exceeded indexing " + dir);
+		}
+
+		File[] files = dir.listFiles();
+		if (files == null) return;
+
+		for (File file : files)
+		{
+			if (file.isDirectory())
+			{
+				String subPackagePath = packagePath + file.getName();
+				packages.add(subPackagePath);
+				IndexedClassPath.indexDirectory(packages, file, subPackagePath + "/", depth + 1);
+			}
+		}
+	}
+
+	private static Set<String> indexJar(File file) throws IOException
+	{
+		JarFile jarFile = new JarFile(file);
+		try
+		{
+			// Jars which pull other entries onto the class path can't be resolved from their own contents
+			Manifest manifest = jarFile.getManifest();
+			if (manifest != null && manifest.getMainAttributes().getValue(Attributes.Name.CLASS_PATH) != null)
+			{
+				return null;
+			}
+
+			if (jarFile.getEntry("META-INF/INDEX.LIST") != null)
+			{
+				return null;
+			}
+
+			Set<String> packages = new HashSet<String>();
+			Enumeration<? extends ZipEntry> entries = jarFile.entries();
+			while (entries.hasMoreElements())
+			{
+				packages.add(IndexedClassPath.getPackage(entries.nextElement().getName()));
+			}
+
+			return packages;
+		}
+		finally
+		{
+			try
+			{
+				jarFile.close();
+			}
+			catch (IOException ex) {}
+		}
+	}
+}
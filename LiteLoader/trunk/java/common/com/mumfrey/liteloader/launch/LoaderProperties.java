@@ -88,13 +88,29 @@ public interface LoaderProperties
 	public static final String OPTION_NO_HIDE_TAB       = "tabAlwaysExpanded";
 	public static final String OPTION_BRAND             = "brand";
 	public static final String OPTION_LOADING_BAR       = "loadingbar";
+	public static final String OPTION_LOADING_BAR_FPS   = "loadingbarMaxFps";
 	public static final String OPTION_FORCE_UPDATE      = "allowForceUpdate";
 	public static final String OPTION_UPDATE_CHECK_INTR = "updateCheckInterval";
+	public static final String OPTION_UPDATE_CACHE_TTL  = "updateCheckCacheMinutes";
 	public static final String OPTION_JINPUT_DISABLE    = "disableJInput";
+	public static final String OPTION_JINPUT_THREAD     = "jinputPollThread";
+	public static final String OPTION_JINPUT_POLL_RATE  = "jinputPollRate";
+	public static final String OPTION_CONCURRENT_INIT   = "concurrentModInit";
+	public static final String OPTION_CONCURRENT_THREADS = "concurrentModInitThreads";
+	public static final String OPTION_LISTENER_TIMINGS  = "listenerTimings";
+	public static final String OPTION_LISTENER_REPORT   = "listenerTimingsReportSeconds";
+	public static final String OPTION_TICK_WATCHDOG     = "serverTickWatchdog";
+	public static final String OPTION_TICK_WATCHDOG_MS  = "serverTickWatchdogMillis";
+	public static final String OPTION_TICK_DEFER_INTR   = "serverTickDeferInterval";
+	public static final String OPTION_CONCURRENT_TICK   = "concurrentServerTick";
+	public static final String OPTION_CONCURRENT_TICK_THREADS = "concurrentServerTickThreads";
+	public static final String OPTION_STORE_LOCALS      = "storeLocalVariableTables";
+	public static final String OPTION_CACHE_MOD_EVENTS  = "cacheModEvents";
 
 	// Enumerator properties
 	public static final String OPTION_SEARCH_MODS       = "search.mods";
 	public static final String OPTION_SEARCH_CLASSPATH  = "search.classpath";
 	public static final String OPTION_SEARCH_JARFILES   = "search.jarfiles";
 	public static final String OPTION_FORCE_INJECTION   = "forceInjection";
+	public static final String OPTION_INDEXED_CLASSPATH = "indexedClassPath";
 }
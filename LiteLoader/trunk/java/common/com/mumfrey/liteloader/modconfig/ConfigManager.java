@@ -2,10 +2,14 @@ package com.mumfrey.liteloader.modconfig;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import com.google.common.base.Strings;
 import com.google.common.io.Files;
@@ -13,7 +17,9 @@ import com.mumfrey.liteloader.Configurable;
 import com.mumfrey.liteloader.LiteMod;
 
 /**
- * Registry where we keep the mod config panel classes and config file writers
+ * Registry where we keep the mod config panel classes and config file writers. Access to the registry is
+ * synchronised since thread-safe mods may register exposables from their init method on a worker thread. The
+ * tick only takes the lock when a latent write is pending.
  *
  * @author Adam Mummery-Smith
  */
@@ -34,10 +40,15 @@ public class ConfigManager
 	 */
 	private List<ExposableConfigWriter> configWriterList = new LinkedList<ExposableConfigWriter>();
 	
+	/**
+	 * Config writers which have been invalidated but not yet written, checked by onTick without locking
+	 */
+	private final Set<ExposableConfigWriter> pendingWriters = Collections.newSetFromMap(new ConcurrentHashMap<ExposableConfigWriter, Boolean>());
+	
 	/**
 	 * Register a mod, adds the config panel class to the map if the mod implements Configurable
 	 */
-	public void registerMod(LiteMod mod)
+	public synchronized void registerMod(LiteMod mod)
 	{
 		if (mod instanceof Configurable)
 		{
@@ -53,7 +64,7 @@ public class ConfigManager
 	 * @param fallbackFileName
 	 * @param ignoreMissingConfigAnnotation
 	 */
-	public void registerExposable(Exposable exposable, String fallbackFileName, boolean ignoreMissingConfigAnnotation)
+	public synchronized void registerExposable(Exposable exposable, String fallbackFileName, boolean ignoreMissingConfigAnnotation)
 	{
 		ExposableOptions options = exposable.getClass().<ExposableOptions>getAnnotation(ExposableOptions.class);
 		if (options != null)
@@ -104,7 +115,7 @@ public class ConfigManager
 	 * @param newConfigPath
 	 * @param oldConfigPath
 	 */
-	public void migrateModConfig(LiteMod mod, File newConfigPath, File oldConfigPath)
+	public synchronized void migrateModConfig(LiteMod mod, File newConfigPath, File oldConfigPath)
 	{
 		if (this.configWriters.containsKey(mod))
 		{
@@ -134,7 +145,7 @@ public class ConfigManager
 	 * 
 	 * @param modClass
 	 */
-	public boolean hasPanel(Class<? extends LiteMod> modClass)
+	public synchronized boolean hasPanel(Class<? extends LiteMod> modClass)
 	{
 		return modClass != null && this.configPanels.containsKey(modClass);
 	}
@@ -144,7 +155,7 @@ public class ConfigManager
 	 * 
 	 * @param modClass
 	 */
-	public ConfigPanel getPanel(Class<? extends LiteMod> modClass)
+	public synchronized ConfigPanel getPanel(Class<? extends LiteMod> modClass)
 	{
 		if (modClass != null && this.configPanels.containsKey(modClass))
 		{
@@ -167,7 +178,7 @@ public class ConfigManager
 	 * 
 	 * @param exposable
 	 */
-	public void initConfig(Exposable exposable)
+	public synchronized void initConfig(Exposable exposable)
 	{
 		if (this.configWriters.containsKey(exposable))
 		{
@@ -181,34 +192,48 @@ public class ConfigManager
 	 * 
 	 * @param exposable
 	 */
-	public void invalidateConfig(Exposable exposable)
+	public synchronized void invalidateConfig(Exposable exposable)
 	{
 		if (this.configWriters.containsKey(exposable))
 		{
-			this.configWriters.get(exposable).invalidate();
+			ExposableConfigWriter writer = this.configWriters.get(exposable);
+			writer.invalidate();
+			if (writer.isDirty())
+			{
+				this.pendingWriters.add(writer);
+			}
 		}
 	}
 	
 	/**
-	 * Tick all of the configuration writers, handles latent writes for anti-hammer strategy
+	 * Tick the configuration writers which have latent writes pending for anti-hammer strategy
 	 */
 	public void onTick()
 	{
-		for (ExposableConfigWriter writer : this.configWriterList)
+		if (this.pendingWriters.isEmpty()) return;
+		
+		synchronized (this)
 		{
-			writer.onTick();
+			for (Iterator<ExposableConfigWriter> iter = this.pendingWriters.iterator(); iter.hasNext();)
+			{
+				ExposableConfigWriter writer = iter.next();
+				writer.onTick();
+				if (!writer.isDirty()) iter.remove();
+			}
 		}
 	}
 	
 	/**
-	 * Force all mod configs to be flushed to disk
+	 * Force all mod configs to be flushed to disk, only called on shutdown
 	 */
-	public void syncConfig()
+	public synchronized void syncConfig()
 	{
 		for (ExposableConfigWriter writer : this.configWriterList)
 		{
 			writer.sync();
 		}
+		
+		this.pendingWriters.clear();
 	}
 	
 	/**
@@ -0,0 +1,154 @@
+package com.mumfrey.liteloader.permissions;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+import net.eq2online.permissions.ReplicatedPermissionsContainer;
+
+/**
+ * Effective permissions for a set of permission groups. The merged rules are compiled into a {@link Permission}
+ * tree for evaluation on the server, and the replication response for each mod is encoded once and shared by
+ * every player who belongs to the same set of groups.
+ *
+ * @author Adam Mummery-Smith
+ */
+public class GroupPermissions implements Permissions
+{
+	/**
+	 * Groups which make up this permission set, in order of precedence
+	 */
+	private final String groupKey;
+
+	/**
+	 * Merged rules, permission name to value, later groups override earlier ones
+	 */
+	private final Map<String, Boolean> rules;
+
+	/**
+	 * Compiled permission tree
+	 */
+	private final Permission root = new Permission();
+
+	/**
+	 * Time in seconds that clients should cache the replicated permissions for
+	 */
+	private final long remoteCacheTimeSeconds;
+
+	/**
+	 * Maximum number of encoded responses to cache, mod names come from client queries so responses for any
+	 * further mods are encoded on each request instead of growing the cache
+	 */
+	private static final int MAX_CACHED_RESPONSES = 256;
+
+	/**
+	 * Encoded replication responses, by mod name
+	 */
+	private final Map<String, byte[]> encodedResponses = new ConcurrentHashMap<String, byte[]>();
+
+	/**
+	 * @param groupKey
+	 * @param rules
+	 * @param remoteCacheTimeSeconds
+	 */
+	GroupPermissions(String groupKey, Map<String, Boolean> rules, long remoteCacheTimeSeconds)
+	{
+		this.groupKey = groupKey;
+		this.rules = rules;
+		this.remoteCacheTimeSeconds = remoteCacheTimeSeconds;
+
+		for (Map.Entry<String, Boolean> rule : rules.entrySet())
+		{
+			this.root.setPermissionAndValue(rule.getKey(), rule.getValue().booleanValue());
+		}
+	}
+
+	/**
+	 * Get the groups which make up this permission set
+	 */
+	public String getGroupKey()
+	{
+		return this.groupKey;
+	}
+
+	/* (non-Javadoc)
+	 * @see com.mumfrey.liteloader.permissions.Permissions#getPermissionSet(java.lang.String)
+	 */
+	@Override
+	public boolean getPermissionSet(String permission)
+	{
+		return this.root.getPermission(permission) != null;
+	}
+
+	/* (non-Javadoc)
+	 * @see com.mumfrey.liteloader.permissions.Permissions#getHasPermission(java.lang.String)
+	 */
+	@Override
+	public boolean getHasPermission(String permission)
+	{
+		Permission perm = this.root.getPermission(permission);
+		return perm != null && perm.getValue();
+	}
+
+	/* (non-Javadoc)
+	 * @see com.mumfrey.liteloader.permissions.Permissions#getHasPermission(java.lang.String, boolean)
+	 */
+	@Override
+	public boolean getHasPermission(String permission, boolean defaultValue)
+	{
+		Permission perm = this.root.getPermission(permission);
+		return perm != null ? perm.getValue() : defaultValue;
+	}
+
+	/**
+	 * Get the serialised replication response for the specified mod, the response contains every rule in the
+	 * mod's namespace plus any wildcard rules which cover it
+	 *
+	 * @param modName
+	 */
+	public byte[] getEncodedResponse(String modName)
+	{
+		byte[] response = this.encodedResponses.get(modName);
+		if (response == null)
+		{
+			ReplicatedPermissionsContainer container = new ReplicatedPermissionsContainer(modName, 0.0F, this.getRulesFor(modName));
+			container.remoteCacheTimeSeconds = this.remoteCacheTimeSeconds;
+			response = container.getBytes();
+			if (this.encodedResponses.size() < GroupPermissions.MAX_CACHED_RESPONSES)
+			{
+				this.encodedResponses.put(modName, response);
+			}
+		}
+
+		return response;
+	}
+
+	/**
+	 * @param modName
+	 */
+	private Set<String> getRulesFor(String modName)
+	{
+		String namespace = PermissionsManagerClient.formatModPermission(modName, "");
+		Set<String> modRules = new TreeSet<String>();
+
+		for (Map.Entry<String, Boolean> rule : this.rules.entrySet())
+		{
+			String name = rule.getKey();
+			boolean wildcardCovers = name.endsWith("*") && namespace.startsWith(name.substring(0, name.length() - 1));
+
+			if (name.startsWith(namespace) || wildcardCovers)
+			{
+				modRules.add((rule.getValue().booleanValue() ? "+" : "-") + name);
+			}
+		}
+
+		return modRules;
+	}
+
+	@Override
+	public String toString()
+	{
+		return String.format("GroupPermissions[%s]", this.groupKey);
+	}
+}
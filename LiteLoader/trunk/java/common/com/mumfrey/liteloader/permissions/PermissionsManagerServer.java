@@ -1,66 +1,338 @@
 package com.mumfrey.liteloader.permissions;
 
+import io.netty.buffer.Unpooled;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
 
+import net.eq2online.permissions.ReplicatedPermissionsContainer;
 import net.minecraft.entity.player.EntityPlayerMP;
 import net.minecraft.network.PacketBuffer;
+import net.minecraft.server.MinecraftServer;
 
 import com.mumfrey.liteloader.Permissible;
 import com.mumfrey.liteloader.ServerPluginChannelListener;
 import com.mumfrey.liteloader.common.GameEngine;
+import com.mumfrey.liteloader.core.LiteLoader;
+import com.mumfrey.liteloader.core.PluginChannels.ChannelPolicy;
+import com.mumfrey.liteloader.core.ServerPluginChannels;
+import com.mumfrey.liteloader.util.log.LiteLoaderLogger;
 
 /**
- * TODO implementation
- * 
+ * This class manages permissions on the server, it answers the permission queries sent by
+ * {@link PermissionsManagerClient} using the permission groups defined in the server permissions file. The file is
+ * polled for changes while the server is running and clients are sent their updated permissions when it changes.
+ * If the file does not exist then queries are not answered and clients fall back to their local permissions.
+ *
  * @author Adam Mummery-Smith
  */
 public class PermissionsManagerServer implements PermissionsManager, ServerPluginChannelListener
 {
+	/**
+	 * Name of the permissions file in the common config folder
+	 */
+	public static final String PERMISSIONS_FILE = "liteloader.permissions.json";
+
+	/**
+	 * Interval in ticks at which the permissions file is checked for changes
+	 */
+	private static final int CHECK_INTERVAL_TICKS = 40;
+
+	/**
+	 * Maximum size of a query payload, queries are sent by clients so anything larger is rejected unread
+	 */
+	private static final int MAX_QUERY_SIZE = 4096;
+
+	/**
+	 * Maximum number of mods tracked for each player, queries for further mods are answered but not tracked
+	 */
+	private static final int MAX_QUERIED_MODS = 64;
+
+	/**
+	 * Mod names must be valid permission nodes since they form the namespace of the mod's permissions
+	 */
+	private static final Pattern modNamePattern = Pattern.compile("^([a-z0-9]+\\.)*[a-z0-9]+$", Pattern.CASE_INSENSITIVE);
+
+	/**
+	 * Maximum length of a mod name in a query
+	 */
+	private static final int MAX_MOD_NAME_LENGTH = 64;
+
+	/**
+	 * Permissions file, resolved when the server starts
+	 */
+	private File permissionsFile;
+
+	/**
+	 * Modification time of the loaded permissions file
+	 */
+	private long fileModifiedTime = 0L;
+
+	/**
+	 * Time the permissions were last loaded
+	 */
+	private long loadedTime = 0L;
+
+	private int ticksSinceCheck = 0;
+
+	/**
+	 * Currently loaded groups, null if no permissions file is loaded
+	 */
+	private volatile ServerPermissionGroups groups;
+
+	/**
+	 * Mods each connected player has queried permissions for, so that updated permissions can be sent when the
+	 * permissions file changes
+	 */
+	private final Map<UUID, Set<String>> queriedMods = new ConcurrentHashMap<UUID, Set<String>>();
+
+	/**
+	 * Objects which listen to events generated by this object
+	 */
+	private final Set<Permissible> permissibles = Collections.synchronizedSet(new HashSet<Permissible>());
+
 	public PermissionsManagerServer()
 	{
 	}
-	
+
+	/* (non-Javadoc)
+	 * @see com.mumfrey.liteloader.api.Listener#getName()
+	 */
 	@Override
 	public String getName()
 	{
+		// Stub for ServerPluginChannelListener interface
 		return null;
 	}
-	
+
+	/**
+	 * Called when the server starts, loads the permissions file
+	 */
+	public void onServerStartup()
+	{
+		this.permissionsFile = new File(LiteLoader.getCommonConfigFolder(), PermissionsManagerServer.PERMISSIONS_FILE);
+		this.queriedMods.clear();
+		this.fileModifiedTime = 0L;
+		this.ticksSinceCheck = 0;
+		this.reload();
+	}
+
+	/**
+	 * Called every server tick, checks the permissions file for changes and pushes the new permissions to
+	 * clients when it changes
+	 *
+	 * @param server
+	 */
+	public void onServerTick(MinecraftServer server)
+	{
+		if (this.permissionsFile == null || ++this.ticksSinceCheck < PermissionsManagerServer.CHECK_INTERVAL_TICKS) return;
+		this.ticksSinceCheck = 0;
+
+		if (this.permissionsFile.lastModified() != this.fileModifiedTime)
+		{
+			this.reload();
+			this.sendUpdatedPermissions(server);
+		}
+	}
+
+	/**
+	 * Called when a player disconnects
+	 *
+	 * @param player
+	 */
+	public void onPlayerLogout(EntityPlayerMP player)
+	{
+		UUID playerId = player.getGameProfile().getId();
+		if (playerId != null)
+		{
+			this.queriedMods.remove(playerId);
+		}
+	}
+
+	/**
+	 * Load the permissions file, the previous groups are kept if the file exists but cannot be parsed
+	 */
+	private void reload()
+	{
+		this.fileModifiedTime = this.permissionsFile.lastModified();
+
+		if (!this.permissionsFile.isFile())
+		{
+			if (this.groups != null)
+			{
+				LiteLoaderLogger.info("Server permissions file %s was removed, permission queries will no longer be answered", this.permissionsFile.getName());
+			}
+
+			this.groups = null;
+			return;
+		}
+
+		ServerPermissionGroups groups = ServerPermissionGroups.load(this.permissionsFile);
+		if (groups == null) return;
+
+		LiteLoaderLogger.info("Loaded server permissions from %s", this.permissionsFile.getName());
+		this.groups = groups;
+		this.loadedTime = System.currentTimeMillis();
+
+		synchronized (this.permissibles)
+		{
+			for (Permissible permissible : this.permissibles)
+				permissible.onPermissionsChanged(this);
+		}
+	}
+
+	/**
+	 * Send the current permissions to every connected player for each mod they have previously queried
+	 *
+	 * @param server
+	 */
+	@SuppressWarnings("unchecked")
+	private void sendUpdatedPermissions(MinecraftServer server)
+	{
+		ServerPermissionGroups groups = this.groups;
+		if (groups == null || server == null || server.getConfigurationManager() == null) return;
+
+		for (EntityPlayerMP player : (List<EntityPlayerMP>)server.getConfigurationManager().playerEntityList)
+		{
+			UUID playerId = player.getGameProfile().getId();
+			Set<String> mods = playerId != null ? this.queriedMods.get(playerId) : null;
+			if (mods == null) continue;
+
+			GroupPermissions permissions = groups.getPermissions(player.getGameProfile());
+			synchronized (mods)
+			{
+				for (String modName : mods)
+					this.sendResponse(player, permissions.getEncodedResponse(modName));
+			}
+		}
+	}
+
+	/* (non-Javadoc)
+	 * @see com.mumfrey.liteloader.ServerPluginChannelListener#onCustomPayload(net.minecraft.entity.player.EntityPlayerMP, java.lang.String, net.minecraft.network.PacketBuffer)
+	 */
 	@Override
 	public void onCustomPayload(EntityPlayerMP sender, String channel, PacketBuffer data)
 	{
+		ServerPermissionGroups groups = this.groups;
+		if (groups == null || !ReplicatedPermissionsContainer.CHANNEL.equals(channel)) return;
+
+		ReplicatedPermissionsContainer query = ReplicatedPermissionsContainer.fromPacketBuffer(data, PermissionsManagerServer.MAX_QUERY_SIZE);
+		if (query == null) return;
+		query.sanitise();
+
+		if (query.modName.length() > PermissionsManagerServer.MAX_MOD_NAME_LENGTH || !PermissionsManagerServer.modNamePattern.matcher(query.modName).matches())
+		{
+			LiteLoaderLogger.debug("Ignoring permissions query with invalid mod name from %s", sender.getGameProfile().getName());
+			return;
+		}
+
+		UUID playerId = sender.getGameProfile().getId();
+		if (playerId != null)
+		{
+			Set<String> mods = this.queriedMods.get(playerId);
+			if (mods == null)
+			{
+				mods = Collections.synchronizedSet(new HashSet<String>());
+				this.queriedMods.put(playerId, mods);
+			}
+
+			synchronized (mods)
+			{
+				if (mods.size() < PermissionsManagerServer.MAX_QUERIED_MODS)
+				{
+					mods.add(query.modName);
+				}
+			}
+		}
+
+		GroupPermissions permissions = groups.getPermissions(sender.getGameProfile());
+		this.sendResponse(sender, permissions.getEncodedResponse(query.modName));
 	}
-	
+
+	/**
+	 * @param recipient
+	 * @param response
+	 */
+	private void sendResponse(EntityPlayerMP recipient, byte[] response)
+	{
+		if (response.length == 0) return;
+
+		PacketBuffer buffer = new PacketBuffer(Unpooled.wrappedBuffer(response));
+		ServerPluginChannels.sendMessage(recipient, ReplicatedPermissionsContainer.CHANNEL, buffer, ChannelPolicy.DISPATCH_ALWAYS);
+	}
+
+	/**
+	 * Get the permissions for the specified player
+	 *
+	 * @param player
+	 * @return player's permissions or null if no permissions file is loaded
+	 */
+	public Permissions getPermissions(EntityPlayerMP player)
+	{
+		ServerPermissionGroups groups = this.groups;
+		return groups != null ? groups.getPermissions(player.getGameProfile()) : null;
+	}
+
+	/* (non-Javadoc)
+	 * @see com.mumfrey.liteloader.permissions.PermissionsManager#getPermissions(com.mumfrey.liteloader.Permissible)
+	 */
 	@Override
 	public Permissions getPermissions(Permissible mod)
 	{
-		return null;
+		ServerPermissionGroups groups = this.groups;
+		return groups != null ? groups.getDefaultPermissions() : null;
 	}
-	
+
+	/* (non-Javadoc)
+	 * @see com.mumfrey.liteloader.permissions.PermissionsManager#getPermissionUpdateTime(com.mumfrey.liteloader.Permissible)
+	 */
 	@Override
 	public Long getPermissionUpdateTime(Permissible mod)
 	{
-		return null;
+		return this.groups != null ? this.loadedTime : 0L;
 	}
 
+	/* (non-Javadoc)
+	 * @see com.mumfrey.liteloader.permissions.PermissionsManager#onTick(com.mumfrey.liteloader.common.GameEngine, float, boolean)
+	 */
 	@Override
 	public void onTick(GameEngine<?, ?> engine, float partialTicks, boolean inGame)
 	{
+		// Server permissions are ticked by onServerTick
 	}
-	
+
+	/* (non-Javadoc)
+	 * @see com.mumfrey.liteloader.ServerPluginChannelListener#getChannels()
+	 */
 	@Override
 	public List<String> getChannels()
 	{
-		return null;
+		return Arrays.asList(new String[] { ReplicatedPermissionsContainer.CHANNEL });
 	}
-	
+
+	/* (non-Javadoc)
+	 * @see com.mumfrey.liteloader.permissions.PermissionsManager#registerPermissible(com.mumfrey.liteloader.Permissible)
+	 */
 	@Override
 	public void registerPermissible(Permissible permissible)
 	{
+		this.permissibles.add(permissible);
 	}
-	
+
+	/* (non-Javadoc)
+	 * @see com.mumfrey.liteloader.permissions.PermissionsManager#tamperCheck()
+	 */
 	@Override
 	public void tamperCheck()
 	{
+		// The server is the authority, nothing to check
 	}
 }
@@ -0,0 +1,273 @@
+package com.mumfrey.liteloader.permissions;
+
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import com.google.gson.Gson;
+import com.google.gson.annotations.SerializedName;
+import com.mojang.authlib.GameProfile;
+import com.mumfrey.liteloader.util.log.LiteLoaderLogger;
+
+/**
+ * Permission groups loaded from the server permissions file. Instances of this class are created by
+ * deserialising the file with JSON and are not modified once loaded, a changed file produces a new instance.
+ *
+ * <pre>
+ * {
+ *     "remoteCacheTimeSeconds": 600,
+ *     "groups": {
+ *         "default": [ "+mod.all.*", "-mod.minimap.cavemap" ],
+ *         "admins":  [ "+mod.*" ]
+ *     },
+ *     "players": {
+ *         "Mumfrey": [ "admins" ]
+ *     }
+ * }
+ * </pre>
+ *
+ * Players can be specified by name or UUID, every player is a member of the "default" group. When groups
+ * assign conflicting values to a permission the group declared last wins, the default group always has the
+ * lowest precedence.
+ *
+ * @author Adam Mummery-Smith
+ */
+class ServerPermissionGroups
+{
+	private static final Gson gson = new Gson();
+
+	/**
+	 * Group which all players belong to
+	 */
+	static final String DEFAULT_GROUP = "default";
+
+	/**
+	 * Same as the pattern used by the client to parse replicated permissions, with an optional sign
+	 */
+	private static final Pattern permissionPattern = Pattern.compile("^([\\+\\-]?)(([a-z0-9]+\\.)*[a-z0-9\\*]+)$", Pattern.CASE_INSENSITIVE);
+
+	@SerializedName("remoteCacheTimeSeconds")
+	private long remoteCacheTimeSeconds = 600L;
+
+	@SerializedName("groups")
+	private LinkedHashMap<String, List<String>> groups;
+
+	@SerializedName("players")
+	private Map<String, List<String>> players;
+
+	/**
+	 * Parsed group rules, in declaration order
+	 */
+	private transient Map<String, Map<String, Boolean>> groupRules;
+
+	/**
+	 * Group declaration order, used to order each player's groups by precedence
+	 */
+	private transient Map<String, Integer> groupOrder;
+
+	/**
+	 * Player name (lower case) or UUID to group names
+	 */
+	private transient Map<String, List<String>> playerGroups;
+
+	/**
+	 * Compiled permissions for each distinct group set
+	 */
+	private transient Map<String, GroupPermissions> compiled;
+
+	/**
+	 * Load and parse the specified file
+	 *
+	 * @param file
+	 * @return parsed groups or null if the file could not be read
+	 */
+	static ServerPermissionGroups load(File file)
+	{
+		FileReader reader = null;
+
+		try
+		{
+			reader = new FileReader(file);
+			ServerPermissionGroups groups = ServerPermissionGroups.gson.fromJson(reader, ServerPermissionGroups.class);
+			if (groups == null) groups = new ServerPermissionGroups();
+			groups.parse();
+			return groups;
+		}
+		catch (Exception ex)
+		{
+			LiteLoaderLogger.warning(ex, "Error reading server permissions from %s", file.getName());
+		}
+		finally
+		{
+			try
+			{
+				if (reader != null) reader.close();
+			}
+			catch (IOException ex) {}
+		}
+
+		return null;
+	}
+
+	private void parse()
+	{
+		if (this.remoteCacheTimeSeconds < 0) this.remoteCacheTimeSeconds = 600L;
+
+		this.groupRules = new LinkedHashMap<String, Map<String, Boolean>>();
+		this.groupOrder = new LinkedHashMap<String, Integer>();
+		this.playerGroups = new LinkedHashMap<String, List<String>>();
+		this.compiled = new ConcurrentHashMap<String, GroupPermissions>();
+
+		if (this.groups != null)
+		{
+			for (Map.Entry<String, List<String>> group : this.groups.entrySet())
+			{
+				String groupName = group.getKey().toLowerCase(Locale.ENGLISH);
+				Map<String, Boolean> rules = new LinkedHashMap<String, Boolean>();
+
+				if (group.getValue() != null)
+				{
+					for (String rule : group.getValue())
+					{
+						Matcher permissionMatcher = rule != null ? ServerPermissionGroups.permissionPattern.matcher(rule.trim()) : null;
+						if (permissionMatcher == null || !permissionMatcher.matches())
+						{
+							LiteLoaderLogger.warning("Ignoring invalid permission \"%s\" in group %s", rule, groupName);
+							continue;
+						}
+
+						rules.put(permissionMatcher.group(2), Boolean.valueOf(!"-".equals(permissionMatcher.group(1))));
+					}
+				}
+
+				this.groupOrder.put(groupName, Integer.valueOf(this.groupOrder.size()));
+				this.groupRules.put(groupName, rules);
+			}
+		}
+
+		if (this.players != null)
+		{
+			for (Map.Entry<String, List<String>> player : this.players.entrySet())
+			{
+				List<String> groupNames = new ArrayList<String>();
+				if (player.getValue() != null)
+				{
+					for (String groupName : player.getValue())
+					{
+						groupName = groupName != null ? groupName.toLowerCase(Locale.ENGLISH) : null;
+						if (!this.groupRules.containsKey(groupName))
+						{
+							LiteLoaderLogger.warning("Player %s is assigned to unknown permission group %s", player.getKey(), groupName);
+							continue;
+						}
+
+						groupNames.add(groupName);
+					}
+				}
+
+				this.playerGroups.put(player.getKey().toLowerCase(Locale.ENGLISH), groupNames);
+			}
+		}
+	}
+
+	long getRemoteCacheTimeSeconds()
+	{
+		return this.remoteCacheTimeSeconds;
+	}
+
+	/**
+	 * Get the permissions which apply to the specified player, players with the same groups share the same
+	 * instance
+	 *
+	 * @param profile
+	 */
+	GroupPermissions getPermissions(GameProfile profile)
+	{
+		List<String> groupNames = null;
+
+		if (profile != null)
+		{
+			if (profile.getId() != null)
+			{
+				groupNames = this.playerGroups.get(profile.getId().toString().toLowerCase(Locale.ENGLISH));
+			}
+
+			if (groupNames == null && profile.getName() != null)
+			{
+				groupNames = this.playerGroups.get(profile.getName().toLowerCase(Locale.ENGLISH));
+			}
+		}
+
+		return this.getPermissions(groupNames != null ? groupNames : Collections.<String>emptyList());
+	}
+
+	/**
+	 * Get the permissions for the default group
+	 */
+	GroupPermissions getDefaultPermissions()
+	{
+		return this.getPermissions(Collections.<String>emptyList());
+	}
+
+	/**
+	 * @param groupNames
+	 */
+	private GroupPermissions getPermissions(List<String> groupNames)
+	{
+		String groupKey = this.getGroupKey(groupNames);
+		GroupPermissions permissions = this.compiled.get(groupKey);
+
+		if (permissions == null)
+		{
+			Map<String, Boolean> rules = new LinkedHashMap<String, Boolean>();
+			for (String groupName : groupKey.split(","))
+			{
+				Map<String, Boolean> groupRules = this.groupRules.get(groupName);
+				if (groupRules != null)
+				{
+					rules.putAll(groupRules);
+				}
+			}
+
+			permissions = new GroupPermissions(groupKey, rules, this.remoteCacheTimeSeconds);
+			this.compiled.put(groupKey, permissions);
+		}
+
+		return permissions;
+	}
+
+	/**
+	 * Get a key which identifies the set of groups, groups are ordered by precedence and the default group is
+	 * always first
+	 *
+	 * @param groupNames
+	 */
+	private String getGroupKey(List<String> groupNames)
+	{
+		boolean[] members = new boolean[this.groupOrder.size()];
+		for (String groupName : groupNames)
+		{
+			members[this.groupOrder.get(groupName).intValue()] = true;
+		}
+
+		StringBuilder groupKey = new StringBuilder(ServerPermissionGroups.DEFAULT_GROUP);
+		for (String groupName : this.groupOrder.keySet())
+		{
+			if (members[this.groupOrder.get(groupName).intValue()] && !ServerPermissionGroups.DEFAULT_GROUP.equals(groupName))
+			{
+				groupKey.append(',').append(groupName);
+			}
+		}
+
+		return groupKey.toString();
+	}
+}
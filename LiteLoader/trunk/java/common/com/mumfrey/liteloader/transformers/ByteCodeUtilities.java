@@ -1,5 +1,6 @@
 package com.mumfrey.liteloader.transformers;
 
+import java.io.File;
 import java.io.IOException;
 import java.lang.annotation.Annotation;
 import java.util.ArrayList;
@@ -7,6 +8,7 @@ import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.WeakHashMap;
 
 import net.minecraft.launchwrapper.IClassTransformer;
 import net.minecraft.launchwrapper.Launch;
@@ -30,7 +32,18 @@ import com.mumfrey.liteloader.core.runtime.Obf;
  */
 public abstract class ByteCodeUtilities
 {
-	private static Map<String, List<LocalVariableNode>> calculatedLocalVariables = new HashMap<String, List<LocalVariableNode>>();
+	/**
+	 * Generated local variable tables, grouped by the class being transformed. The generated tables reference labels
+	 * which are inserted into the method, so a table must never be generated twice for the same method instance. The
+	 * tables for a class are therefore kept for as long as its class node is reachable rather than being evicted
+	 * while the class is still being transformed.
+	 */
+	private static final Map<ClassNode, Map<MethodNode, List<LocalVariableNode>>> calculatedLocalVariables = new WeakHashMap<ClassNode, Map<MethodNode, List<LocalVariableNode>>>();
+	
+	/**
+	 * Optional persistent store for generated local variable tables
+	 */
+	private static LocalVariableTableStore localVariableStore;
 	
 	private ByteCodeUtilities() {}
 
@@ -320,22 +333,78 @@ public abstract class ByteCodeUtilities
 	{
 		if (method.localVariables.isEmpty())
 		{
-			String signature = String.format("%s.%s%s", classNode.name, method.name, method.desc);
-			
-			List<LocalVariableNode> localVars = ByteCodeUtilities.calculatedLocalVariables.get(signature);
-			if (localVars != null)
+			synchronized (ByteCodeUtilities.calculatedLocalVariables)
 			{
+				Map<MethodNode, List<LocalVariableNode>> classLocalVars = ByteCodeUtilities.calculatedLocalVariables.get(classNode);
+				if (classLocalVars == null)
+				{
+					classLocalVars = new HashMap<MethodNode, List<LocalVariableNode>>();
+					ByteCodeUtilities.calculatedLocalVariables.put(classNode, classLocalVars);
+				}
+				
+				List<LocalVariableNode> localVars = classLocalVars.get(method);
+				if (localVars != null)
+				{
+					return localVars;
+				}
+				
+				LocalVariableTableStore store = ByteCodeUtilities.localVariableStore;
+				if (store != null)
+				{
+					long hash = LocalVariableTableStore.hash(classNode, method);
+					localVars = store.get(classNode, method, hash);
+					if (localVars == null)
+					{
+						int methodSize = method.instructions.size();
+						Map<LabelNode, Integer> labelPositions = new HashMap<LabelNode, Integer>();
+						localVars = ByteCodeUtilities.generateLocalVariableTable(classNode, method, labelPositions);
+						store.put(classNode, method, hash, methodSize, localVars, labelPositions);
+					}
+				}
+				else
+				{
+					localVars = ByteCodeUtilities.generateLocalVariableTable(classNode, method);
+				}
+				
+				classLocalVars.put(method, localVars);
 				return localVars;
 			}
-			
-			localVars = ByteCodeUtilities.generateLocalVariableTable(classNode, method);
-			ByteCodeUtilities.calculatedLocalVariables.put(signature, localVars);
-			return localVars;
 		}
 		
 		return method.localVariables;
 	}
 	
+	/**
+	 * Store generated local variable tables in the specified file so that they don't need to be generated again
+	 * on subsequent launches, tables are only reused if the method and its class hierarchy are unchanged
+	 * 
+	 * @param storeFile
+	 */
+	public static void setLocalVariableStore(File storeFile)
+	{
+		synchronized (ByteCodeUtilities.calculatedLocalVariables)
+		{
+			ByteCodeUtilities.localVariableStore = storeFile != null ? new LocalVariableTableStore(storeFile) : null;
+		}
+	}
+	
+	/**
+	 * Called when startup is complete, most classes which require local variable tables have been transformed
+	 * by this point so the cached tables are released and the persistent store (if any) is written
+	 */
+	public static void onStartupComplete()
+	{
+		synchronized (ByteCodeUtilities.calculatedLocalVariables)
+		{
+			ByteCodeUtilities.calculatedLocalVariables.clear();
+			
+			if (ByteCodeUtilities.localVariableStore != null)
+			{
+				ByteCodeUtilities.localVariableStore.save();
+			}
+		}
+	}
+	
 	/**
 	 * Use ASM Analyzer to generate the local variable table for the specified method
 	 * 
@@ -343,6 +412,18 @@ public abstract class ByteCodeUtilities
 	 * @param method Method
 	 */
 	public static List<LocalVariableNode> generateLocalVariableTable(ClassNode classNode, MethodNode method)
+	{
+		return ByteCodeUtilities.generateLocalVariableTable(classNode, method, null);
+	}
+	
+	/**
+	 * Use ASM Analyzer to generate the local variable table for the specified method
+	 * 
+	 * @param classNode Containing class
+	 * @param method Method
+	 * @param labelPositions Map to populate with the original position of each generated label, can be null
+	 */
+	private static List<LocalVariableNode> generateLocalVariableTable(ClassNode classNode, MethodNode method, Map<LabelNode, Integer> labelPositions)
 	{
 		List<Type> interfaces = null;
 		if (classNode.interfaces != null)
@@ -436,6 +517,7 @@ public abstract class ByteCodeUtilities
 				{
 					label = new LabelNode();
 					method.instructions.add(label);
+					if (labelPositions != null) labelPositions.put(label, Integer.valueOf(methodSize));
 				}
 				
 				localNodes[k].end = label;
@@ -449,6 +531,7 @@ public abstract class ByteCodeUtilities
 			if (labels[n] != null)
 			{
 				method.instructions.insert(method.instructions.get(n), labels[n]);
+				if (labelPositions != null) labelPositions.put(labels[n], Integer.valueOf(n));
 			}
 		}
 		
@@ -0,0 +1,199 @@
+package com.mumfrey.liteloader.transformers;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import net.minecraft.launchwrapper.IClassNameTransformer;
+import net.minecraft.launchwrapper.IClassTransformer;
+import net.minecraft.launchwrapper.Launch;
+
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.Opcodes;
+
+import com.google.common.io.ByteStreams;
+
+/**
+ * Index of the class hierarchy built from raw class bytes, used by {@link IsolatedClassWriter} to find common
+ * superclasses without loading (and therefore transforming) the classes involved. Only the class header is
+ * read from each class and the results are cached for the life of the process.
+ *
+ * The index is only used when no class name transformer is registered, since the names of the classes being
+ * transformed would not match the names of their resources otherwise.
+ *
+ * @author Adam Mummery-Smith
+ */
+class ClassHierarchy
+{
+	private static final String OBJECT = "java/lang/Object";
+
+	/**
+	 * Header information for a single class
+	 */
+	static final class Entry
+	{
+		final String name;
+
+		final String superName;
+
+		final String[] interfaces;
+
+		final boolean isInterface;
+
+		/**
+		 * All supertypes of this class including the class itself, resolved on demand
+		 */
+		volatile Set<String> supertypes;
+
+		Entry(String name, String superName, String[] interfaces, boolean isInterface)
+		{
+			this.name = name;
+			this.superName = superName;
+			this.interfaces = interfaces;
+			this.isInterface = isInterface;
+		}
+	}
+
+	/**
+	 * Marker for classes whose bytes could not be found
+	 */
+	private static final Entry MISSING = new Entry(null, null, null, false);
+
+	private final Map<String, Entry> entries = new ConcurrentHashMap<String, Entry>();
+
+	/**
+	 * Get whether class names seen by transformers are the same as their resource names
+	 */
+	static boolean isAvailable()
+	{
+		if (Launch.classLoader == null) return false;
+
+		for (IClassTransformer transformer : Launch.classLoader.getTransformers())
+		{
+			if (transformer instanceof IClassNameTransformer) return false;
+		}
+
+		return true;
+	}
+
+	/**
+	 * Find the common superclass of the two types, using the same rules as {@link
+	 * org.objectweb.asm.ClassWriter#getCommonSuperClass}
+	 *
+	 * @param type1 internal name of the first type
+	 * @param type2 internal name of the second type
+	 * @return internal name of the common superclass, or null if part of the hierarchy could not be read
+	 */
+	String getCommonSuperClass(String type1, String type2)
+	{
+		Set<String> supertypes2 = this.getSupertypes(type2);
+		if (supertypes2 == null) return null;
+		if (supertypes2.contains(type1)) return type1;
+
+		Set<String> supertypes1 = this.getSupertypes(type1);
+		if (supertypes1 == null) return null;
+		if (supertypes1.contains(type2)) return type2;
+
+		Entry class1 = this.get(type1);
+		if (class1.isInterface || this.get(type2).isInterface) return ClassHierarchy.OBJECT;
+
+		for (String superName = class1.superName; superName != null; superName = this.get(superName).superName)
+		{
+			if (supertypes2.contains(superName)) return superName;
+		}
+
+		return ClassHierarchy.OBJECT;
+	}
+
+	/**
+	 * Get all supertypes of the specified type including the type itself
+	 *
+	 * @param type
+	 * @return supertypes, or null if part of the hierarchy could not be read
+	 */
+	private Set<String> getSupertypes(String type)
+	{
+		Entry entry = this.get(type);
+		if (entry == null) return null;
+
+		Set<String> supertypes = entry.supertypes;
+		if (supertypes == null)
+		{
+			supertypes = new HashSet<String>();
+			supertypes.add(type);
+
+			if (entry.superName != null)
+			{
+				Set<String> superSupertypes = this.getSupertypes(entry.superName);
+				if (superSupertypes == null) return null;
+				supertypes.addAll(superSupertypes);
+			}
+
+			for (String iface : entry.interfaces)
+			{
+				Set<String> ifaceSupertypes = this.getSupertypes(iface);
+				if (ifaceSupertypes == null) return null;
+				supertypes.addAll(ifaceSupertypes);
+			}
+
+			entry.supertypes = supertypes = Collections.unmodifiableSet(supertypes);
+		}
+
+		return supertypes;
+	}
+
+	/**
+	 * @param type internal name
+	 * @return entry for the type, or null if the class bytes could not be found
+	 */
+	private Entry get(String type)
+	{
+		Entry entry = this.entries.get(type);
+		if (entry == null)
+		{
+			entry = ClassHierarchy.MISSING;
+			byte[] bytes = ClassHierarchy.getClassBytes(type);
+			if (bytes != null)
+			{
+				ClassReader classReader = new ClassReader(bytes);
+				boolean isInterface = (classReader.getAccess() & Opcodes.ACC_INTERFACE) != 0;
+				entry = new Entry(type, classReader.getSuperName(), classReader.getInterfaces(), isInterface);
+			}
+
+			this.entries.put(type, entry);
+		}
+
+		return entry != ClassHierarchy.MISSING ? entry : null;
+	}
+
+	private static byte[] getClassBytes(String type)
+	{
+		try
+		{
+			byte[] bytes = Launch.classLoader.getClassBytes(type.replace('/', '.'));
+			if (bytes != null) return bytes;
+
+			// JRE classes are not visible to the launch class loader's own resources
+			InputStream stream = ClassLoader.getSystemResourceAsStream(type + ".class");
+			if (stream != null)
+			{
+				try
+				{
+					return ByteStreams.toByteArray(stream);
+				}
+				finally
+				{
+					stream.close();
+				}
+			}
+		}
+		catch (IOException ex) {}
+		catch (RuntimeException ex) {}
+
+		return null;
+	}
+}
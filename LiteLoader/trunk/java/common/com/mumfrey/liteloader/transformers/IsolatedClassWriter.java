@@ -4,12 +4,16 @@ import org.objectweb.asm.ClassReader;
 import org.objectweb.asm.ClassWriter;
 
 /**
- * ClassWriter isolated from ASM so that it exists in the LaunchClassLoader
+ * ClassWriter isolated from ASM so that it exists in the LaunchClassLoader. Common superclasses are resolved
+ * from the raw class bytes where possible so that computing frames does not load the classes involved, which
+ * would otherwise cause them to be transformed early and out of order.
  * 
  * @author Adam Mummery-Smith
  */
 public class IsolatedClassWriter extends ClassWriter
 {
+	private static final ClassHierarchy hierarchy = new ClassHierarchy();
+	
 	public IsolatedClassWriter(int flags)
 	{
 		super(flags);
@@ -19,4 +23,22 @@ public class IsolatedClassWriter extends ClassWriter
 	{
 		super(classReader, flags);
 	}
+	
+	/* (non-Javadoc)
+	 * @see org.objectweb.asm.ClassWriter#getCommonSuperClass(java.lang.String, java.lang.String)
+	 */
+	@Override
+	protected String getCommonSuperClass(String type1, String type2)
+	{
+		if (ClassHierarchy.isAvailable())
+		{
+			String commonSuperClass = IsolatedClassWriter.hierarchy.getCommonSuperClass(type1, type2);
+			if (commonSuperClass != null)
+			{
+				return commonSuperClass;
+			}
+		}
+		
+		return super.getCommonSuperClass(type1, type2);
+	}
 }
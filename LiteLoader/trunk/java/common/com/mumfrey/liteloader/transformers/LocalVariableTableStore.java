@@ -0,0 +1,419 @@
+package com.mumfrey.liteloader.transformers;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.objectweb.asm.tree.AbstractInsnNode;
+import org.objectweb.asm.tree.ClassNode;
+import org.objectweb.asm.tree.FieldInsnNode;
+import org.objectweb.asm.tree.IincInsnNode;
+import org.objectweb.asm.tree.InsnList;
+import org.objectweb.asm.tree.IntInsnNode;
+import org.objectweb.asm.tree.InvokeDynamicInsnNode;
+import org.objectweb.asm.tree.JumpInsnNode;
+import org.objectweb.asm.tree.LabelNode;
+import org.objectweb.asm.tree.LdcInsnNode;
+import org.objectweb.asm.tree.LocalVariableNode;
+import org.objectweb.asm.tree.LookupSwitchInsnNode;
+import org.objectweb.asm.tree.MethodInsnNode;
+import org.objectweb.asm.tree.MethodNode;
+import org.objectweb.asm.tree.MultiANewArrayInsnNode;
+import org.objectweb.asm.tree.TableSwitchInsnNode;
+import org.objectweb.asm.tree.TryCatchBlockNode;
+import org.objectweb.asm.tree.TypeInsnNode;
+import org.objectweb.asm.tree.VarInsnNode;
+
+import com.mumfrey.liteloader.util.log.LiteLoaderLogger;
+
+/**
+ * Persistent store for generated local variable tables. Tables are stored with the positions of their labels
+ * and a hash of the method and its class, so that a table is only reused when the method is unchanged. Loading a
+ * stored table inserts its labels into the method in exactly the same way as generating it would.
+ *
+ * @author Adam Mummery-Smith
+ */
+class LocalVariableTableStore
+{
+	private static final int FORMAT_VERSION = 1;
+
+	/**
+	 * Upper bound for the number of locals in a stored table, a method can't have more local slots than this
+	 */
+	private static final int MAX_LOCALS = 0xFFFF;
+
+	/**
+	 * A stored local variable table
+	 */
+	static final class Entry
+	{
+		final long hash;
+
+		/**
+		 * Number of instructions in the method before the labels were inserted
+		 */
+		final int methodSize;
+
+		final int[] indexes;
+
+		final String[] descs;
+
+		/**
+		 * Label positions, a label at position n is inserted after instruction n, a label at methodSize is
+		 * appended to the method
+		 */
+		final int[] starts;
+
+		final int[] ends;
+
+		Entry(long hash, int methodSize, int size)
+		{
+			this.hash = hash;
+			this.methodSize = methodSize;
+			this.indexes = new int[size];
+			this.descs = new String[size];
+			this.starts = new int[size];
+			this.ends = new int[size];
+		}
+	}
+
+	private final File file;
+
+	private final Map<String, Entry> entries = new HashMap<String, Entry>();
+
+	private boolean dirty;
+
+	LocalVariableTableStore(File file)
+	{
+		this.file = file;
+		this.load();
+	}
+
+	/**
+	 * Get the stored table for the method, if one exists and the method is unchanged
+	 *
+	 * @param classNode
+	 * @param method
+	 * @param hash hash from {@link #hash}
+	 * @return the table with its labels inserted into the method, or null if there is no matching table
+	 */
+	synchronized List<LocalVariableNode> get(ClassNode classNode, MethodNode method, long hash)
+	{
+		Entry entry = this.entries.get(LocalVariableTableStore.getKey(classNode, method));
+		if (entry == null || entry.hash != hash || entry.methodSize != method.instructions.size())
+		{
+			return null;
+		}
+
+		Map<Integer, LabelNode> labels = new HashMap<Integer, LabelNode>();
+		List<LocalVariableNode> localVariables = new ArrayList<LocalVariableNode>(entry.indexes.length);
+		for (int local = 0; local < entry.indexes.length; local++)
+		{
+			int index = entry.indexes[local];
+			LabelNode start = LocalVariableTableStore.getLabel(labels, entry.starts[local]);
+			LabelNode end = LocalVariableTableStore.getLabel(labels, entry.ends[local]);
+			localVariables.add(new LocalVariableNode("var" + index, entry.descs[local], null, start, end, index));
+		}
+
+		LabelNode endLabel = labels.get(Integer.valueOf(entry.methodSize));
+		if (endLabel != null)
+		{
+			method.instructions.add(endLabel);
+		}
+
+		for (int pos = entry.methodSize - 1; pos >= 0; pos--)
+		{
+			LabelNode label = labels.get(Integer.valueOf(pos));
+			if (label != null)
+			{
+				method.instructions.insert(method.instructions.get(pos), label);
+			}
+		}
+
+		return localVariables;
+	}
+
+	/**
+	 * Store a generated table
+	 *
+	 * @param classNode
+	 * @param method
+	 * @param hash hash from {@link #hash}, calculated before the table was generated
+	 * @param methodSize number of instructions in the method before the table was generated
+	 * @param localVariables generated table
+	 * @param labelPositions positions of the generated labels
+	 */
+	synchronized void put(ClassNode classNode, MethodNode method, long hash, int methodSize, List<LocalVariableNode> localVariables, Map<LabelNode, Integer> labelPositions)
+	{
+		Entry entry = new Entry(hash, methodSize, localVariables.size());
+		for (int local = 0; local < entry.indexes.length; local++)
+		{
+			LocalVariableNode localVariable = localVariables.get(local);
+			entry.indexes[local] = localVariable.index;
+			entry.descs[local] = localVariable.desc;
+			entry.starts[local] = labelPositions.get(localVariable.start).intValue();
+			entry.ends[local] = labelPositions.get(localVariable.end).intValue();
+		}
+
+		this.entries.put(LocalVariableTableStore.getKey(classNode, method), entry);
+		this.dirty = true;
+	}
+
+	private void load()
+	{
+		if (!this.file.isFile()) return;
+
+		DataInputStream in = null;
+		try
+		{
+			in = new DataInputStream(new BufferedInputStream(new FileInputStream(this.file)));
+			if (in.readInt() != LocalVariableTableStore.FORMAT_VERSION) return;
+
+			int count = LocalVariableTableStore.readBounded(in, Integer.MAX_VALUE);
+			for (int entryIndex = 0; entryIndex < count; entryIndex++)
+			{
+				String key = in.readUTF();
+				long hash = in.readLong();
+				int methodSize = LocalVariableTableStore.readBounded(in, Integer.MAX_VALUE);
+				Entry entry = new Entry(hash, methodSize, LocalVariableTableStore.readBounded(in, LocalVariableTableStore.MAX_LOCALS));
+				for (int local = 0; local < entry.indexes.length; local++)
+				{
+					entry.indexes[local] = LocalVariableTableStore.readBounded(in, LocalVariableTableStore.MAX_LOCALS);
+					entry.descs[local] = in.readBoolean() ? in.readUTF() : null;
+					entry.starts[local] = LocalVariableTableStore.readBounded(in, methodSize);
+					entry.ends[local] = LocalVariableTableStore.readBounded(in, methodSize);
+				}
+
+				this.entries.put(key, entry);
+			}
+
+			LiteLoaderLogger.debug("Loaded %d stored local variable tables from %s", count, this.file.getName());
+		}
+		catch (IOException ex)
+		{
+			LiteLoaderLogger.warning("Could not read stored local variable tables from %s, the tables will be regenerated", this.file.getName());
+			this.entries.clear();
+		}
+		catch (RuntimeException ex)
+		{
+			LiteLoaderLogger.warning("Stored local variable tables in %s are corrupt, the tables will be regenerated", this.file.getName());
+			this.entries.clear();
+		}
+		finally
+		{
+			LocalVariableTableStore.close(in);
+		}
+	}
+
+	/**
+	 * Write the store to disk if any tables were added
+	 */
+	synchronized void save()
+	{
+		if (!this.dirty) return;
+
+		DataOutputStream out = null;
+		try
+		{
+			out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(this.file)));
+			out.writeInt(LocalVariableTableStore.FORMAT_VERSION);
+			out.writeInt(this.entries.size());
+			for (Map.Entry<String, Entry> storedEntry : this.entries.entrySet())
+			{
+				Entry entry = storedEntry.getValue();
+				out.writeUTF(storedEntry.getKey());
+				out.writeLong(entry.hash);
+				out.writeInt(entry.methodSize);
+				out.writeInt(entry.indexes.length);
+				for (int local = 0; local < entry.indexes.length; local++)
+				{
+					out.writeInt(entry.indexes[local]);
+					out.writeBoolean(entry.descs[local] != null);
+					if (entry.descs[local] != null) out.writeUTF(entry.descs[local]);
+					out.writeInt(entry.starts[local]);
+					out.writeInt(entry.ends[local]);
+				}
+			}
+
+			this.dirty = false;
+		}
+		catch (IOException ex)
+		{
+			LiteLoaderLogger.warning(ex, "Could not write stored local variable tables to %s", this.file.getName());
+		}
+		finally
+		{
+			LocalVariableTableStore.close(out);
+		}
+	}
+
+	/**
+	 * Read an int and check that it is in the range 0 to max inclusive
+	 * 
+	 * @throws IOException if the value is out of range
+	 */
+	private static int readBounded(DataInputStream in, int max) throws IOException
+	{
+		int value = in.readInt();
+		if (value < 0 || value > max)
+		{
+			throw new IOException("Invalid value " + value + " in local variable table store");
+		}
+
+		return value;
+	}
+
+	private static LabelNode getLabel(Map<Integer, LabelNode> labels, int pos)
+	{
+		LabelNode label = labels.get(Integer.valueOf(pos));
+		if (label == null)
+		{
+			label = new LabelNode();
+			labels.put(Integer.valueOf(pos), label);
+		}
+
+		return label;
+	}
+
+	private static String getKey(ClassNode classNode, MethodNode method)
+	{
+		return classNode.name + "." + method.name + method.desc;
+	}
+
+	private static void close(Closeable stream)
+	{
+		try
+		{
+			if (stream != null) stream.close();
+		}
+		catch (IOException ex) {}
+	}
+
+	/**
+	 * Calculate a hash of everything which affects the generated table: the method's instructions, exception
+	 * handlers and locals and the class hierarchy seen by the verifier
+	 *
+	 * @param classNode
+	 * @param method
+	 */
+	static long hash(ClassNode classNode, MethodNode method)
+	{
+		long hash = 0xcbf29ce484222325L;
+		hash = LocalVariableTableStore.mix(hash, classNode.name);
+		hash = LocalVariableTableStore.mix(hash, classNode.superName);
+		if (classNode.interfaces != null)
+		{
+			for (String iface : classNode.interfaces)
+			{
+				hash = LocalVariableTableStore.mix(hash, iface);
+			}
+		}
+
+		hash = LocalVariableTableStore.mix(hash, method.access);
+		hash = LocalVariableTableStore.mix(hash, method.maxLocals);
+
+		InsnList insns = method.instructions;
+		for (AbstractInsnNode insn = insns.getFirst(); insn != null; insn = insn.getNext())
+		{
+			hash = LocalVariableTableStore.mix(hash, insn.getType());
+			hash = LocalVariableTableStore.mix(hash, insn.getOpcode());
+
+			switch (insn.getType())
+			{
+				case AbstractInsnNode.INT_INSN:
+					hash = LocalVariableTableStore.mix(hash, ((IntInsnNode)insn).operand);
+					break;
+				case AbstractInsnNode.VAR_INSN:
+					hash = LocalVariableTableStore.mix(hash, ((VarInsnNode)insn).var);
+					break;
+				case AbstractInsnNode.TYPE_INSN:
+					hash = LocalVariableTableStore.mix(hash, ((TypeInsnNode)insn).desc);
+					break;
+				case AbstractInsnNode.FIELD_INSN:
+					FieldInsnNode fieldInsn = (FieldInsnNode)insn;
+					hash = LocalVariableTableStore.mix(LocalVariableTableStore.mix(LocalVariableTableStore.mix(hash, fieldInsn.owner), fieldInsn.name), fieldInsn.desc);
+					break;
+				case AbstractInsnNode.METHOD_INSN:
+					MethodInsnNode methodInsn = (MethodInsnNode)insn;
+					hash = LocalVariableTableStore.mix(LocalVariableTableStore.mix(LocalVariableTableStore.mix(hash, methodInsn.owner), methodInsn.name), methodInsn.desc);
+					break;
+				case AbstractInsnNode.INVOKE_DYNAMIC_INSN:
+					InvokeDynamicInsnNode indyInsn = (InvokeDynamicInsnNode)insn;
+					hash = LocalVariableTableStore.mix(LocalVariableTableStore.mix(hash, indyInsn.name), indyInsn.desc);
+					break;
+				case AbstractInsnNode.JUMP_INSN:
+					hash = LocalVariableTableStore.mix(hash, insns.indexOf(((JumpInsnNode)insn).label));
+					break;
+				case AbstractInsnNode.LDC_INSN:
+					Object cst = ((LdcInsnNode)insn).cst;
+					hash = LocalVariableTableStore.mix(LocalVariableTableStore.mix(hash, cst.getClass().getName()), cst.toString());
+					break;
+				case AbstractInsnNode.IINC_INSN:
+					hash = LocalVariableTableStore.mix(LocalVariableTableStore.mix(hash, ((IincInsnNode)insn).var), ((IincInsnNode)insn).incr);
+					break;
+				case AbstractInsnNode.TABLESWITCH_INSN:
+					TableSwitchInsnNode tableSwitch = (TableSwitchInsnNode)insn;
+					hash = LocalVariableTableStore.mix(LocalVariableTableStore.mix(hash, tableSwitch.min), tableSwitch.max);
+					hash = LocalVariableTableStore.mix(hash, insns.indexOf(tableSwitch.dflt));
+					for (LabelNode label : tableSwitch.labels) hash = LocalVariableTableStore.mix(hash, insns.indexOf(label));
+					break;
+				case AbstractInsnNode.LOOKUPSWITCH_INSN:
+					LookupSwitchInsnNode lookupSwitch = (LookupSwitchInsnNode)insn;
+					hash = LocalVariableTableStore.mix(hash, insns.indexOf(lookupSwitch.dflt));
+					for (Integer key : lookupSwitch.keys) hash = LocalVariableTableStore.mix(hash, key.intValue());
+					for (LabelNode label : lookupSwitch.labels) hash = LocalVariableTableStore.mix(hash, insns.indexOf(label));
+					break;
+				case AbstractInsnNode.MULTIANEWARRAY_INSN:
+					MultiANewArrayInsnNode multiANewArray = (MultiANewArrayInsnNode)insn;
+					hash = LocalVariableTableStore.mix(LocalVariableTableStore.mix(hash, multiANewArray.desc), multiANewArray.dims);
+					break;
+				default:
+					break;
+			}
+		}
+
+		if (method.tryCatchBlocks != null)
+		{
+			for (TryCatchBlockNode tryCatch : method.tryCatchBlocks)
+			{
+				hash = LocalVariableTableStore.mix(hash, insns.indexOf(tryCatch.start));
+				hash = LocalVariableTableStore.mix(hash, insns.indexOf(tryCatch.end));
+				hash = LocalVariableTableStore.mix(hash, insns.indexOf(tryCatch.handler));
+				hash = LocalVariableTableStore.mix(hash, tryCatch.type);
+			}
+		}
+
+		return hash;
+	}
+
+	private static long mix(long hash, int value)
+	{
+		return (hash ^ value) * 0x100000001b3L;
+	}
+
+	private static long mix(long hash, String value)
+	{
+		if (value == null)
+		{
+			return LocalVariableTableStore.mix(hash, -1);
+		}
+
+		hash = LocalVariableTableStore.mix(hash, value.length());
+		for (int pos = 0; pos < value.length(); pos++)
+		{
+			hash = LocalVariableTableStore.mix(hash, value.charAt(pos));
+		}
+
+		return hash;
+	}
+}
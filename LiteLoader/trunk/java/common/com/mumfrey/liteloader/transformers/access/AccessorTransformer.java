@@ -2,8 +2,12 @@ package com.mumfrey.liteloader.transformers.access;
 
 import java.io.IOException;
 import java.util.ArrayList;
-import java.util.Iterator;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -466,15 +470,31 @@ public abstract class AccessorTransformer extends ClassTransformer
 	}
 	
 	/**
-	 * List of accessors to inject
+	 * All accessor transformers, used to report accessors which were never applied
+	 */
+	private static final Set<AccessorTransformer> instances = Collections.newSetFromMap(new WeakHashMap<AccessorTransformer, Boolean>());
+	
+	/**
+	 * List of accessors which have not been applied yet
 	 */
 	private final List<AccessorInjection> accessors = new ArrayList<AccessorInjection>();
 	
+	/**
+	 * Accessors which have not been applied yet, indexed by both the obfuscated and deobfuscated name of the
+	 * target class so that classes which are not targetted cost a single lookup
+	 */
+	private final Map<String, List<AccessorInjection>> accessorsByTarget = new HashMap<String, List<AccessorInjection>>();
+	
 	/**
 	 * ctor
 	 */
 	public AccessorTransformer()
 	{
+		synchronized (AccessorTransformer.instances)
+		{
+			AccessorTransformer.instances.add(this);
+		}
+		
 		this.addAccessors();
 	}
 	
@@ -496,7 +516,15 @@ public abstract class AccessorTransformer extends ClassTransformer
 	{
 		try
 		{
-			this.accessors.add(new AccessorInjection(interfaceName, obfProvider));
+			AccessorInjection accessor = new AccessorInjection(interfaceName, obfProvider);
+			this.accessors.add(accessor);
+			
+			Obf target = accessor.getTarget();
+			this.addTarget(target.obf, accessor);
+			if (!target.name.equals(target.obf))
+			{
+				this.addTarget(target.name, accessor);
+			}
 		}
 		catch (Exception ex)
 		{
@@ -534,22 +562,71 @@ public abstract class AccessorTransformer extends ClassTransformer
 	 */
 	public ClassNode apply(String name, String transformedName, byte[] basicClass, ClassNode classNode)
 	{
-		for (Iterator<AccessorInjection> iter = this.accessors.iterator(); iter.hasNext(); )
+		List<AccessorInjection> targetAccessors = this.accessorsByTarget.remove(transformedName);
+		if (targetAccessors == null)
+		{
+			return classNode;
+		}
+		
+		for (AccessorInjection accessor : targetAccessors)
 		{
-			AccessorInjection accessor = iter.next();
+			// Remove the entry for the accessor's other target name
 			Obf target = accessor.getTarget();
-			if (target.obf.equals(transformedName) || target.name.equals(transformedName))
-			{
-				LiteLoaderLogger.debug("[AccessorTransformer] Processing access injections in %s", transformedName);
-				if (classNode == null) classNode = this.readClass(basicClass, true);
-				accessor.apply(classNode);
-				iter.remove();
-			}
+			this.removeTarget(target.obf.equals(transformedName) ? target.name : target.obf, accessor);
+			this.accessors.remove(accessor);
+			
+			LiteLoaderLogger.debug("[AccessorTransformer] Processing access injections in %s", transformedName);
+			if (classNode == null) classNode = this.readClass(basicClass, true);
+			accessor.apply(classNode);
 		}
 		
 		return classNode;
 	}
 	
+	private void addTarget(String targetName, AccessorInjection accessor)
+	{
+		List<AccessorInjection> targetAccessors = this.accessorsByTarget.get(targetName);
+		if (targetAccessors == null)
+		{
+			targetAccessors = new ArrayList<AccessorInjection>();
+			this.accessorsByTarget.put(targetName, targetAccessors);
+		}
+		
+		targetAccessors.add(accessor);
+	}
+	
+	private void removeTarget(String targetName, AccessorInjection accessor)
+	{
+		List<AccessorInjection> targetAccessors = this.accessorsByTarget.get(targetName);
+		if (targetAccessors != null)
+		{
+			targetAccessors.remove(accessor);
+			if (targetAccessors.isEmpty())
+			{
+				this.accessorsByTarget.remove(targetName);
+			}
+		}
+	}
+	
+	/**
+	 * Write the accessors which have not been applied to the log, an accessor is not applied until its target
+	 * class is loaded
+	 */
+	public static void logPendingAccessors()
+	{
+		synchronized (AccessorTransformer.instances)
+		{
+			for (AccessorTransformer transformer : AccessorTransformer.instances)
+			{
+				for (AccessorInjection accessor : transformer.accessors)
+				{
+					Obf target = accessor.getTarget();
+					LiteLoaderLogger.info("Accessor %s was not applied because target class %s (%s) has not been loaded", accessor.iface, target.name, target.obf);
+				}
+			}
+		}
+	}
+	
 	/**
 	 * Subclasses should add their accessors here
 	 */
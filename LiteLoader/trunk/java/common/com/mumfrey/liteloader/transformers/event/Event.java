@@ -1,7 +1,9 @@
 package com.mumfrey.liteloader.transformers.event;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -33,11 +35,16 @@ public class Event implements Comparable<Event>
 	private static int eventOrder = 0;
 	
 	/**
-	 * All the events which exist and their registered listeners
+	 * All the events which exist and their registered listeners, by (lowercase) name
 	 */
-	private static final Set<Event> events = new HashSet<Event>();
+	private static final Map<String, Event> events = new HashMap<String, Event>();
 	
 	private static final List<Map<MethodNode, List<Event>>> proxyHandlerMethods = new ArrayList<Map<MethodNode, List<Event>>>();
+	
+	/**
+	 * Events for each handler method in all proxies
+	 */
+	private static final Map<MethodNode, List<Event>> handlerMethodEvents = new HashMap<MethodNode, List<Event>>();
 
 	private static int proxyInnerClassIndex = 1;
 	
@@ -95,6 +102,12 @@ public class Event implements Comparable<Event>
 	protected String eventInfoClass;
 	
 	protected Set<MethodInfo> pendingInjections;
+	
+	/**
+	 * Pending injections indexed by owner and method name, each injection is indexed under every owner and name
+	 * which {@link MethodInfo#matches} accepts
+	 */
+	private Map<String, List<MethodInfo>> pendingInjectionsByMethod;
 
 	private int injectionCount = 0;
 
@@ -108,12 +121,12 @@ public class Event implements Comparable<Event>
 		this.cancellable = cancellable;
 		this.verbose = true;
 		
-		if (Event.events.contains(this))
+		if (Event.events.containsKey(this.name))
 		{
 			throw new IllegalArgumentException("Event " + name + " is already defined");
 		}
 		
-		Event.events.add(this);
+		Event.events.put(this.name, this);
 	}
 	
 	/**
@@ -256,31 +269,93 @@ public class Event implements Comparable<Event>
 		if (this.pendingInjections == null)
 		{
 			this.pendingInjections = new HashSet<MethodInfo>();
+			this.pendingInjectionsByMethod = new HashMap<String, List<MethodInfo>>();
 		}
 		
-		this.pendingInjections.add(targetMethod);
+		if (this.pendingInjections.add(targetMethod))
+		{
+			for (String key : Event.getMethodKeys(targetMethod))
+			{
+				List<MethodInfo> injections = this.pendingInjectionsByMethod.get(key);
+				if (injections == null)
+				{
+					injections = new ArrayList<MethodInfo>(1);
+					this.pendingInjectionsByMethod.put(key, injections);
+				}
+				
+				injections.add(targetMethod);
+			}
+		}
 	}
 	
 	void notifyInjected(String method, String desc, String className)
 	{
-		MethodInfo thisInjection = null;
+		if (this.pendingInjectionsByMethod == null) return;
 		
-		if (this.pendingInjections != null)
+		List<MethodInfo> injections = this.pendingInjectionsByMethod.get(className + "." + method);
+		if (injections == null) return;
+		
+		for (MethodInfo pendingInjection : injections)
 		{
-			for (MethodInfo pendingInjection : this.pendingInjections)
+			if (pendingInjection.matches(method, desc, className))
 			{
-				if (pendingInjection.matches(method, desc, className))
+				this.pendingInjections.remove(pendingInjection);
+				for (String key : Event.getMethodKeys(pendingInjection))
 				{
-					thisInjection = pendingInjection;
-					break;
+					List<MethodInfo> keyInjections = this.pendingInjectionsByMethod.get(key);
+					if (keyInjections != null && keyInjections.remove(pendingInjection) && keyInjections.isEmpty())
+					{
+						this.pendingInjectionsByMethod.remove(key);
+					}
 				}
+				
+				return;
 			}
 		}
-		
-		if (thisInjection != null)
+	}
+	
+	/**
+	 * Get the keys a pending injection is indexed under, owner and method name for the mcp, srg and obfuscated
+	 * names
+	 * 
+	 * @param method
+	 */
+	private static Set<String> getMethodKeys(MethodInfo method)
+	{
+		Set<String> keys = new HashSet<String>(4);
+		keys.add(method.ownerRef + "." + method.name);
+		keys.add(method.ownerRef + "." + method.nameSrg);
+		keys.add(method.ownerObf + "." + method.nameObf);
+		return keys;
+	}
+	
+	/**
+	 * Get the number of injection points this event has been injected at
+	 */
+	public int getInjectionCount()
+	{
+		return this.injectionCount;
+	}
+	
+	/**
+	 * Get the target methods this event has been registered for but not yet injected into
+	 */
+	public Set<MethodInfo> getPendingInjections()
+	{
+		if (this.pendingInjections == null)
 		{
-			this.pendingInjections.remove(thisInjection);
+			return Collections.<MethodInfo>emptySet();
 		}
+		
+		return Collections.<MethodInfo>unmodifiableSet(this.pendingInjections);
+	}
+	
+	/**
+	 * Get whether this event has been injected into every target method it was registered for
+	 */
+	public boolean isFullyInjected()
+	{
+		return this.injectionCount > 0 && this.getPendingInjections().isEmpty();
 	}
 	
 	int dumpInjectionState()
@@ -324,10 +399,11 @@ public class Event implements Comparable<Event>
 	 * @param injectionPoint Point to inject code, new instructions will be injected directly ahead of the specifed insn
 	 * @param cancellable Cancellable flag, if true then the cancellation code (conditional return) will be injected as well
 	 * @param globalEventID Global event ID, used to map a callback to the relevant event handler delegate method in EventProxy
+	 * @param exclusive True if this is the only event being injected at this point, guard code is only injected for exclusive events
 	 * 
 	 * @return MethodNode for the event handler delegate
 	 */
-	final MethodNode inject(final AbstractInsnNode injectionPoint, boolean cancellable, final int globalEventID, final boolean captureLocals, final Type[] locals)
+	final MethodNode inject(final AbstractInsnNode injectionPoint, boolean cancellable, final int globalEventID, final boolean captureLocals, final Type[] locals, final boolean exclusive)
 	{
 		// Pre-flight checks
 		this.validate(injectionPoint, cancellable, globalEventID);
@@ -361,6 +437,10 @@ public class Event implements Comparable<Event>
 			insns.add(new VarInsnNode(this.methodReturnType.getOpcode(Opcodes.ISTORE), marshallVar));
 		}
 		
+		// Skip the event entirely if the guard condition fails, this happens before anything is allocated
+		LabelNode skipEvent = new LabelNode();
+		int guardMAXS = exclusive ? this.injectGuardCode(insns, skipEvent) : 0;
+		
 		// Instance the EventInfo for this event
 		insns.add(new TypeInsnNode(Opcodes.NEW, this.eventInfoClass)); ctorMAXS++;
 		insns.add(new InsnNode(Opcodes.DUP)); ctorMAXS++; invokeMAXS++;
@@ -382,9 +462,14 @@ public class Event implements Comparable<Event>
 			this.injectCancellationCode(insns, injectionPoint, marshallVar);
 		}
 		
+		if (guardMAXS > 0)
+		{
+			insns.add(skipEvent);
+		}
+		
 		// Inject our generated code into the method
 		this.method.instructions.insertBefore(injectionPoint, insns);
-		this.method.maxStack = Math.max(this.method.maxStack, Math.max(this.methodMAXS + ctorMAXS, this.methodMAXS + invokeMAXS));
+		this.method.maxStack = Math.max(this.method.maxStack, Math.max(this.methodMAXS + Math.max(ctorMAXS, guardMAXS), this.methodMAXS + invokeMAXS));
 		
 		return handler;
 	}
@@ -423,6 +508,19 @@ public class Event implements Comparable<Event>
 		return ctorMAXS;
 	}
 
+	/**
+	 * Inject a guard condition ahead of the event code, the guard should jump to the supplied label if the event
+	 * should be skipped. Events which are not guarded (the default) always fire.
+	 * 
+	 * @param insns
+	 * @param skipEvent Label to jump to in order to skip the event
+	 * @return stack size required by the guard code, or 0 if no guard code was injected
+	 */
+	protected int injectGuardCode(final InsnList insns, final LabelNode skipEvent)
+	{
+		return 0;
+	}
+
 	protected String getEventInfoClassName()
 	{
 		return EventInfo.getEventInfoClassName(this.methodReturnType).replace('.', '/');
@@ -527,13 +625,17 @@ public class Event implements Comparable<Event>
 	 * 
 	 * @param eventName
 	 */
-	static Event getEvent(String eventName)
+	public static Event getEvent(String eventName)
 	{
-		for (Event event : Event.events)
-			if (event.name.equalsIgnoreCase(eventName))
-				return event;
-		
-		return null;
+		return eventName != null ? Event.events.get(eventName.toLowerCase()) : null;
+	}
+	
+	/**
+	 * Get all events which have been defined
+	 */
+	public static Collection<Event> getEvents()
+	{
+		return Collections.<Event>unmodifiableCollection(Event.events.values());
 	}
 	
 	/**
@@ -627,16 +729,14 @@ public class Event implements Comparable<Event>
 		
 		ArrayList<Event> events = new ArrayList<Event>();
 		Event.proxyHandlerMethods.get(Event.proxyInnerClassIndex).put(handlerMethod, events);
+		Event.handlerMethodEvents.put(handlerMethod, events);
 		return events;
 	}
 	
 	private static List<Event> getEventsForHandlerMethod(MethodNode handlerMethod)
 	{
-		for (Map<MethodNode, List<Event>> handlers : Event.proxyHandlerMethods)
-		{
-			List<Event> events = handlers.get(handlerMethod);
-			if (events != null) return events;
-		}
+		List<Event> events = Event.handlerMethodEvents.get(handlerMethod);
+		if (events != null) return events;
 		
 		return Event.addMethodToActiveProxy(handlerMethod);
 	}
@@ -300,6 +300,7 @@ public final class EventTransformer extends ClassTransformer
 	 */
 	private Map<AbstractInsnNode, Injection> findInjectionPoints(ClassNode classNode, MethodNode method, Map<Event, InjectionPoint> methodInjections)
 	{
+		// All injection points share the read-only list and thus the insn index it builds on demand
 		ReadOnlyInsnList insns = new ReadOnlyInsnList(method.instructions);
 		Collection<AbstractInsnNode> nodes = new ArrayList<AbstractInsnNode>(32);
 		Map<AbstractInsnNode, Injection> injectionPoints = new LinkedHashMap<AbstractInsnNode, Injection>();
@@ -351,6 +352,7 @@ public final class EventTransformer extends ClassTransformer
 			}
 		}
 		
+		insns.dispose();
 		return injectionPoints;
 	}
 
@@ -367,7 +369,7 @@ public final class EventTransformer extends ClassTransformer
 		Verbosity verbosity = head.isVerbose() ? Verbosity.NORMAL : Verbosity.VERBOSE;
 		LiteLoaderLogger.info(verbosity, "Injecting %s[x%d] in %s in %s", head.getName(), injection.size(), method.name, ClassTransformer.getSimpleClassName(classNode));
 		
-		MethodNode handler = head.inject(injectionPoint, injection.isCancellable(), this.globalEventID, injection.captureLocals(), injection.getLocalTypes());
+		MethodNode handler = head.inject(injectionPoint, injection.isCancellable(), this.globalEventID, injection.captureLocals(), injection.getLocalTypes(), injection.size() == 1);
 		injection.addEventsToHandler(handler);
 		
 		this.globalEventID++;
@@ -397,4 +399,4 @@ public final class EventTransformer extends ClassTransformer
 		LiteLoaderLogger.debug("Listed %d injection candidates with %d uninjected", eventCount, uninjectedCount);
 		LiteLoaderLogger.debug(ClassTransformer.HORIZONTAL_RULE);
 	}
-}
\ No newline at end of file
+}
\ No newline at end of file
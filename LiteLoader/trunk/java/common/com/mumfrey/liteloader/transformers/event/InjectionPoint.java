@@ -243,9 +243,10 @@ public abstract class InjectionPoint
 			
 			this.input.find(desc, insns, nodes, event);
 			
+			InsnIndex index = InsnIndex.of(insns);
 			for (int i = 0; i < list.size(); i++)
 			{
-				list.set(i, insns.get(insns.indexOf(list.get(i)) + this.shift));
+				list.set(i, index.get(index.indexOf(list.get(i)) + this.shift));
 			}
 			
 			if (nodes != list)
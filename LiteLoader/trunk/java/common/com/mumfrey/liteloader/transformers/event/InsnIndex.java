@@ -0,0 +1,277 @@
+package com.mumfrey.liteloader.transformers.event;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.Map;
+
+import org.objectweb.asm.tree.AbstractInsnNode;
+import org.objectweb.asm.tree.FieldInsnNode;
+import org.objectweb.asm.tree.InsnList;
+import org.objectweb.asm.tree.LdcInsnNode;
+import org.objectweb.asm.tree.MethodInsnNode;
+import org.objectweb.asm.tree.TypeInsnNode;
+
+/**
+ * Index of the instructions in a method body, built in a single pass over the insn list. The index is shared by
+ * all of the injection points which search the same method so that a method targetted by many events is only
+ * scanned once, injection points query the index to retrieve the (usually very small) set of candidate insns
+ * rather than iterating over the whole method themselves.
+ *
+ * All lists returned by the index are in the order the insns appear in the method and are read-only.
+ *
+ * @author Adam Mummery-Smith
+ */
+public class InsnIndex
+{
+	private final AbstractInsnNode[] insns;
+
+	private final Map<AbstractInsnNode, Integer> positions;
+
+	/**
+	 * Insns by opcode, labels, frames and line numbers have no opcode and are not indexed
+	 */
+	private final List<List<AbstractInsnNode>> byOpcode = new ArrayList<List<AbstractInsnNode>>(256);
+
+	/**
+	 * Insns by insn type, see {@link AbstractInsnNode#getType()}
+	 */
+	private final Map<Integer, List<AbstractInsnNode>> byType = new HashMap<Integer, List<AbstractInsnNode>>();
+
+	/**
+	 * Method and field insns by member name
+	 */
+	private final Map<String, List<AbstractInsnNode>> byMemberName = new HashMap<String, List<AbstractInsnNode>>();
+
+	/**
+	 * Type insns (NEW, ANEWARRAY, CHECKCAST, INSTANCEOF) by type
+	 */
+	private final Map<String, List<AbstractInsnNode>> byTypeDesc = new HashMap<String, List<AbstractInsnNode>>();
+
+	/**
+	 * LDC insns by constant value
+	 */
+	private final Map<Object, List<AbstractInsnNode>> byConstant = new HashMap<Object, List<AbstractInsnNode>>();
+
+	/**
+	 * @param insns
+	 */
+	public InsnIndex(InsnList insns)
+	{
+		this.insns = new AbstractInsnNode[insns.size()];
+		this.positions = new IdentityHashMap<AbstractInsnNode, Integer>(this.insns.length);
+
+		for (int opcode = 0; opcode < 256; opcode++)
+		{
+			this.byOpcode.add(null);
+		}
+
+		int pos = 0;
+		for (ListIterator<AbstractInsnNode> iter = insns.iterator(); iter.hasNext(); pos++)
+		{
+			AbstractInsnNode insn = iter.next();
+			this.insns[pos] = insn;
+			this.positions.put(insn, Integer.valueOf(pos));
+
+			int opcode = insn.getOpcode();
+			if (opcode >= 0 && opcode < 256)
+			{
+				InsnIndex.add(this.byOpcode, opcode, insn);
+			}
+
+			InsnIndex.add(this.byType, Integer.valueOf(insn.getType()), insn);
+
+			if (insn instanceof MethodInsnNode)
+			{
+				InsnIndex.add(this.byMemberName, ((MethodInsnNode)insn).name, insn);
+			}
+			else if (insn instanceof FieldInsnNode)
+			{
+				InsnIndex.add(this.byMemberName, ((FieldInsnNode)insn).name, insn);
+			}
+			else if (insn instanceof TypeInsnNode)
+			{
+				InsnIndex.add(this.byTypeDesc, ((TypeInsnNode)insn).desc, insn);
+			}
+			else if (insn instanceof LdcInsnNode && ((LdcInsnNode)insn).cst != null)
+			{
+				InsnIndex.add(this.byConstant, ((LdcInsnNode)insn).cst, insn);
+			}
+		}
+	}
+
+	/**
+	 * Get the index for the supplied insn list, the index is shared if the list is the read-only list supplied to
+	 * injection points by the event transformer, otherwise a new index is built
+	 *
+	 * @param insns
+	 */
+	public static InsnIndex of(InsnList insns)
+	{
+		if (insns instanceof ReadOnlyInsnList)
+		{
+			return ((ReadOnlyInsnList)insns).getIndex();
+		}
+
+		return new InsnIndex(insns);
+	}
+
+	/**
+	 * Get the number of insns in the method
+	 */
+	public int size()
+	{
+		return this.insns.length;
+	}
+
+	/**
+	 * Get the insn at the specified position
+	 *
+	 * @param index
+	 */
+	public AbstractInsnNode get(int index)
+	{
+		return this.insns[index];
+	}
+
+	/**
+	 * Get the position of the specified insn, or -1 if the insn is not in the method
+	 *
+	 * @param insn
+	 */
+	public int indexOf(AbstractInsnNode insn)
+	{
+		Integer pos = this.positions.get(insn);
+		return pos != null ? pos.intValue() : -1;
+	}
+
+	/**
+	 * Get all insns with the specified opcode
+	 *
+	 * @param opcode
+	 */
+	public List<AbstractInsnNode> getByOpcode(int opcode)
+	{
+		return opcode >= 0 && opcode < 256 ? InsnIndex.readOnly(this.byOpcode.get(opcode)) : Collections.<AbstractInsnNode>emptyList();
+	}
+
+	/**
+	 * Get all insns of the specified type, eg. {@link AbstractInsnNode#JUMP_INSN}
+	 *
+	 * @param type
+	 */
+	public List<AbstractInsnNode> getByType(int type)
+	{
+		return InsnIndex.readOnly(this.byType.get(Integer.valueOf(type)));
+	}
+
+	/**
+	 * Get all method invocations and field accesses referencing members with any of the specified names
+	 *
+	 * @param names
+	 */
+	public List<AbstractInsnNode> getMemberInsns(String... names)
+	{
+		return this.lookup(this.byMemberName, names);
+	}
+
+	/**
+	 * Get all type insns (NEW, ANEWARRAY, CHECKCAST, INSTANCEOF) referencing any of the specified types
+	 *
+	 * @param types internal names of the types
+	 */
+	public List<AbstractInsnNode> getTypeInsns(String... types)
+	{
+		return this.lookup(this.byTypeDesc, types);
+	}
+
+	/**
+	 * Get all LDC insns which load the specified constant
+	 *
+	 * @param constant
+	 */
+	public List<AbstractInsnNode> getConstantInsns(Object constant)
+	{
+		return InsnIndex.readOnly(this.byConstant.get(constant));
+	}
+
+	/**
+	 * Look up insns for several keys and merge them in method order
+	 */
+	private <K> List<AbstractInsnNode> lookup(Map<K, List<AbstractInsnNode>> map, K[] keys)
+	{
+		List<AbstractInsnNode> result = null;
+		boolean merged = false;
+
+		for (K key : keys)
+		{
+			List<AbstractInsnNode> insns = key != null ? map.get(key) : null;
+			if (insns == null || insns == result) continue;
+
+			if (result == null)
+			{
+				result = insns;
+			}
+			else
+			{
+				if (!merged)
+				{
+					result = new ArrayList<AbstractInsnNode>(result);
+					merged = true;
+				}
+
+				for (AbstractInsnNode insn : insns)
+				{
+					if (!result.contains(insn)) result.add(insn);
+				}
+			}
+		}
+
+		if (merged)
+		{
+			Collections.sort(result, new Comparator<AbstractInsnNode>()
+			{
+				@Override
+				public int compare(AbstractInsnNode a, AbstractInsnNode b)
+				{
+					return InsnIndex.this.indexOf(a) - InsnIndex.this.indexOf(b);
+				}
+			});
+		}
+
+		return InsnIndex.readOnly(result);
+	}
+
+	private static <K> void add(Map<K, List<AbstractInsnNode>> map, K key, AbstractInsnNode insn)
+	{
+		List<AbstractInsnNode> insns = map.get(key);
+		if (insns == null)
+		{
+			insns = new ArrayList<AbstractInsnNode>(4);
+			map.put(key, insns);
+		}
+
+		insns.add(insn);
+	}
+
+	private static void add(List<List<AbstractInsnNode>> lists, int index, AbstractInsnNode insn)
+	{
+		List<AbstractInsnNode> insns = lists.get(index);
+		if (insns == null)
+		{
+			insns = new ArrayList<AbstractInsnNode>(4);
+			lists.set(index, insns);
+		}
+
+		insns.add(insn);
+	}
+
+	private static List<AbstractInsnNode> readOnly(List<AbstractInsnNode> insns)
+	{
+		return insns != null ? Collections.unmodifiableList(insns) : Collections.<AbstractInsnNode>emptyList();
+	}
+}
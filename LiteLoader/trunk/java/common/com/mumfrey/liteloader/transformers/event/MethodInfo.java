@@ -170,7 +170,7 @@ public class MethodInfo
 	 * @param desc
 	 * @param descObf
 	 */
-	MethodInfo(String owner, String ownerObf, String name, String nameSrg, String nameObf, String desc, String descObf)
+	public MethodInfo(String owner, String ownerObf, String name, String nameSrg, String nameObf, String desc, String descObf)
 	{
 		this.owner    = owner.replace('/', '.');
 		this.ownerRef = owner.replace('.', '/');
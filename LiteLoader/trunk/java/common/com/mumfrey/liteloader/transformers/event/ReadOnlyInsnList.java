@@ -13,6 +13,11 @@ import org.objectweb.asm.tree.InsnList;
 public class ReadOnlyInsnList extends InsnList
 {
 	private InsnList insnList;
+	
+	/**
+	 * Index of the insns, built on demand and shared by all injection points searching this list 
+	 */
+	private InsnIndex index;
 
 	public ReadOnlyInsnList(InsnList insns)
 	{
@@ -22,6 +27,17 @@ public class ReadOnlyInsnList extends InsnList
 	void dispose()
 	{
 		this.insnList = null;
+		this.index = null;
+	}
+	
+	InsnIndex getIndex()
+	{
+		if (this.index == null)
+		{
+			this.index = new InsnIndex(this.insnList);
+		}
+		
+		return this.index;
 	}
 
 	@Override
@@ -1,7 +1,7 @@
 package com.mumfrey.liteloader.transformers.event.inject;
 
 import java.util.Collection;
-import java.util.ListIterator;
+import java.util.Iterator;
 
 import org.objectweb.asm.tree.AbstractInsnNode;
 import org.objectweb.asm.tree.FieldInsnNode;
@@ -11,6 +11,7 @@ import org.objectweb.asm.tree.MethodInsnNode;
 import com.mumfrey.liteloader.transformers.ClassTransformer;
 import com.mumfrey.liteloader.transformers.event.Event;
 import com.mumfrey.liteloader.transformers.event.InjectionPoint;
+import com.mumfrey.liteloader.transformers.event.InsnIndex;
 import com.mumfrey.liteloader.transformers.event.MethodInfo;
 import com.mumfrey.liteloader.util.log.LiteLoaderLogger;
 
@@ -25,12 +26,15 @@ public class BeforeInvoke extends InjectionPoint
 {
 	protected class InsnInfo
 	{
+		public final AbstractInsnNode insn;
 		public final String owner;
 		public final String name;
 		public final String desc;
 		
 		public InsnInfo(AbstractInsnNode insn)
 		{
+			this.insn = insn;
+			
 			if (insn instanceof MethodInsnNode)
 			{
 				MethodInsnNode methodNode = (MethodInsnNode)insn;
@@ -82,6 +86,12 @@ public class BeforeInvoke extends InjectionPoint
 	
 	protected final String className;
 	
+	/**
+	 * True if this class (or a subclass) overrides {@link #inspectInsn}, in which case every insn in the method
+	 * must be visited instead of only the candidates supplied by the insn index
+	 */
+	private final boolean inspectsInsns = this.overridesInspectInsn();
+	
 	/**
 	 * Match all occurrences of the specified method or methods
 	 * 
@@ -253,7 +263,9 @@ public class BeforeInvoke extends InjectionPoint
 			LiteLoaderLogger.debug(this.className + " is searching for an injection point in method with descriptor %s", desc);
 		}
 		
-		ListIterator<AbstractInsnNode> iter = insns.iterator();
+		// Only insns referencing one of the method names can match, so unless a subclass needs to see every insn we
+		// only need to visit the candidates from the index
+		Iterator<AbstractInsnNode> iter = this.inspectsInsns ? insns.iterator() : InsnIndex.of(insns).getMemberInsns(this.methodNames).iterator();
 		while (iter.hasNext())
 		{
 			AbstractInsnNode insn = iter.next();
@@ -299,11 +311,34 @@ public class BeforeInvoke extends InjectionPoint
 		return insn instanceof MethodInsnNode;
 	}
 
+	/**
+	 * Called for every insn in the method, subclasses which override this method cause the strategy to iterate over
+	 * the entire method instead of using the insn index
+	 * 
+	 * @param desc
+	 * @param insns
+	 * @param insn
+	 */
 	protected void inspectInsn(String desc, InsnList insns, AbstractInsnNode insn)
 	{
 		// stub for subclasses
 	}
 
+	private boolean overridesInspectInsn()
+	{
+		for (Class<?> clazz = this.getClass(); clazz != BeforeInvoke.class; clazz = clazz.getSuperclass())
+		{
+			try
+			{
+				clazz.getDeclaredMethod("inspectInsn", String.class, InsnList.class, AbstractInsnNode.class);
+				return true;
+			}
+			catch (NoSuchMethodException ex) {}
+		}
+		
+		return false;
+	}
+
 	protected boolean matchesInsn(InsnInfo nodeInfo, int ordinal)
 	{
 		if (this.logging) LiteLoaderLogger.debug(this.className + "       comparing target ordinal %d with current ordinal %d", this.ordinal, ordinal);
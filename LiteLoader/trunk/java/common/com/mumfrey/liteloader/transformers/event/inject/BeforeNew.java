@@ -1,7 +1,6 @@
 package com.mumfrey.liteloader.transformers.event.inject;
 
 import java.util.Collection;
-import java.util.ListIterator;
 
 import org.objectweb.asm.Opcodes;
 import org.objectweb.asm.tree.AbstractInsnNode;
@@ -11,6 +10,7 @@ import org.objectweb.asm.tree.TypeInsnNode;
 import com.mumfrey.liteloader.core.runtime.Obf;
 import com.mumfrey.liteloader.transformers.event.Event;
 import com.mumfrey.liteloader.transformers.event.InjectionPoint;
+import com.mumfrey.liteloader.transformers.event.InsnIndex;
 
 public class BeforeNew extends InjectionPoint
 {
@@ -50,11 +50,8 @@ public class BeforeNew extends InjectionPoint
 		boolean found = false;
 		int ordinal = 0;
 		
-		ListIterator<AbstractInsnNode> iter = insns.iterator();
-		while (iter.hasNext())
+		for (AbstractInsnNode insn : InsnIndex.of(insns).getTypeInsns(this.classNames))
 		{
-			AbstractInsnNode insn = iter.next();
-			
 			if (insn instanceof TypeInsnNode && insn.getOpcode() == Opcodes.NEW && this.matchesOwner((TypeInsnNode)insn))
 			{
 				if (this.ordinal == -1 || this.ordinal == ordinal)
@@ -1,7 +1,6 @@
 package com.mumfrey.liteloader.transformers.event.inject;
 
 import java.util.Collection;
-import java.util.ListIterator;
 
 import org.objectweb.asm.Opcodes;
 import org.objectweb.asm.Type;
@@ -11,6 +10,7 @@ import org.objectweb.asm.tree.InsnNode;
 
 import com.mumfrey.liteloader.transformers.event.Event;
 import com.mumfrey.liteloader.transformers.event.InjectionPoint;
+import com.mumfrey.liteloader.transformers.event.InsnIndex;
 
 /**
  * An injection point which searches for RETURN opcodes in the supplied method and either finds all insns or
@@ -39,12 +39,9 @@ public class BeforeReturn extends InjectionPoint
 		int returnOpcode = Type.getReturnType(desc).getOpcode(Opcodes.IRETURN);
 		int ordinal = 0;
 		
-		ListIterator<AbstractInsnNode> iter = insns.iterator();
-		while (iter.hasNext())
+		for (AbstractInsnNode insn : InsnIndex.of(insns).getByOpcode(returnOpcode))
 		{
-			AbstractInsnNode insn = iter.next();
-			
-			if (insn instanceof InsnNode && insn.getOpcode() == returnOpcode)
+			if (insn instanceof InsnNode)
 			{
 				if (this.ordinal == -1 || this.ordinal == ordinal)
 				{
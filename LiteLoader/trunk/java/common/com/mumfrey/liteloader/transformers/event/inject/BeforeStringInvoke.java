@@ -1,12 +1,8 @@
 package com.mumfrey.liteloader.transformers.event.inject;
 
-import java.util.Collection;
-
 import org.objectweb.asm.tree.AbstractInsnNode;
-import org.objectweb.asm.tree.InsnList;
 import org.objectweb.asm.tree.LdcInsnNode;
 
-import com.mumfrey.liteloader.transformers.event.Event;
 import com.mumfrey.liteloader.transformers.event.MethodInfo;
 import com.mumfrey.liteloader.util.log.LiteLoaderLogger;
 
@@ -21,8 +17,6 @@ public class BeforeStringInvoke extends BeforeInvoke
 	
 	private final String ldcValue;
 	
-	private boolean foundLdc;
-	
 	public BeforeStringInvoke(String ldcValue, MethodInfo method)
 	{
 		this(ldcValue, method, -1);
@@ -39,15 +33,19 @@ public class BeforeStringInvoke extends BeforeInvoke
 	}
 	
 	@Override
-	public boolean find(String desc, InsnList insns, Collection<AbstractInsnNode> nodes, Event event)
+	protected boolean matchesInsn(InsnInfo nodeInfo, int ordinal)
 	{
-		this.foundLdc = false;
-		
-		return super.find(desc, insns, nodes, event);
+		boolean foundLdc = this.isMatchingLdc(nodeInfo.insn.getPrevious());
+		if (this.logging) LiteLoaderLogger.debug("BeforeInvoke       foundLdc \"%s\" = %s", this.ldcValue, foundLdc);
+		return foundLdc && super.matchesInsn(nodeInfo, ordinal);
 	}
 	
-	@Override
-	protected void inspectInsn(String desc, InsnList insns, AbstractInsnNode insn)
+	/**
+	 * Get whether the insn is an LDC of the string we're searching for, the LDC must immediately precede the invoke
+	 * 
+	 * @param insn
+	 */
+	private boolean isMatchingLdc(AbstractInsnNode insn)
 	{
 		if (insn instanceof LdcInsnNode)
 		{
@@ -55,18 +53,10 @@ public class BeforeStringInvoke extends BeforeInvoke
 			if (node.cst instanceof String && this.ldcValue.equals(node.cst))
 			{
 				if (this.logging) LiteLoaderLogger.info("BeforeInvoke found a matching LDC with value %s", node.cst);
-				this.foundLdc = true;
-				return;
+				return true;
 			}
 		}
 		
-		this.foundLdc = false;
-	}
-	
-	@Override
-	protected boolean matchesInsn(InsnInfo nodeInfo, int ordinal)
-	{
-		if (this.logging) LiteLoaderLogger.debug("BeforeInvoke       foundLdc \"%s\" = %s", this.ldcValue, this.foundLdc);
-		return this.foundLdc && super.matchesInsn(nodeInfo, ordinal);
+		return false;
 	}
 }
@@ -1,7 +1,7 @@
 package com.mumfrey.liteloader.transformers.event.inject;
 
 import java.util.Collection;
-import java.util.ListIterator;
+import java.util.List;
 
 import org.objectweb.asm.tree.AbstractInsnNode;
 import org.objectweb.asm.tree.InsnList;
@@ -9,6 +9,7 @@ import org.objectweb.asm.tree.JumpInsnNode;
 
 import com.mumfrey.liteloader.transformers.event.Event;
 import com.mumfrey.liteloader.transformers.event.InjectionPoint;
+import com.mumfrey.liteloader.transformers.event.InsnIndex;
 
 /**
  * An injection point which searches for JUMP opcodes (if, try/catch, continue, break, conditional assignment, etc.)
@@ -45,12 +46,12 @@ public class JumpInsnPoint extends InjectionPoint
 		boolean found = false;
 		int ordinal = 0;
 		
-		ListIterator<AbstractInsnNode> iter = insns.iterator();
-		while (iter.hasNext())
+		InsnIndex index = InsnIndex.of(insns);
+		List<AbstractInsnNode> candidates = this.opCode == -1 ? index.getByType(AbstractInsnNode.JUMP_INSN) : index.getByOpcode(this.opCode);
+		
+		for (AbstractInsnNode insn : candidates)
 		{
-			AbstractInsnNode insn = iter.next();
-			
-			if (insn instanceof JumpInsnNode && (this.opCode == -1 || insn.getOpcode() == this.opCode))
+			if (insn instanceof JumpInsnNode)
 			{
 				if (this.ordinal == -1 || this.ordinal == ordinal)
 				{
@@ -1,5 +1,8 @@
 package com.mumfrey.liteloader.transformers.event.json;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.List;
@@ -55,6 +58,11 @@ public class JsonEvent implements Serializable
 	 */
 	private transient List<MethodInfo> listeners = new ArrayList<MethodInfo>();
 	
+	/**
+	 * True if the event was not named in the JSON and the name was generated
+	 */
+	private transient boolean generatedName;
+	
 	/**
 	 * Get the name of this event
 	 */
@@ -63,6 +71,7 @@ public class JsonEvent implements Serializable
 		if (this.name == null)
 		{
 			this.name = "onUserEvent" + (JsonEvent.nextEventID++);
+			this.generatedName = true;
 		}
 		
 		return this.name;
@@ -133,6 +142,71 @@ public class JsonEvent implements Serializable
 		}
 	}
 	
+	boolean isCacheable()
+	{
+		for (JsonInjection injection : this.jsonInjections)
+		{
+			if (!injection.isCacheable()) return false;
+		}
+		
+		return true;
+	}
+	
+	/**
+	 * Write the parsed event to the event cache
+	 * 
+	 * @param out
+	 * @throws IOException
+	 */
+	void write(DataOutput out) throws IOException
+	{
+		// Generated names are not written, a new name is generated when the event is read so that it can't collide
+		ModEventsCache.writeString(out, this.generatedName ? null : this.getName());
+		out.writeBoolean(this.cancellable);
+		out.writeInt(this.priority);
+		
+		out.writeInt(this.jsonInjections.size());
+		for (JsonInjection injection : this.jsonInjections)
+		{
+			injection.write(out);
+		}
+		
+		out.writeInt(this.listeners.size());
+		for (MethodInfo listener : this.listeners)
+		{
+			ModEventsCache.writeMethod(out, listener);
+		}
+	}
+	
+	/**
+	 * Read a parsed event from the event cache
+	 * 
+	 * @param in
+	 * @throws IOException
+	 */
+	static JsonEvent read(DataInput in) throws IOException
+	{
+		JsonEvent event = new JsonEvent();
+		event.name = ModEventsCache.readString(in);
+		event.cancellable = in.readBoolean();
+		event.priority = in.readInt();
+		
+		int injectionCount = in.readInt();
+		event.jsonInjections = new ArrayList<JsonInjection>(injectionCount);
+		for (int injection = 0; injection < injectionCount; injection++)
+		{
+			event.jsonInjections.add(JsonInjection.read(in));
+		}
+		
+		int listenerCount = in.readInt();
+		for (int listener = 0; listener < listenerCount; listener++)
+		{
+			event.listeners.add(ModEventsCache.readMethod(in));
+		}
+		
+		return event;
+	}
+	
 	/**
 	 * @param transformer Transformer to register events with
 	 * @return Event which was registered
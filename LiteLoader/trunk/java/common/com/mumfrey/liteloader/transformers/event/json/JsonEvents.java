@@ -1,5 +1,8 @@
 package com.mumfrey.liteloader.transformers.event.json;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.List;
@@ -120,6 +123,75 @@ public class JsonEvents implements Serializable, ObfProvider
 	{
 		return this.accessorInterfaces.size() > 0;
 	}
+	
+	/**
+	 * Get whether the parsed events can be written to the event cache, custom injection points cannot be cached
+	 */
+	boolean isCacheable()
+	{
+		if (this.events != null)
+		{
+			for (JsonEvent event : this.events)
+			{
+				if (!event.isCacheable()) return false;
+			}
+		}
+		
+		return true;
+	}
+	
+	/**
+	 * Write the parsed events to the event cache
+	 * 
+	 * @param out
+	 * @throws IOException
+	 */
+	void write(DataOutput out) throws IOException
+	{
+		this.obfuscation.write(out);
+		
+		out.writeInt(this.events != null ? this.events.size() : 0);
+		if (this.events != null)
+		{
+			for (JsonEvent event : this.events)
+			{
+				event.write(out);
+			}
+		}
+		
+		out.writeInt(this.accessorInterfaces.size());
+		for (String interfaceName : this.accessorInterfaces)
+		{
+			out.writeUTF(interfaceName);
+		}
+	}
+	
+	/**
+	 * Read parsed events from the event cache
+	 * 
+	 * @param in
+	 * @throws IOException
+	 */
+	static JsonEvents read(DataInput in) throws IOException
+	{
+		JsonEvents jsonEvents = new JsonEvents();
+		jsonEvents.obfuscation = JsonObfuscationTable.read(in);
+		
+		int eventCount = in.readInt();
+		jsonEvents.events = new ArrayList<JsonEvent>(eventCount);
+		for (int event = 0; event < eventCount; event++)
+		{
+			jsonEvents.events.add(JsonEvent.read(in));
+		}
+		
+		int accessorCount = in.readInt();
+		for (int accessor = 0; accessor < accessorCount; accessor++)
+		{
+			jsonEvents.accessorInterfaces.add(in.readUTF());
+		}
+		
+		return jsonEvents;
+	}
 
 	/**
 	 * Parse a token name, returns the token name as a string if the token is valid, or null if the token is not valid
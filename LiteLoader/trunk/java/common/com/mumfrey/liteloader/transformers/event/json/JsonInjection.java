@@ -1,5 +1,8 @@
 package com.mumfrey.liteloader.transformers.event.json;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.io.Serializable;
 import java.lang.reflect.Constructor;
 
@@ -66,6 +69,11 @@ public class JsonInjection implements Serializable
 	
 	private transient InjectionPoint injectionPoint;
 	
+	/**
+	 * Target method parsed from the JSON when using INVOKE and INVOKESTRING
+	 */
+	private transient MethodInfo targetMethod;
+	
 	public MethodInfo getMethod()
 	{
 		return this.method;
@@ -99,16 +107,13 @@ public class JsonInjection implements Serializable
 		switch (this.type)
 		{
 			case INVOKE:
-				return this.applyShift(new BeforeInvoke(methods.get(this.getTarget()), this.ordinal));
-				
 			case INVOKESTRING:
-				return this.applyShift(new BeforeStringInvoke(this.getArg(0).toString(), methods.get(this.getTarget()), this.ordinal));
+				this.targetMethod = methods.get(this.getTarget());
+				return this.createInjectionPoint();
 				
 			case RETURN:
-				return this.applyShift(new BeforeReturn(this.ordinal));
-				
 			case HEAD:
-				return new MethodHead();
+				return this.createInjectionPoint();
 				
 			case CUSTOM:
 				try
@@ -131,6 +136,77 @@ public class JsonInjection implements Serializable
 		throw new InvalidEventJsonException("Could not parse injection type");
 	}
 
+	/**
+	 * Create the injection point from the parsed values, custom injection points are created by
+	 * {@link #parseInjectionPoint} instead
+	 */
+	private InjectionPoint createInjectionPoint()
+	{
+		switch (this.type)
+		{
+			case INVOKE:
+				return this.applyShift(new BeforeInvoke(this.targetMethod, this.ordinal));
+				
+			case INVOKESTRING:
+				return this.applyShift(new BeforeStringInvoke(this.getArg(0).toString(), this.targetMethod, this.ordinal));
+				
+			case RETURN:
+				return this.applyShift(new BeforeReturn(this.ordinal));
+				
+			case HEAD:
+				return new MethodHead();
+				
+			default:
+				break;
+		}
+		
+		throw new InvalidEventJsonException("Could not parse injection type");
+	}
+	
+	/**
+	 * Custom injection points are created reflectively and cannot be cached
+	 */
+	boolean isCacheable()
+	{
+		return this.type != JsonInjectionType.CUSTOM;
+	}
+	
+	/**
+	 * Write the parsed injection to the event cache
+	 * 
+	 * @param out
+	 * @throws IOException
+	 */
+	void write(DataOutput out) throws IOException
+	{
+		ModEventsCache.writeMethod(out, this.method);
+		out.writeUTF(this.type.name());
+		ModEventsCache.writeString(out, this.shift != null ? this.shift.name() : null);
+		out.writeInt(this.ordinal);
+		ModEventsCache.writeMethod(out, this.targetMethod);
+		out.writeUTF(this.getArg(0).toString());
+	}
+	
+	/**
+	 * Read a parsed injection from the event cache
+	 * 
+	 * @param in
+	 * @throws IOException
+	 */
+	static JsonInjection read(DataInput in) throws IOException
+	{
+		JsonInjection injection = new JsonInjection();
+		injection.method = ModEventsCache.readMethod(in);
+		injection.type = JsonInjectionType.valueOf(in.readUTF());
+		String shift = ModEventsCache.readString(in);
+		injection.shift = shift != null ? JsonInjectionShiftType.valueOf(shift) : null;
+		injection.ordinal = in.readInt();
+		injection.targetMethod = ModEventsCache.readMethod(in);
+		injection.args = new Object[] { in.readUTF() };
+		injection.injectionPoint = injection.createInjectionPoint();
+		return injection;
+	}
+	
 	private Object getArg(int arg)
 	{
 		if (this.args == null || this.args.length >= this.args.length || arg < 0)
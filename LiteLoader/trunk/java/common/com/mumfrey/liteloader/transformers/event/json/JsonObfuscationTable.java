@@ -1,5 +1,8 @@
 package com.mumfrey.liteloader.transformers.event.json;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.io.Serializable;
 import java.util.HashMap;
 import java.util.List;
@@ -63,6 +66,53 @@ public class JsonObfuscationTable implements Serializable
 		}
 	}
 	
+	/**
+	 * Write the parsed entries to the event cache
+	 * 
+	 * @param out
+	 * @throws IOException
+	 */
+	void write(DataOutput out) throws IOException
+	{
+		JsonObfuscationTable.writeObfs(out, this.classObfs);
+		JsonObfuscationTable.writeObfs(out, this.methodObfs);
+		JsonObfuscationTable.writeObfs(out, this.fieldObfs);
+	}
+	
+	/**
+	 * Read parsed entries from the event cache
+	 * 
+	 * @param in
+	 * @throws IOException
+	 */
+	static JsonObfuscationTable read(DataInput in) throws IOException
+	{
+		JsonObfuscationTable table = new JsonObfuscationTable();
+		JsonObfuscationTable.readObfs(in, table.classObfs);
+		JsonObfuscationTable.readObfs(in, table.methodObfs);
+		JsonObfuscationTable.readObfs(in, table.fieldObfs);
+		return table;
+	}
+	
+	private static void writeObfs(DataOutput out, Map<String, Obf> obfs) throws IOException
+	{
+		out.writeInt(obfs.size());
+		for (Map.Entry<String, Obf> obf : obfs.entrySet())
+		{
+			out.writeUTF(obf.getKey());
+			ModEventsCache.writeObf(out, obf.getValue());
+		}
+	}
+	
+	private static void readObfs(DataInput in, Map<String, Obf> obfs) throws IOException
+	{
+		int count = in.readInt();
+		for (int obf = 0; obf < count; obf++)
+		{
+			obfs.put(in.readUTF(), ModEventsCache.readObf(in));
+		}
+	}
+	
 	/**
 	 * Look up a type (a class or primitive type) by token
 	 */
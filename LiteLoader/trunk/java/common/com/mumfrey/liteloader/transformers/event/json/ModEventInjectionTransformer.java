@@ -24,6 +24,8 @@ public class ModEventInjectionTransformer extends EventInjectionTransformer
 		{
 			this.addEvents(eventsDefinition);
 		}
+		
+		ModEvents.saveCache();
 	}
 
 	/**
@@ -32,12 +34,20 @@ public class ModEventInjectionTransformer extends EventInjectionTransformer
 	 */
 	private void addEvents(ModEventDefinition def)
 	{
-		JsonEvents events = null;
+		JsonEvents events = def.getCachedEvents();
 		
 		try
 		{
-			LiteLoaderLogger.info("Parsing events for mod with id %s", def.getIdentifier());
-			events = JsonEvents.parse(def.getJson());
+			if (events == null)
+			{
+				LiteLoaderLogger.info("Parsing events for mod with id %s", def.getIdentifier());
+				events = JsonEvents.parse(def.getJson());
+				def.onEventsParsed(events);
+			}
+			else
+			{
+				LiteLoaderLogger.info("Using cached events for mod with id %s", def.getIdentifier());
+			}
 		}
 		catch (InvalidEventJsonException ex)
 		{
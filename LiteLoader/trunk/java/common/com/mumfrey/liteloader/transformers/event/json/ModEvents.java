@@ -8,6 +8,7 @@ import java.util.Map;
 import net.minecraft.launchwrapper.Launch;
 
 import com.google.common.base.Charsets;
+import com.google.common.hash.Hashing;
 import com.mumfrey.liteloader.api.ContainerRegistry.DisabledReason;
 import com.mumfrey.liteloader.api.EnumerationObserver;
 import com.mumfrey.liteloader.core.ModInfo;
@@ -26,6 +27,8 @@ public class ModEvents implements EnumerationObserver
 		private final String identifier;
 		
 		private final String json;
+		
+		private String hash;
 
 		public ModEventDefinition(LoadableModFile file, String json)
 		{
@@ -43,6 +46,38 @@ public class ModEvents implements EnumerationObserver
 		{
 			return this.json;
 		}
+		
+		/**
+		 * Get the cached events for this definition, returns null if the cache is disabled or the JSON has
+		 * changed since the events were cached
+		 */
+		public JsonEvents getCachedEvents()
+		{
+			return ModEvents.cache != null ? ModEvents.cache.get(this.identifier, this.getHash()) : null;
+		}
+		
+		/**
+		 * Called when the JSON is parsed so that the parsed events can be cached
+		 * 
+		 * @param events
+		 */
+		public void onEventsParsed(JsonEvents events)
+		{
+			if (ModEvents.cache != null)
+			{
+				ModEvents.cache.put(this.identifier, this.getHash(), events);
+			}
+		}
+		
+		private String getHash()
+		{
+			if (this.hash == null)
+			{
+				this.hash = Hashing.sha1().hashString(this.json, Charsets.UTF_8).toString();
+			}
+			
+			return this.hash;
+		}
 
 		public void onEventsInjected()
 		{
@@ -66,6 +101,27 @@ public class ModEvents implements EnumerationObserver
 	
 	private static Map<String, ModEventDefinition> events = new HashMap<String, ModEventDefinition>();
 	
+	/**
+	 * Cache of parsed event definitions, null if caching is disabled
+	 */
+	private static ModEventsCache cache;
+	
+	public ModEvents()
+	{
+		this(null);
+	}
+	
+	/**
+	 * @param cacheFile file to cache parsed event definitions in, or null to disable the cache
+	 */
+	public ModEvents(File cacheFile)
+	{
+		if (cacheFile != null)
+		{
+			ModEvents.cache = new ModEventsCache(cacheFile);
+		}
+	}
+	
 	@Override
 	public void onRegisterEnabledContainer(LoaderEnumerator enumerator, LoadableMod<?> container)
 	{
@@ -101,4 +157,15 @@ public class ModEvents implements EnumerationObserver
 	{
 		return events;
 	}
+	
+	/**
+	 * Write the event cache to disk, called once all definitions have been parsed
+	 */
+	static void saveCache()
+	{
+		if (ModEvents.cache != null)
+		{
+			ModEvents.cache.save();
+		}
+	}
 }
@@ -0,0 +1,291 @@
+package com.mumfrey.liteloader.transformers.event.json;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import com.mumfrey.liteloader.core.LiteLoaderVersion;
+import com.mumfrey.liteloader.core.runtime.Obf;
+import com.mumfrey.liteloader.transformers.event.MethodInfo;
+import com.mumfrey.liteloader.util.log.LiteLoaderLogger;
+
+/**
+ * Binary cache of parsed event definitions. Definitions are stored in their resolved form, with every token
+ * and obfuscation mapping already looked up, and are keyed by mod identifier and a hash of the JSON so that an
+ * entry is only used when the mod's events.json is unchanged. The whole cache is discarded when the loader
+ * version changes since the built-in obfuscation tables may have changed with it.
+ *
+ * @author Adam Mummery-Smith
+ */
+class ModEventsCache
+{
+	private static final int FORMAT_VERSION = 1;
+
+	/**
+	 * Upper bound for the size of a single cached definition, larger entries are treated as corrupt
+	 */
+	private static final int MAX_ENTRY_SIZE = 4 * 1024 * 1024;
+
+	/**
+	 * A cached definition
+	 */
+	static final class Entry
+	{
+		final String hash;
+
+		final byte[] data;
+
+		Entry(String hash, byte[] data)
+		{
+			this.hash = hash;
+			this.data = data;
+		}
+	}
+
+	private final File file;
+
+	private final Map<String, Entry> entries = new HashMap<String, Entry>();
+
+	/**
+	 * Mods whose entries were used or added this session, entries for any other mod are dropped on save
+	 */
+	private final Set<String> current = new HashSet<String>();
+
+	/**
+	 * True if an entry was added or removed since the cache was loaded, or the file could not be read
+	 */
+	private boolean dirty;
+
+	ModEventsCache(File file)
+	{
+		this.file = file;
+		this.load();
+	}
+
+	/**
+	 * Get the cached events for the specified mod
+	 *
+	 * @param identifier
+	 * @param hash hash of the mod's events.json
+	 * @return cached events, or null if there is no entry for the current JSON
+	 */
+	synchronized JsonEvents get(String identifier, String hash)
+	{
+		Entry entry = this.entries.get(identifier);
+		if (entry == null || !entry.hash.equals(hash))
+		{
+			return null;
+		}
+
+		try
+		{
+			JsonEvents events = JsonEvents.read(new DataInputStream(new ByteArrayInputStream(entry.data)));
+			this.current.add(identifier);
+			return events;
+		}
+		catch (Exception ex)
+		{
+			LiteLoaderLogger.warning("Could not read cached events for mod with id %s, the definition will be parsed", identifier);
+			this.entries.remove(identifier);
+			this.dirty = true;
+		}
+
+		return null;
+	}
+
+	/**
+	 * Cache parsed events for the specified mod
+	 *
+	 * @param identifier
+	 * @param hash hash of the mod's events.json
+	 * @param events parsed events
+	 */
+	synchronized void put(String identifier, String hash, JsonEvents events)
+	{
+		this.current.add(identifier);
+
+		if (!events.isCacheable())
+		{
+			if (this.entries.remove(identifier) != null) this.dirty = true;
+			return;
+		}
+
+		try
+		{
+			ByteArrayOutputStream data = new ByteArrayOutputStream();
+			DataOutputStream out = new DataOutputStream(data);
+			events.write(out);
+			out.flush();
+			this.entries.put(identifier, new Entry(hash, data.toByteArray()));
+			this.dirty = true;
+		}
+		catch (IOException ex)
+		{
+			if (this.entries.remove(identifier) != null) this.dirty = true;
+		}
+	}
+
+	private void load()
+	{
+		if (!this.file.isFile()) return;
+
+		DataInputStream in = null;
+		try
+		{
+			in = new DataInputStream(new BufferedInputStream(new FileInputStream(this.file)));
+			if (in.readInt() != ModEventsCache.FORMAT_VERSION) return;
+			if (!LiteLoaderVersion.CURRENT.getLoaderVersion().equals(in.readUTF())) return;
+
+			int count = in.readInt();
+			for (int entryIndex = 0; entryIndex < count; entryIndex++)
+			{
+				String identifier = in.readUTF();
+				String hash = in.readUTF();
+				int length = in.readInt();
+				if (length < 0 || length > ModEventsCache.MAX_ENTRY_SIZE)
+				{
+					throw new IOException("Invalid entry size " + length + " for mod with id " + identifier);
+				}
+
+				byte[] data = new byte[length];
+				in.readFully(data);
+				this.entries.put(identifier, new Entry(hash, data));
+			}
+		}
+		catch (IOException ex)
+		{
+			LiteLoaderLogger.warning("Could not read cached event definitions from %s, the definitions will be parsed", this.file.getName());
+			this.entries.clear();
+			this.dirty = true;
+		}
+		catch (RuntimeException ex)
+		{
+			LiteLoaderLogger.warning("Cached event definitions in %s are corrupt, the definitions will be parsed", this.file.getName());
+			this.entries.clear();
+			this.dirty = true;
+		}
+		finally
+		{
+			ModEventsCache.close(in);
+		}
+	}
+
+	/**
+	 * Write the cache to disk if it was changed or contains entries for mods which are no longer present
+	 */
+	synchronized void save()
+	{
+		if (this.entries.keySet().retainAll(this.current)) this.dirty = true;
+		if (!this.dirty) return;
+
+		DataOutputStream out = null;
+		try
+		{
+			out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(this.file)));
+			out.writeInt(ModEventsCache.FORMAT_VERSION);
+			out.writeUTF(LiteLoaderVersion.CURRENT.getLoaderVersion());
+			out.writeInt(this.entries.size());
+			for (Map.Entry<String, Entry> cachedEntry : this.entries.entrySet())
+			{
+				Entry entry = cachedEntry.getValue();
+				out.writeUTF(cachedEntry.getKey());
+				out.writeUTF(entry.hash);
+				out.writeInt(entry.data.length);
+				out.write(entry.data);
+			}
+
+			this.dirty = false;
+		}
+		catch (IOException ex)
+		{
+			LiteLoaderLogger.warning(ex, "Could not write cached event definitions to %s", this.file.getName());
+		}
+		finally
+		{
+			ModEventsCache.close(out);
+		}
+	}
+
+	private static void close(Closeable stream)
+	{
+		try
+		{
+			if (stream != null) stream.close();
+		}
+		catch (IOException ex) {}
+	}
+
+	static void writeString(DataOutput out, String value) throws IOException
+	{
+		out.writeBoolean(value != null);
+		if (value != null) out.writeUTF(value);
+	}
+
+	static String readString(DataInput in) throws IOException
+	{
+		return in.readBoolean() ? in.readUTF() : null;
+	}
+
+	static void writeObf(DataOutput out, Obf obf) throws IOException
+	{
+		out.writeUTF(obf.srg);
+		out.writeUTF(obf.obf);
+		out.writeUTF(obf.name);
+	}
+
+	static Obf readObf(DataInput in) throws IOException
+	{
+		return new JsonObf.Mapping(in.readUTF(), in.readUTF(), in.readUTF());
+	}
+
+	static void writeMethod(DataOutput out, MethodInfo method) throws IOException
+	{
+		out.writeBoolean(method != null);
+		if (method == null) return;
+
+		out.writeUTF(method.getOwner());
+		out.writeUTF(method.getOwnerObf());
+		out.writeUTF(method.getName());
+		out.writeUTF(method.getNameSrg());
+		out.writeUTF(method.getNameObf());
+		ModEventsCache.writeString(out, method.getDesc());
+		ModEventsCache.writeString(out, method.getDescObf());
+	}
+
+	static MethodInfo readMethod(DataInput in) throws IOException
+	{
+		if (!in.readBoolean()) return null;
+
+		String owner = in.readUTF();
+		String ownerObf = in.readUTF();
+		String name = ModEventsCache.readMethodName(in);
+		String nameSrg = ModEventsCache.readMethodName(in);
+		String nameObf = ModEventsCache.readMethodName(in);
+		String desc = ModEventsCache.readString(in);
+		String descObf = ModEventsCache.readString(in);
+		return new MethodInfo(owner, ownerObf, name, nameSrg, nameObf, desc, descObf);
+	}
+
+	/**
+	 * Inflected method names are compared by identity so the marker must be restored
+	 */
+	private static String readMethodName(DataInput in) throws IOException
+	{
+		String name = in.readUTF();
+		return MethodInfo.INFLECT.equals(name) ? MethodInfo.INFLECT : name;
+	}
+}
@@ -1,15 +1,27 @@
 package com.mumfrey.liteloader.update;
 
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
 import java.text.DateFormat;
 import java.util.Comparator;
 import java.util.Date;
 import java.util.Map;
-import java.util.Map.Entry;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import com.google.gson.Gson;
-import com.google.gson.JsonSyntaxException;
+import com.google.gson.JsonParseException;
+import com.google.gson.stream.JsonReader;
 import com.mumfrey.liteloader.util.log.LiteLoaderLogger;
-import com.mumfrey.liteloader.util.net.HttpStringRetriever;
+import com.mumfrey.liteloader.util.net.HttpResponseCache;
 
 /**
  * An update site, used by liteloader to check for new versions but is also available to mods who may
@@ -23,6 +35,21 @@ public class UpdateSite implements Comparator<Long>
 	 * Gson instance for deserializing remote version data
 	 */
 	private static Gson gson = new Gson();
+	
+	/**
+	 * Maximum number of update checks which can be in progress at once
+	 */
+	private static final int MAX_CONCURRENT_CHECKS = 2;
+	
+	/**
+	 * Executor shared by all update sites, threads are only kept alive while checks are running
+	 */
+	private static final ExecutorService executor = UpdateSite.createExecutor();
+	
+	/**
+	 * Response cache shared by all update sites, no caching is performed until {@link #setResponseCache} is called
+	 */
+	private static volatile HttpResponseCache responseCache = new HttpResponseCache(null, 0L);
 
 	/**
 	 * Base URL of the remote update site
@@ -60,9 +87,10 @@ public class UpdateSite implements Comparator<Long>
 	private final Object lock = new Object();
 	
 	/**
-	 * StringRetriever which will fetch the remote json file, null when not performing a fetch operation
+	 * Pending check, yields the artefact data for our artefact (or null if not present in the remote json),
+	 * null when not performing a fetch operation
 	 */
-	private HttpStringRetriever stringRetriever;
+	private Future<Map<?, ?>> pendingCheck;
 	
 	/**
 	 * True if the check is complete (even if it failed)
@@ -130,18 +158,76 @@ public class UpdateSite implements Comparator<Long>
 		this(updateSiteUrl, jsonFileName, targetVersion, artefact, currentTimeStamp, null);
 	}
 	
+	private static ExecutorService createExecutor()
+	{
+		ThreadPoolExecutor executor = new ThreadPoolExecutor(UpdateSite.MAX_CONCURRENT_CHECKS, UpdateSite.MAX_CONCURRENT_CHECKS, 10L, TimeUnit.SECONDS,
+				new LinkedBlockingQueue<Runnable>(), new ThreadFactory()
+		{
+			private final AtomicInteger threadNumber = new AtomicInteger();
+			
+			@Override
+			public Thread newThread(Runnable runnable)
+			{
+				Thread thread = new Thread(runnable, "Update Check #" + this.threadNumber.incrementAndGet());
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+		
+		executor.allowCoreThreadTimeOut(true);
+		return executor;
+	}
+	
 	/**
-	 * If an update check is not already in progress, starts an update check
+	 * Set the on-disk response cache used by all update sites
+	 * 
+	 * @param cacheDir Directory to store cached responses in
+	 * @param ttl Time in milliseconds within which a cached response is used without contacting the remote site
+	 */
+	public static void setResponseCache(File cacheDir, long ttl)
+	{
+		UpdateSite.responseCache = new HttpResponseCache(cacheDir, ttl);
+	}
+	
+	/**
+	 * If an update check is not already in progress, starts an update check. A response cached within the
+	 * cache TTL is used without contacting the remote site.
 	 */
 	public void beginUpdateCheck()
+	{
+		this.beginUpdateCheck(false);
+	}
+	
+	/**
+	 * If an update check is not already in progress, starts an update check
+	 * 
+	 * @param force True to contact the remote site even if a cached response is within the cache TTL, used for
+	 *      checks requested by the user
+	 */
+	public void beginUpdateCheck(final boolean force)
 	{
 		synchronized (this.lock)
 		{
-			if (this.stringRetriever == null)
+			if (this.pendingCheck == null)
 			{
 				LiteLoaderLogger.debug("Update site for %s is starting the update check", this.artefact);
-				this.stringRetriever = new HttpStringRetriever(String.format("%s%s", this.updateSiteUrl, this.updateSiteJsonFileName));
-				this.stringRetriever.start();
+				final HttpResponseCache cache = UpdateSite.responseCache;
+				final String url = String.format("%s%s", this.updateSiteUrl, this.updateSiteJsonFileName);
+				this.pendingCheck = UpdateSite.executor.submit(new Callable<Map<?, ?>>()
+				{
+					@Override
+					public Map<?, ?> call() throws Exception
+					{
+						return cache.fetch(url, null, new HttpResponseCache.ResponseHandler<Map<?, ?>>()
+						{
+							@Override
+							public Map<?, ?> handleResponse(Reader reader) throws IOException
+							{
+								return UpdateSite.this.readArtefactData(reader);
+							}
+						}, force);
+					}
+				});
 			}
 		}
 	}
@@ -156,7 +242,7 @@ public class UpdateSite implements Comparator<Long>
 		
 		synchronized (this.lock)
 		{
-			checkInProgress = this.stringRetriever != null;
+			checkInProgress = this.pendingCheck != null;
 		}
 		
 		return checkInProgress;
@@ -223,96 +309,110 @@ public class UpdateSite implements Comparator<Long>
 	{
 		synchronized (this.lock)
 		{
-			if (this.stringRetriever != null && this.stringRetriever.isDone())
+			if (this.pendingCheck != null && this.pendingCheck.isDone())
 			{
 				this.checkComplete = true;
-				this.checkSuccess = this.stringRetriever.getSuccess();
+				this.checkSuccess = true;
+				this.updateAvailable = false;
 				
-				if (this.checkSuccess)
+				try
 				{
-					try
-					{
-						LiteLoaderLogger.debug("Update site for %s is parsing the update response", this.artefact);
-						this.parseData(this.stringRetriever.getString());
-						LiteLoaderLogger.debug("Update site for %s successfully parsed the update response", this.artefact);
-					}
-					catch (Exception ex)
+					Map<?, ?> artefactData = this.pendingCheck.get();
+					if (artefactData != null)
 					{
-						LiteLoaderLogger.debug("Update site for %s failed parsing the update response: %s:%s", this.artefact, ex.getClass().getSimpleName(), ex.getMessage());
-						this.checkSuccess = false;
-						ex.printStackTrace();
+						this.handleArtefactData(artefactData);
 					}
+					LiteLoaderLogger.debug("Update site for %s successfully parsed the update response", this.artefact);
+				}
+				catch (ExecutionException ex)
+				{
+					Throwable cause = ex.getCause() != null ? ex.getCause() : ex;
+					LiteLoaderLogger.debug("Update site for %s failed retrieving the update response: %s:%s", this.artefact, cause.getClass().getSimpleName(), cause.getMessage());
+					this.checkSuccess = false;
+				}
+				catch (Exception ex)
+				{
+					LiteLoaderLogger.debug("Update site for %s failed parsing the update response: %s:%s", this.artefact, ex.getClass().getSimpleName(), ex.getMessage());
+					this.checkSuccess = false;
+					ex.printStackTrace();
 				}
 				
-				this.stringRetriever = null;
+				this.pendingCheck = null;
 			}
 		}
 	}
 	
 	/**
-	 * Parse data receieved from a query
+	 * Read the remote versions json as a stream, skipping over everything except the data for our artefact
+	 * for the target version, which is the only part which is actually deserialised. Called on the update
+	 * check thread.
 	 * 
-	 * @param json
+	 * @param in
+	 * @return artefact data or null if the remote data contains no entry for our artefact
 	 */
-	private void parseData(String json)
+	Map<?, ?> readArtefactData(Reader in) throws IOException
 	{
-		this.updateAvailable = false;
+		LiteLoaderLogger.debug("Update site for %s is parsing the update response", this.artefact);
 		
 		try
 		{
-			Map<?, ?> data = UpdateSite.gson.fromJson(json, Map.class);
+			JsonReader reader = new JsonReader(in);
 			
-			if (data.containsKey("versions"))
+			if (!UpdateSite.seek(reader, "versions"))
+			{
+				LiteLoaderLogger.warning("No key 'versions' in update site JSON");
+			}
+			else if (!UpdateSite.seek(reader, this.targetVersion))
+			{
+				LiteLoaderLogger.warning("No version entry for current version '%s' in update site JSON", this.targetVersion);
+			}
+			else if (!UpdateSite.seek(reader, "artefacts"))
 			{
-				this.handleVersionsData((Map<?, ?>)data.get("versions"));
+				LiteLoaderLogger.warning("No artefacts entry in update site JSON");
+			}
+			else if (!UpdateSite.seek(reader, this.artefact))
+			{
+				LiteLoaderLogger.warning("No artefacts entry for specified artefact '%s' in update site JSON", this.artefact);
 			}
 			else
 			{
-				LiteLoaderLogger.warning("No key 'versions' in update site JSON");
+				return UpdateSite.gson.fromJson(reader, Map.class);
 			}
 		}
-		catch (JsonSyntaxException ex)
+		catch (JsonParseException ex)
 		{
 			ex.printStackTrace();
 			LiteLoaderLogger.warning("Error parsing update site JSON: %s: %s", ex.getClass().getSimpleName(), ex.getMessage());
 		}
-	}
-
-	/**
-	 * @param versions
-	 */
-	private void handleVersionsData(Map<?, ?> versions)
-	{
-		if (versions.containsKey(this.targetVersion))
+		catch (IllegalStateException ex)
 		{
-			for (Entry<?, ?> versionDataEntry : ((Map<?, ?>)versions.get(this.targetVersion)).entrySet())
-			{
-				this.handleVersionData(versionDataEntry.getKey(), (Map<?, ?>)versionDataEntry.getValue());
-			}
-		}
-		else
-		{
-			LiteLoaderLogger.warning("No version entry for current version '%s' in update site JSON", this.targetVersion);
+			LiteLoaderLogger.warning("Error parsing update site JSON: %s: %s", ex.getClass().getSimpleName(), ex.getMessage());
 		}
+		
+		return null;
 	}
-
+	
 	/**
+	 * Advance the reader into the current object and position it at the value for the specified key
+	 * 
+	 * @param reader
 	 * @param key
-	 * @param value
+	 * @return true if the key was found
 	 */
-	private void handleVersionData(Object key, Map<?, ?> value)
+	private static boolean seek(JsonReader reader, String key) throws IOException
 	{
-		if ("artefacts".equals(key))
+		reader.beginObject();
+		while (reader.hasNext())
 		{
-			if (value.containsKey(this.artefact))
-			{
-				this.handleArtefactData((Map<?, ?>)value.get(this.artefact));
-			}
-			else
+			if (key.equals(reader.nextName()))
 			{
-				LiteLoaderLogger.warning("No artefacts entry for specified artefact '%s' in update site JSON", this.artefact);
+				return true;
 			}
+			
+			reader.skipValue();
 		}
+		
+		return false;
 	}
 
 	/**
@@ -89,28 +89,25 @@ public abstract class ChatUtilities
 			ChatComponentText textComponent = (ChatComponentText)component;
 			ChatStyle style = textComponent.getChatStyle();
 			String text = textComponent.getChatComponentText_TextValue();
+			int length = text.length();
 			
+			// Scan the text once, each segment is copied out of the original string exactly once
+			int start = 0;
 			int pos = text.indexOf('\247');
-			while (pos > -1 && text != null)
+			while (pos > -1 && pos < length - 1)
 			{
-				if (pos < text.length() - 1)
-				{
-					IChatComponent head = new ChatComponentText(pos > 0 ? text.substring(0, pos) : "").setChatStyle(style);
-					style = ChatUtilities.getChatStyleFromCode(text.charAt(pos + 1));
-					text = text.substring(pos + 2);
-					newComponent = (newComponent == null) ? head : newComponent.appendSibling(head);
-					pos = text.indexOf('\247');
-				}
-				else
-				{
-					text = null;
-				}
+				IChatComponent head = new ChatComponentText(text.substring(start, pos)).setChatStyle(style);
+				style = ChatUtilities.getChatStyleFromCode(text.charAt(pos + 1));
+				newComponent = (newComponent == null) ? head : newComponent.appendSibling(head);
+				start = pos + 2;
+				pos = text.indexOf('\247', start);
 			}
 
-			if (text != null)
+			// A trailing code with no format character is dropped
+			if (newComponent != null)
 			{
-				IChatComponent tail = new ChatComponentText(text).setChatStyle(style);
-				newComponent = (newComponent == null) ? tail : newComponent.appendSibling(tail);
+				IChatComponent tail = new ChatComponentText(text.substring(start, pos > -1 ? pos : length)).setChatStyle(style);
+				newComponent.appendSibling(tail);
 			}
 		}
 		
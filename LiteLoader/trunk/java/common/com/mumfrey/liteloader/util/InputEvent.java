@@ -76,18 +76,27 @@ public class InputEvent
 	 * @param event
 	 */
 	void onEvent(Event event)
+	{
+		this.onEvent(event.getValue(), event.getNanos());
+	}
+
+	/**
+	 * @param value
+	 * @param nanos
+	 */
+	void onEvent(float value, long nanos)
 	{
 		if (this.component.isAnalog())
 		{
-			this.onAxisEvent(event.getValue(), event.getNanos());
+			this.onAxisEvent(value, nanos);
 		}
 		else if (this.component.getIdentifier() == Component.Identifier.Axis.POV)
 		{
-			this.onPovEvent(event.getValue(), event.getNanos());
+			this.onPovEvent(value, nanos);
 		}
 		else
 		{
-			this.onButtonEvent(event.getValue() == 1.0F);
+			this.onButtonEvent(value == 1.0F);
 		}
 	}
 
@@ -27,6 +27,17 @@ public class PrivateFields<P, T>
 	 */
 	private final String fieldName;
 	
+	/**
+	 * Resolved field, looked up on first access
+	 */
+	private volatile Field field;
+	
+	/**
+	 * Resolved field with the FINAL modifier removed, kept separately from {@link #field} because the modifiers
+	 * must be changed before the field's accessor is created
+	 */
+	private volatile Field finalField;
+	
 	private boolean errorReported = false;
 	
 	/**
@@ -51,9 +62,7 @@ public class PrivateFields<P, T>
 	{
 		try
 		{
-			Field field = this.parentClass.getDeclaredField(this.fieldName);
-			field.setAccessible(true);
-			return (T)field.get(instance);
+			return (T)this.getField().get(instance);
 		}
 		catch (Exception ex)
 		{
@@ -77,9 +86,7 @@ public class PrivateFields<P, T>
 	{
 		try
 		{
-			Field field = this.parentClass.getDeclaredField(this.fieldName);
-			field.setAccessible(true);
-			field.set(instance, value);
+			this.getField().set(instance, value);
 		}
 		catch (Exception ex)
 		{
@@ -104,13 +111,7 @@ public class PrivateFields<P, T>
 	{
 		try
 		{
-			Field modifiers = Field.class.getDeclaredField("modifiers");
-			modifiers.setAccessible(true);
-			
-			Field field = this.parentClass.getDeclaredField(this.fieldName);
-			modifiers.setInt(field, field.getModifiers() & ~Modifier.FINAL);
-			field.setAccessible(true);
-			field.set(instance, value);
+			this.getFinalField().set(instance, value);
 		}
 		catch (Exception ex)
 		{
@@ -124,6 +125,42 @@ public class PrivateFields<P, T>
 		return value;
 	}
 	
+	/**
+	 * Get the field, resolving it on the first call
+	 */
+	private Field getField() throws NoSuchFieldException
+	{
+		Field field = this.field;
+		if (field == null)
+		{
+			field = this.parentClass.getDeclaredField(this.fieldName);
+			field.setAccessible(true);
+			this.field = field;
+		}
+		
+		return field;
+	}
+	
+	/**
+	 * Get the field with the FINAL modifier removed, resolving it on the first call
+	 */
+	private Field getFinalField() throws NoSuchFieldException, IllegalAccessException
+	{
+		Field field = this.finalField;
+		if (field == null)
+		{
+			Field modifiers = Field.class.getDeclaredField("modifiers");
+			modifiers.setAccessible(true);
+			
+			field = this.parentClass.getDeclaredField(this.fieldName);
+			modifiers.setInt(field, field.getModifiers() & ~Modifier.FINAL);
+			field.setAccessible(true);
+			this.finalField = field;
+		}
+		
+		return field;
+	}
+	
 	public static final PrivateFields<C15PacketClientSettings, Integer> viewDistance = new PrivateFields<C15PacketClientSettings, Integer>(C15PacketClientSettings.class, Obf.viewDistance);
 
-}
\ No newline at end of file
+}
\ No newline at end of file
@@ -0,0 +1,320 @@
+package com.mumfrey.liteloader.util.net;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.commons.io.IOUtils;
+
+import com.google.common.base.Charsets;
+import com.google.common.hash.Hashing;
+import com.mumfrey.liteloader.util.log.LiteLoaderLogger;
+
+/**
+ * Performs HTTP GET requests with an on-disk response cache. Cached responses are revalidated using the
+ * ETag and Last-Modified headers returned by the server (via If-None-Match and If-Modified-Since) and responses
+ * fetched within the configured TTL are used without contacting the server at all. Response bodies are never
+ * buffered into a string, the supplied handler reads them as a stream.
+ *
+ * @author Adam Mummery-Smith
+ */
+public class HttpResponseCache
+{
+	/**
+	 * Callback which consumes a response body
+	 *
+	 * @param <T> result type
+	 */
+	public interface ResponseHandler<T>
+	{
+		public abstract T handleResponse(Reader reader) throws IOException;
+	}
+
+	private static final String KEY_URL = "url";
+	private static final String KEY_ETAG = "etag";
+	private static final String KEY_LAST_MODIFIED = "lastModified";
+	private static final String KEY_FETCHED = "fetched";
+
+	/**
+	 * Lock objects by cache key, fetches of the same URL are serialised so that they do not race on the cache
+	 * files. Shared between instances since they may use the same cache directory.
+	 */
+	private static final ConcurrentMap<String, Object> locks = new ConcurrentHashMap<String, Object>();
+
+	/**
+	 * Directory to store cached responses in, or null to disable caching
+	 */
+	private final File cacheDir;
+
+	/**
+	 * Time in milliseconds for which a cached response is used without revalidating it
+	 */
+	private final long ttl;
+
+	/**
+	 * @param cacheDir directory to store cached responses in, if null responses are not cached
+	 * @param ttl time in milliseconds for which a cached response is used without contacting the server
+	 */
+	public HttpResponseCache(File cacheDir, long ttl)
+	{
+		this.cacheDir = cacheDir;
+		this.ttl = ttl;
+	}
+
+	/**
+	 * Fetch the specified URL and pass the response body to the supplied handler. This method blocks, callers
+	 * should invoke it from a worker thread.
+	 *
+	 * @param url URL to fetch
+	 * @param headers Additional headers to add to the request, can be null
+	 * @param handler Handler for the response body
+	 * @return the value returned by the handler
+	 * @throws IOException if the request failed and no cached response is available
+	 */
+	public <T> T fetch(String url, Map<String, String> headers, ResponseHandler<T> handler) throws IOException
+	{
+		return this.fetch(url, headers, handler, false);
+	}
+
+	/**
+	 * Fetch the specified URL and pass the response body to the supplied handler. This method blocks, callers
+	 * should invoke it from a worker thread.
+	 *
+	 * @param url URL to fetch
+	 * @param headers Additional headers to add to the request, can be null
+	 * @param handler Handler for the response body
+	 * @param force True to contact the server even if the cached response is within the TTL, the cached
+	 *      response is still revalidated rather than fetched again if it has not been modified
+	 * @return the value returned by the handler
+	 * @throws IOException if the request failed and no cached response is available
+	 */
+	public <T> T fetch(String url, Map<String, String> headers, ResponseHandler<T> handler, boolean force) throws IOException
+	{
+		if (this.cacheDir == null || !(this.cacheDir.isDirectory() || this.cacheDir.mkdirs()))
+		{
+			return this.fetchRemote(url, headers, handler, null, null, new Properties(), System.currentTimeMillis());
+		}
+
+		String key = Hashing.sha1().hashString(url, Charsets.UTF_8).toString();
+		synchronized (HttpResponseCache.getLock(key))
+		{
+			return this.fetchCached(url, headers, handler, force, key);
+		}
+	}
+
+	private <T> T fetchCached(String url, Map<String, String> headers, ResponseHandler<T> handler, boolean force, String key) throws IOException
+	{
+		File bodyFile = new File(this.cacheDir, key + ".cache");
+		File metaFile = new File(this.cacheDir, key + ".properties");
+		Properties meta = new Properties();
+
+		if (bodyFile.isFile() && metaFile.isFile())
+		{
+			HttpResponseCache.readMeta(metaFile, meta);
+		}
+
+		if (!url.equals(meta.getProperty(HttpResponseCache.KEY_URL)))
+		{
+			meta.clear();
+		}
+
+		long now = System.currentTimeMillis();
+		long fetched = HttpResponseCache.parseLong(meta.getProperty(HttpResponseCache.KEY_FETCHED));
+		if (!force && fetched > 0 && now - fetched >= 0 && now - fetched < this.ttl)
+		{
+			LiteLoaderLogger.debug("Using cached response for %s", url);
+			return HttpResponseCache.handleFile(bodyFile, handler);
+		}
+
+		try
+		{
+			return this.fetchRemote(url, headers, handler, bodyFile, metaFile, meta, now);
+		}
+		catch (IOException ex)
+		{
+			if (meta.isEmpty()) throw ex;
+			
+			LiteLoaderLogger.debug("Request for %s failed, using cached response: %s", url, ex.getMessage());
+			return HttpResponseCache.handleFile(bodyFile, handler);
+		}
+	}
+
+	private <T> T fetchRemote(String url, Map<String, String> headers, ResponseHandler<T> handler, File bodyFile, File metaFile, Properties meta, long now) throws IOException
+	{
+		HttpURLConnection httpClient = null;
+		try
+		{
+			httpClient = (HttpURLConnection)new URL(url).openConnection();
+			httpClient.setDoInput(true);
+			httpClient.setUseCaches(false);
+
+			httpClient.setRequestMethod("GET");
+			httpClient.setRequestProperty("Connection", "Close");
+			httpClient.addRequestProperty("User-Agent", "Mozilla/5.0 (Windows NT 6.1; WOW64; rv:19.0) Gecko/20100101 Firefox/21.0"); // For CloudFlare
+
+			if (meta.containsKey(HttpResponseCache.KEY_ETAG))
+				httpClient.addRequestProperty("If-None-Match", meta.getProperty(HttpResponseCache.KEY_ETAG));
+
+			if (meta.containsKey(HttpResponseCache.KEY_LAST_MODIFIED))
+				httpClient.addRequestProperty("If-Modified-Since", meta.getProperty(HttpResponseCache.KEY_LAST_MODIFIED));
+
+			if (headers != null)
+			{
+				for (Entry<String, String> header : headers.entrySet())
+					httpClient.addRequestProperty(header.getKey(), header.getValue());
+			}
+
+			int httpResponseCode = httpClient.getResponseCode();
+			if (httpResponseCode == HttpURLConnection.HTTP_NOT_MODIFIED && !meta.isEmpty())
+			{
+				LiteLoaderLogger.debug("Cached response for %s was not modified", url);
+				meta.setProperty(HttpResponseCache.KEY_FETCHED, String.valueOf(now));
+				HttpResponseCache.writeMeta(metaFile, meta);
+				return HttpResponseCache.handleFile(bodyFile, handler);
+			}
+
+			if (httpResponseCode < 200 || httpResponseCode >= 300)
+			{
+				throw new IOException("Server returned HTTP response code " + httpResponseCode + " for " + url);
+			}
+
+			InputStream httpStream = httpClient.getInputStream();
+			try
+			{
+				if (bodyFile == null)
+				{
+					return handler.handleResponse(new InputStreamReader(httpStream, Charsets.UTF_8));
+				}
+
+				HttpResponseCache.writeBody(httpStream, bodyFile);
+			}
+			finally
+			{
+				IOUtils.closeQuietly(httpStream);
+			}
+
+			meta.clear();
+			meta.setProperty(HttpResponseCache.KEY_URL, url);
+			meta.setProperty(HttpResponseCache.KEY_FETCHED, String.valueOf(now));
+
+			String eTag = httpClient.getHeaderField("ETag");
+			if (eTag != null) meta.setProperty(HttpResponseCache.KEY_ETAG, eTag);
+
+			String lastModified = httpClient.getHeaderField("Last-Modified");
+			if (lastModified != null) meta.setProperty(HttpResponseCache.KEY_LAST_MODIFIED, lastModified);
+
+			HttpResponseCache.writeMeta(metaFile, meta);
+			return HttpResponseCache.handleFile(bodyFile, handler);
+		}
+		finally
+		{
+			if (httpClient != null) httpClient.disconnect();
+		}
+	}
+
+	private static Object getLock(String key)
+	{
+		Object lock = HttpResponseCache.locks.get(key);
+		if (lock == null)
+		{
+			Object newLock = new Object();
+			lock = HttpResponseCache.locks.putIfAbsent(key, newLock);
+			if (lock == null) lock = newLock;
+		}
+
+		return lock;
+	}
+
+	private static <T> T handleFile(File bodyFile, ResponseHandler<T> handler) throws IOException
+	{
+		Reader reader = new InputStreamReader(new FileInputStream(bodyFile), Charsets.UTF_8);
+		try
+		{
+			return handler.handleResponse(reader);
+		}
+		finally
+		{
+			IOUtils.closeQuietly(reader);
+		}
+	}
+
+	private static void writeBody(InputStream httpStream, File bodyFile) throws IOException
+	{
+		File tempFile = File.createTempFile(bodyFile.getName(), ".tmp", bodyFile.getParentFile());
+		OutputStream out = new FileOutputStream(tempFile);
+		try
+		{
+			IOUtils.copy(httpStream, out);
+		}
+		finally
+		{
+			IOUtils.closeQuietly(out);
+		}
+
+		if ((bodyFile.exists() && !bodyFile.delete()) || !tempFile.renameTo(bodyFile))
+		{
+			tempFile.delete();
+			throw new IOException("Could not write cached response to " + bodyFile);
+		}
+	}
+
+	private static void readMeta(File metaFile, Properties meta)
+	{
+		InputStream in = null;
+		try
+		{
+			in = new FileInputStream(metaFile);
+			meta.load(in);
+		}
+		catch (IOException ex)
+		{
+			meta.clear();
+		}
+		finally
+		{
+			IOUtils.closeQuietly(in);
+		}
+	}
+
+	private static void writeMeta(File metaFile, Properties meta)
+	{
+		OutputStream out = null;
+		try
+		{
+			out = new FileOutputStream(metaFile);
+			meta.store(out, "Cached HTTP response metadata");
+		}
+		catch (IOException ex)
+		{
+			LiteLoaderLogger.debug("Could not write cache metadata %s: %s", metaFile, ex.getMessage());
+		}
+		finally
+		{
+			IOUtils.closeQuietly(out);
+		}
+	}
+
+	private static long parseLong(String value)
+	{
+		try
+		{
+			return value != null ? Long.parseLong(value) : 0L;
+		}
+		catch (NumberFormatException ex)
+		{
+			return 0L;
+		}
+	}
+}
@@ -1,7 +1,9 @@
 package net.eq2online.permissions;
 
 import java.io.*;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.HashSet;
 import java.util.Set;
 import java.util.TreeSet;
 
@@ -41,6 +43,40 @@ public class ReplicatedPermissionsContainer implements Serializable
 	
 	public static final String CHANNEL = "PERMISSIONSREPL";
 	
+	/**
+	 * Classes which may appear in a serialised container, anything else in the stream is rejected before it is
+	 * instantiated
+	 */
+	private static final Set<String> allowedClasses = new HashSet<String>(Arrays.asList(
+		ReplicatedPermissionsContainer.class.getName(),
+		TreeSet.class.getName(),
+		String.class.getName(),
+		Float.class.getName(),
+		Number.class.getName()
+	));
+	
+	/**
+	 * Object input stream which only resolves the classes which make up a container
+	 */
+	static class ContainerInputStream extends ObjectInputStream
+	{
+		ContainerInputStream(InputStream in) throws IOException
+		{
+			super(in);
+		}
+		
+		@Override
+		protected Class<?> resolveClass(ObjectStreamClass desc) throws IOException, ClassNotFoundException
+		{
+			if (!ReplicatedPermissionsContainer.allowedClasses.contains(desc.getName()))
+			{
+				throw new InvalidClassException(desc.getName(), "Class is not permitted in a permissions container");
+			}
+			
+			return super.resolveClass(desc);
+		}
+	}
+	
 	public ReplicatedPermissionsContainer()
 	{
 	}
@@ -95,22 +131,36 @@ public class ReplicatedPermissionsContainer implements Serializable
 	 * @return new container or null if deserialisation failed
 	 */
 	public static ReplicatedPermissionsContainer fromPacketBuffer(PacketBuffer data)
+	{
+		return ReplicatedPermissionsContainer.fromPacketBuffer(data, Integer.MAX_VALUE);
+	}
+	
+	/**
+	 * Deserialises a replicated permissions container from a byte array, only the classes which make up a
+	 * container are permitted in the stream
+	 * 
+	 * @param data Byte array containing the serialised data
+	 * @param maxSize Maximum size of the serialised data, larger payloads are rejected without being read
+	 * @return new container or null if deserialisation failed
+	 */
+	public static ReplicatedPermissionsContainer fromPacketBuffer(PacketBuffer data, int maxSize)
 	{
 		try
 		{
 			int readableBytes = data.readableBytes();
-			if (readableBytes == 0) return null;
+			if (readableBytes == 0 || readableBytes > maxSize) return null;
 			
 			byte[] payload = new byte[readableBytes];
 			data.readBytes(payload);
 			
-			ObjectInputStream inputStream = new ObjectInputStream(new ByteArrayInputStream(payload));
+			ObjectInputStream inputStream = new ContainerInputStream(new ByteArrayInputStream(payload));
 			ReplicatedPermissionsContainer object = (ReplicatedPermissionsContainer)inputStream.readObject();
 			return object;
 		}
 		catch (IOException e) { }
 		catch (ClassNotFoundException e) { }
 		catch (ClassCastException e) { }
+		catch (RuntimeException e) { }
 		
 		return null;
 	}